@@ -23,11 +23,14 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.maven.doxia.parser.AbstractParser;
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.ParseException;
 import org.apache.maven.doxia.parser.Parser;
 import org.apache.maven.doxia.parser.manager.ParserManager;
 import org.apache.maven.doxia.parser.manager.ParserNotFoundException;
 import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.HeadOnlySink;
 
 import java.io.Reader;
 
@@ -46,6 +49,25 @@ public class DefaultDoxia
     @Inject
     private ParserManager parserManager;
 
+    /**
+     * Constructor used by the container, which injects the parser manager.
+     */
+    public DefaultDoxia()
+    {
+        // parserManager is injected
+    }
+
+    /**
+     * Constructor used without container, see {@link Doxia#builder()}.
+     *
+     * @param parserManager the parser manager, not null.
+     * @since 2.0.0
+     */
+    public DefaultDoxia( ParserManager parserManager )
+    {
+        this.parserManager = parserManager;
+    }
+
     // ----------------------------------------------------------------------
     // This remains because the sinks are not threadsafe which they probably
     // should be. In some places a constructor is used to initialize a sink
@@ -56,7 +78,7 @@ public class DefaultDoxia
     public void parse( Reader source, String parserId, Sink sink )
         throws ParserNotFoundException, ParseException
     {
-        this.parse( source, parserId, sink, null );
+        this.parse( source, parserId, sink, (String) null );
     }
 
     /** {@inheritDoc} */
@@ -69,6 +91,46 @@ public class DefaultDoxia
         parser.parse( source, sink, reference );
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void parse( Reader source, String parserId, Sink sink, ParseContext context )
+        throws ParserNotFoundException, ParseException
+    {
+        Parser parser = parserManager.getParser( parserId );
+
+        parser.parse( source, sink, context );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void parseHead( Reader source, String parserId, Sink sink, String reference )
+        throws ParserNotFoundException, ParseException
+    {
+        Parser parser = parserManager.getParser( parserId );
+
+        if ( parser instanceof AbstractParser )
+        {
+            AbstractParser abstractParser = (AbstractParser) parser;
+
+            // the parser may be a shared component, restore its setting for the next full parse
+            boolean headOnly = abstractParser.isHeadOnly();
+            abstractParser.setHeadOnly( true );
+            try
+            {
+                parser.parse( source, sink, reference );
+            }
+            finally
+            {
+                abstractParser.setHeadOnly( headOnly );
+            }
+        }
+        else
+        {
+            // the events of the body are discarded, but the whole source is parsed
+            parser.parse( source, new HeadOnlySink( sink ).asSink(), reference );
+        }
+    }
+
     /** {@inheritDoc} */
     public Parser getParser( String parserId )
         throws ParserNotFoundException
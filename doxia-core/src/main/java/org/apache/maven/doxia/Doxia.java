@@ -19,6 +19,7 @@ package org.apache.maven.doxia;
  * under the License.
  */
 
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.ParseException;
 import org.apache.maven.doxia.parser.Parser;
 import org.apache.maven.doxia.parser.manager.ParserNotFoundException;
@@ -62,6 +63,40 @@ public interface Doxia
     void parse( Reader source, String parserId, Sink sink, String reference )
         throws ParserNotFoundException, ParseException;
 
+    /**
+     * Parses the given source model using a parser with given id,
+     * and emits Doxia events into the given sink.
+     * Relative resources referenced from the source are resolved against the base directory of the context,
+     * so that documents of different modules can be parsed concurrently.
+     *
+     * @param source not null reader that provides the source document
+     * @param parserId identifier for the parser to use
+     * @param sink a sink that consumes the Doxia events
+     * @param context not null context of this parse request
+     * @throws ParserNotFoundException if no parser could be found for the given id
+     * @throws ParseException if the model could not be parsed
+     * @since 2.0.0
+     */
+    void parse( Reader source, String parserId, Sink sink, ParseContext context )
+        throws ParserNotFoundException, ParseException;
+
+    /**
+     * Parses the head of the given source model only, <i>ie</i> its title, author and date,
+     * using a parser with given id, and emits the Doxia events of the head into the given sink.
+     * The supporting parsers stop reading the source when the head is complete,
+     * see {@link org.apache.maven.doxia.parser.AbstractParser#setHeadOnly(boolean)}.
+     *
+     * @param source not null reader that provides the source document
+     * @param parserId identifier for the parser to use
+     * @param sink a sink that consumes the Doxia events of the head
+     * @param reference string containing the reference to the source (e.g. filename)
+     * @throws ParserNotFoundException if no parser could be found for the given id
+     * @throws ParseException if the model could not be parsed
+     * @since 2.0.0
+     */
+    void parseHead( Reader source, String parserId, Sink sink, String reference )
+        throws ParserNotFoundException, ParseException;
+
     /**
      * Return a parser for the given <code>parserId</code>.
      *
@@ -71,4 +106,15 @@ public interface Doxia
      */
     Parser getParser( String parserId )
         throws ParserNotFoundException;
+
+    /**
+     * Creates a builder wiring parsers, macros and sink factories without container.
+     *
+     * @return a new builder.
+     * @since 2.0.0
+     */
+    static DoxiaBuilder builder()
+    {
+        return new DoxiaBuilder();
+    }
 }
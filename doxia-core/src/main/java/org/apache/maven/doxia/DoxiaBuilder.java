@@ -0,0 +1,308 @@
+package org.apache.maven.doxia;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.doxia.macro.Macro;
+import org.apache.maven.doxia.macro.manager.DefaultMacroManager;
+import org.apache.maven.doxia.macro.manager.MacroManager;
+import org.apache.maven.doxia.parser.AbstractParser;
+import org.apache.maven.doxia.parser.Parser;
+import org.apache.maven.doxia.parser.manager.DefaultParserManager;
+import org.apache.maven.doxia.sink.SinkFactory;
+
+/**
+ * Wires parsers, macros and sink factories without container, for short-lived conversions where starting
+ * a container and scanning the classpath would dominate. The components are registered explicitly,
+ * or read from the <code>META-INF/sisu/javax.inject.Named</code> index generated at build time by the
+ * <code>sisu-maven-plugin</code>, see {@link #index(ClassLoader)}:
+ * <pre>
+ * StandaloneDoxia doxia = Doxia.builder()
+ *     .parser( "markdown", MarkdownParser::new )
+ *     .sinkFactory( "xhtml5", new Xhtml5SinkFactory() )
+ *     .build();
+ * </pre>
+ * The components get no injection, except the macro manager of the parsers extending {@link AbstractParser}.
+ *
+ * @since 2.0.0
+ */
+public class DoxiaBuilder
+{
+    /** The index of the <code>@Named</code> components generated by the <code>sisu-maven-plugin</code>. */
+    public static final String INDEX_RESOURCE = "META-INF/sisu/javax.inject.Named";
+
+    private final Map<String, Provider<? extends Parser>> parsers = new LinkedHashMap<>();
+
+    private final Map<String, Provider<? extends Macro>> macros = new LinkedHashMap<>();
+
+    private final Map<String, Provider<? extends SinkFactory>> sinkFactories = new LinkedHashMap<>();
+
+    /** The components read from an index, by type then id, which do not replace the explicit ones. */
+    private final Map<Class<?>, Map<String, Provider<?>>> indexed = new HashMap<>();
+
+    DoxiaBuilder()
+    {
+        // use Doxia.builder()
+    }
+
+    /**
+     * Registers a parser.
+     *
+     * @param id the id of the parser, e.g. <code>markdown</code>.
+     * @param parser gives a parser each time one is needed, e.g. <code>MarkdownParser::new</code>,
+     * as parsers are generally not thread-safe.
+     * @return this builder.
+     */
+    public DoxiaBuilder parser( String id, Provider<? extends Parser> parser )
+    {
+        parsers.put( id, parser );
+        return this;
+    }
+
+    /**
+     * Registers a macro.
+     *
+     * @param id the id of the macro, e.g. <code>snippet</code>.
+     * @param macro the macro, shared by all the parsers.
+     * @return this builder.
+     */
+    public DoxiaBuilder macro( String id, Macro macro )
+    {
+        macros.put( id, () -> macro );
+        return this;
+    }
+
+    /**
+     * Registers a sink factory.
+     *
+     * @param id the id of the sink factory, e.g. <code>xhtml5</code>.
+     * @param sinkFactory the sink factory.
+     * @return this builder.
+     */
+    public DoxiaBuilder sinkFactory( String id, SinkFactory sinkFactory )
+    {
+        sinkFactories.put( id, () -> sinkFactory );
+        return this;
+    }
+
+    /**
+     * Registers the parsers, macros and sink factories listed in the {@link #INDEX_RESOURCE} indexes
+     * of a class loader.
+     *
+     * @param classLoader the class loader to read the indexes from and to load the components with.
+     * @return this builder.
+     * @throws IOException if an index cannot be read or lists a class that cannot be loaded.
+     * @see #index(ClassLoader, String)
+     */
+    public DoxiaBuilder index( ClassLoader classLoader )
+        throws IOException
+    {
+        return index( classLoader, INDEX_RESOURCE );
+    }
+
+    /**
+     * Registers the parsers, macros and sink factories listed in the given indexes of a class loader: text
+     * files listing one class name per line. The components are the classes annotated with a non-empty
+     * <code>@Named</code>, which gives their id, and are created with their no-arg constructor when they are
+     * first used: once for the <code>@Singleton</code> components, for each use otherwise.
+     * The components registered explicitly take precedence over the indexed ones.
+     *
+     * @param classLoader the class loader to read the indexes from and to load the components with.
+     * @param resource the name of the index resources.
+     * @return this builder.
+     * @throws IOException if an index cannot be read or lists a class that cannot be loaded.
+     */
+    public DoxiaBuilder index( ClassLoader classLoader, String resource )
+        throws IOException
+    {
+        Enumeration<URL> indexes = classLoader.getResources( resource );
+        while ( indexes.hasMoreElements() )
+        {
+            URL index = indexes.nextElement();
+
+            try ( InputStream in = index.openStream();
+                  BufferedReader reader = new BufferedReader( new InputStreamReader( in, StandardCharsets.UTF_8 ) ) )
+            {
+                String line;
+                while ( ( line = reader.readLine() ) != null )
+                {
+                    String className = line.trim();
+                    if ( !className.isEmpty() && !className.startsWith( "#" ) )
+                    {
+                        addIndexed( loadClass( classLoader, className, index ) );
+                    }
+                }
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Wires the registered components.
+     *
+     * @return a new Doxia instance.
+     */
+    public StandaloneDoxia build()
+    {
+        Map<String, Macro> macroMap = new HashMap<>();
+        for ( Map.Entry<String, Provider<? extends Macro>> entry : merge( Macro.class, macros ).entrySet() )
+        {
+            macroMap.put( entry.getKey(), entry.getValue().get() );
+        }
+        MacroManager macroManager = new DefaultMacroManager( Collections.unmodifiableMap( macroMap ) );
+
+        Map<String, Provider<Parser>> parserMap = new HashMap<>();
+        for ( Map.Entry<String, Provider<? extends Parser>> entry : merge( Parser.class, parsers ).entrySet() )
+        {
+            Provider<? extends Parser> provider = entry.getValue();
+            parserMap.put( entry.getKey(), () -> configure( provider.get(), macroManager ) );
+        }
+
+        Map<String, SinkFactory> sinkFactoryMap = new HashMap<>();
+        for ( Map.Entry<String, Provider<? extends SinkFactory>> entry
+            : merge( SinkFactory.class, sinkFactories ).entrySet() )
+        {
+            sinkFactoryMap.put( entry.getKey(), entry.getValue().get() );
+        }
+
+        return new StandaloneDoxia( new DefaultParserManager( Collections.unmodifiableMap( parserMap ) ),
+                                    macroManager, Collections.unmodifiableMap( sinkFactoryMap ) );
+    }
+
+    private static Parser configure( Parser parser, MacroManager macroManager )
+    {
+        if ( parser instanceof AbstractParser )
+        {
+            ( (AbstractParser) parser ).setMacroManager( macroManager );
+        }
+        return parser;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <T> Map<String, Provider<? extends T>> merge( Class<T> type, Map<String, Provider<? extends T>> explicit )
+    {
+        Map<String, Provider<? extends T>> merged = new LinkedHashMap<>();
+
+        for ( Map.Entry<String, Provider<?>> entry : indexed.getOrDefault( type, Collections.emptyMap() ).entrySet() )
+        {
+            merged.put( entry.getKey(), (Provider<? extends T>) entry.getValue() );
+        }
+        merged.putAll( explicit );
+
+        return merged;
+    }
+
+    private void addIndexed( Class<?> type )
+    {
+        Named named = type.getAnnotation( Named.class );
+        if ( named == null || named.value().isEmpty() || Modifier.isAbstract( type.getModifiers() ) )
+        {
+            return;
+        }
+
+        for ( Class<?> role : new Class<?>[] { Parser.class, Macro.class, SinkFactory.class } )
+        {
+            if ( role.isAssignableFrom( type ) )
+            {
+                Provider<?> provider = type.isAnnotationPresent( Singleton.class )
+                    ? new SingletonProvider( type )
+                    : () -> newInstance( type );
+
+                indexed.computeIfAbsent( role, k -> new LinkedHashMap<>() ).putIfAbsent( named.value(), provider );
+            }
+        }
+    }
+
+    private static Class<?> loadClass( ClassLoader classLoader, String className, URL index )
+        throws IOException
+    {
+        try
+        {
+            // the static initializers only run for the components actually used
+            return Class.forName( className, false, classLoader );
+        }
+        catch ( ClassNotFoundException | LinkageError e )
+        {
+            throw new IOException( "Cannot load " + className + " listed in " + index, e );
+        }
+    }
+
+    private static Object newInstance( Class<?> type )
+    {
+        try
+        {
+            return type.getConstructor().newInstance();
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new IllegalStateException( "Cannot create " + type.getName(), e );
+        }
+    }
+
+    /** Creates a component once, on first use. */
+    private static class SingletonProvider
+        implements Provider<Object>
+    {
+        private final Class<?> type;
+
+        private volatile Object instance;
+
+        SingletonProvider( Class<?> type )
+        {
+            this.type = type;
+        }
+
+        @Override
+        public Object get()
+        {
+            Object result = instance;
+            if ( result == null )
+            {
+                synchronized ( this )
+                {
+                    result = instance;
+                    if ( result == null )
+                    {
+                        result = newInstance( type );
+                        instance = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.apache.maven.doxia;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+
+import org.apache.maven.doxia.macro.manager.MacroManager;
+import org.apache.maven.doxia.parser.manager.ParserManager;
+import org.apache.maven.doxia.sink.SinkFactory;
+
+/**
+ * A Doxia instance wired without container by a {@link DoxiaBuilder}, which gives access
+ * to the macros and sink factories registered too.
+ *
+ * @since 2.0.0
+ */
+public class StandaloneDoxia
+    extends DefaultDoxia
+{
+    private final MacroManager macroManager;
+
+    private final Map<String, SinkFactory> sinkFactories;
+
+    StandaloneDoxia( ParserManager parserManager, MacroManager macroManager, Map<String, SinkFactory> sinkFactories )
+    {
+        super( parserManager );
+        this.macroManager = macroManager;
+        this.sinkFactories = sinkFactories;
+    }
+
+    /**
+     * @return the manager of the registered macros, also used by the parsers.
+     */
+    public MacroManager getMacroManager()
+    {
+        return macroManager;
+    }
+
+    /**
+     * Return a sink factory for the given <code>id</code>.
+     *
+     * @param id identifier of the sink factory, e.g. <code>xhtml5</code>.
+     * @return the sink factory registered with that id.
+     * @throws IllegalArgumentException if no sink factory was registered with that id.
+     */
+    public SinkFactory getSinkFactory( String id )
+    {
+        SinkFactory sinkFactory = sinkFactories.get( id );
+
+        if ( sinkFactory == null )
+        {
+            throw new IllegalArgumentException( "Cannot find sink factory with id = " + id );
+        }
+
+        return sinkFactory;
+    }
+}
@@ -0,0 +1,150 @@
+package org.apache.maven.doxia.index;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.doxia.parser.ParseContext;
+import org.apache.maven.doxia.parser.ParseException;
+import org.apache.maven.doxia.parser.Parser;
+import org.apache.maven.doxia.parser.manager.ParserManager;
+import org.apache.maven.doxia.parser.manager.ParserNotFoundException;
+import org.codehaus.plexus.util.ReaderFactory;
+
+/**
+ * Default implementation of the <code>SiteIndexer</code> interface: parses each document
+ * with its own parser instance into an {@link IndexingSink}.
+ *
+ * @since 2.0.0
+ */
+@Singleton
+@Named
+public class DefaultSiteIndexer
+    implements SiteIndexer
+{
+    @Inject
+    private ParserManager parserManager;
+
+    /** {@inheritDoc} */
+    @Override
+    public SiteIndex index( Collection<IndexSource> sources, ParseContext context, int threads )
+        throws ParserNotFoundException, ParseException
+    {
+        // fail fast on unknown parsers
+        Set<String> parserIds = new HashSet<>();
+
+        for ( IndexSource source : sources )
+        {
+            if ( parserIds.add( source.getParserId() ) )
+            {
+                parserManager.getParser( source.getParserId() );
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, threads ) );
+
+        try
+        {
+            List<Future<IndexEntry>> futures = new ArrayList<>( sources.size() );
+
+            for ( IndexSource source : sources )
+            {
+                futures.add( executor.submit( () -> indexDocument( source, context ) ) );
+            }
+
+            SiteIndex index = new SiteIndex();
+
+            for ( Future<IndexEntry> future : futures )
+            {
+                index.addDocument( future.get() );
+            }
+
+            return index;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ParseException( "Interrupted while indexing", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+
+            if ( cause instanceof ParseException )
+            {
+                throw (ParseException) cause;
+            }
+            else if ( cause instanceof ParserNotFoundException )
+            {
+                throw (ParserNotFoundException) cause;
+            }
+            else if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+
+            throw (Error) cause;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private IndexEntry indexDocument( IndexSource source, ParseContext context )
+        throws ParserNotFoundException, ParseException
+    {
+        Parser parser = parserManager.getParser( source.getParserId() );
+
+        IndexEntry root = new IndexEntry( source.getReference() );
+        IndexingSink sink = new IndexingSink( root );
+
+        try ( Reader reader = parser.getType() == Parser.XML_TYPE
+            ? ReaderFactory.newXmlReader( source.getFile() )
+            : ReaderFactory.newReader( source.getFile(), source.getEncoding() ) )
+        {
+            parser.parse( reader, sink, context.forReference( source.getReference() ) );
+        }
+        catch ( IOException e )
+        {
+            throw new ParseException( e, source.getFile().getPath(), -1, -1 );
+        }
+        finally
+        {
+            sink.close();
+        }
+
+        return root;
+    }
+}
@@ -52,6 +52,16 @@ public class IndexEntry
      */
     private List<IndexEntry> childEntries = new ArrayList<>();
 
+    /**
+     * The previous sibling entry.
+     */
+    private IndexEntry prevEntry;
+
+    /**
+     * The next sibling entry.
+     */
+    private IndexEntry nextEntry;
+
     /**
      * System-dependent EOL.
      */
@@ -80,6 +90,14 @@ public class IndexEntry
 
         if ( parent != null )
         {
+            IndexEntry last = parent.getLastEntry();
+
+            if ( last != null )
+            {
+                last.nextEntry = this;
+                this.prevEntry = last;
+            }
+
             parent.childEntries.add( this );
         }
     }
@@ -154,10 +172,27 @@ public class IndexEntry
     {
         if ( entries == null )
         {
-            childEntries = new ArrayList<>();
+            this.childEntries = new ArrayList<>();
+        }
+        else
+        {
+            this.childEntries = entries;
         }
 
-        this.childEntries = entries;
+        IndexEntry prev = null;
+
+        for ( IndexEntry entry : childEntries )
+        {
+            entry.prevEntry = prev;
+            entry.nextEntry = null;
+
+            if ( prev != null )
+            {
+                prev.nextEntry = entry;
+            }
+
+            prev = entry;
+        }
     }
 
     // -----------------------------------------------------------------------
@@ -171,21 +206,7 @@ public class IndexEntry
      */
     public IndexEntry getNextEntry()
     {
-        if ( parent == null )
-        {
-            return null;
-        }
-
-        List<IndexEntry> entries = parent.getChildEntries();
-
-        int index = entries.indexOf( this );
-
-        if ( index + 1 >= entries.size() )
-        {
-            return null;
-        }
-
-        return entries.get( index + 1 );
+        return nextEntry;
     }
 
     /**
@@ -195,21 +216,7 @@ public class IndexEntry
      */
     public IndexEntry getPrevEntry()
     {
-        if ( parent == null )
-        {
-            return null;
-        }
-
-        List<IndexEntry> entries = parent.getChildEntries();
-
-        int index = entries.indexOf( this );
-
-        if ( index == 0 )
-        {
-            return null;
-        }
-
-        return entries.get( index - 1 );
+        return prevEntry;
     }
 
     /**
@@ -0,0 +1,110 @@
+package org.apache.maven.doxia.index;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+/**
+ * A source document to be indexed by a {@link SiteIndexer}.
+ *
+ * @since 2.0.0
+ */
+public class IndexSource
+{
+    /** The reference of the document in the index, e.g. its path relative to the site root. */
+    private final String reference;
+
+    /** The source file. */
+    private final File file;
+
+    /** The id of the parser to use. */
+    private final String parserId;
+
+    /** The encoding of the file, ignored for XML documents. */
+    private final String encoding;
+
+    /**
+     * Constructor for an UTF-8 encoded source.
+     *
+     * @param reference the reference of the document in the index, not null.
+     * @param file the source file, not null.
+     * @param parserId the id of the parser to use, not null.
+     */
+    public IndexSource( String reference, File file, String parserId )
+    {
+        this( reference, file, parserId, "UTF-8" );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param reference the reference of the document in the index, not null.
+     * @param file the source file, not null.
+     * @param parserId the id of the parser to use, not null.
+     * @param encoding the encoding of the file, ignored for XML documents which declare their own encoding.
+     */
+    public IndexSource( String reference, File file, String parserId, String encoding )
+    {
+        this.reference = reference;
+        this.file = file;
+        this.parserId = parserId;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Returns the reference of the document in the index.
+     *
+     * @return the reference.
+     */
+    public String getReference()
+    {
+        return reference;
+    }
+
+    /**
+     * Returns the source file.
+     *
+     * @return the file.
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Returns the id of the parser to use.
+     *
+     * @return the parser id.
+     */
+    public String getParserId()
+    {
+        return parserId;
+    }
+
+    /**
+     * Returns the encoding of the file.
+     *
+     * @return the encoding.
+     */
+    public String getEncoding()
+    {
+        return encoding;
+    }
+}
@@ -19,10 +19,12 @@ package org.apache.maven.doxia.index;
  * under the License.
  */
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Stack;
 
 import org.apache.maven.doxia.sink.impl.SinkAdapter;
-import org.apache.maven.doxia.util.HtmlTools;
+import org.apache.maven.doxia.util.IdEncoder;
 
 /**
  * A sink implementation for index.
@@ -69,6 +71,18 @@ public class IndexingSink
     /** The stack. */
     private final Stack<IndexEntry> stack;
 
+    /** The title of the current section, accumulated until the end of the section title. */
+    private final StringBuilder sectionTitle = new StringBuilder();
+
+    /** Whether text has been received for the current section title. */
+    private boolean sectionTitleText;
+
+    /** Encodes the section titles into ids. */
+    private final IdEncoder idEncoder = new IdEncoder();
+
+    /** The entries by id, first entry wins for duplicate ids. */
+    private final Map<String, IndexEntry> entriesById = new HashMap<>();
+
     /**
      * Default constructor.
      *
@@ -92,10 +106,34 @@ public class IndexingSink
         return title;
     }
 
+    /**
+     * Returns the section entry with the given (encoded) id.
+     *
+     * @param id the id of the entry, as returned by {@link IndexEntry#getId()}.
+     * @return the first entry with that id, or null if there is none.
+     * @since 2.0.0
+     */
+    public IndexEntry getEntryById( String id )
+    {
+        return entriesById.get( id );
+    }
+
     // ----------------------------------------------------------------------
     // Sink Overrides
     // ----------------------------------------------------------------------
 
+    /**
+     * {@inheritDoc}
+     *
+     * Only the sections and their titles are indexed.
+     *
+     * @since 2.0.0
+     */
+    public int getConsumedEvents()
+    {
+        return EVENTS_STRUCTURE;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -133,7 +171,7 @@ public class IndexingSink
      */
     public void sectionTitle1_()
     {
-        this.type = 0;
+        finishSectionTitle();
     }
 
     /**
@@ -165,7 +203,7 @@ public class IndexingSink
      */
     public void sectionTitle2_()
     {
-        this.type = 0;
+        finishSectionTitle();
     }
 
     /**
@@ -197,7 +235,7 @@ public class IndexingSink
      */
     public void sectionTitle3_()
     {
-        this.type = 0;
+        finishSectionTitle();
     }
 
     /**
@@ -229,7 +267,7 @@ public class IndexingSink
      */
     public void sectionTitle4_()
     {
-        this.type = 0;
+        finishSectionTitle();
     }
 
     /**
@@ -261,7 +299,7 @@ public class IndexingSink
      */
     public void sectionTitle5_()
     {
-        this.type = 0;
+        finishSectionTitle();
     }
 
     /**
@@ -300,18 +338,18 @@ public class IndexingSink
             case TYPE_SECTION_3:
             case TYPE_SECTION_4:
             case TYPE_SECTION_5:
-                // -----------------------------------------------------------------------
-                // Sanitize the id. The most important step is to remove any blanks
-                // -----------------------------------------------------------------------
+                // append text to current section title, without line breaks
+                for ( int i = 0; i < text.length(); i++ )
+                {
+                    char c = text.charAt( i );
 
-                // append text to current entry
-                IndexEntry entry = stack.lastElement();
+                    if ( c != '\r' && c != '\n' )
+                    {
+                        sectionTitle.append( c );
+                    }
+                }
 
-                String title = entry.getTitle() + text;
-                title = title.replaceAll( "[\\r\\n]+", "" );
-                entry.setTitle( title );
-
-                entry.setId( HtmlTools.encodeId( title ) );
+                sectionTitleText = true;
 
                 break;
             // Dunno how to handle these yet
@@ -323,6 +361,32 @@ public class IndexingSink
         }
     }
 
+    /**
+     * Sets the title and id of the current entry from the accumulated section title.
+     */
+    private void finishSectionTitle()
+    {
+        this.type = 0;
+
+        if ( sectionTitleText )
+        {
+            // -----------------------------------------------------------------------
+            // Sanitize the id. The most important step is to remove any blanks
+            // -----------------------------------------------------------------------
+
+            IndexEntry entry = stack.lastElement();
+
+            String title = entry.getTitle() + sectionTitle;
+            entry.setTitle( title );
+            entry.setId( idEncoder.encodeId( title ) );
+
+            entriesById.putIfAbsent( entry.getId(), entry );
+        }
+
+        sectionTitle.setLength( 0 );
+        sectionTitleText = false;
+    }
+
     /**
      * Creates and pushes a new IndexEntry onto the top of this stack.
      */
@@ -350,6 +414,11 @@ public class IndexingSink
      */
     public void pop()
     {
+        if ( sectionTitleText )
+        {
+            finishSectionTitle();
+        }
+
         stack.pop();
     }
 
@@ -380,5 +449,7 @@ public class IndexingSink
     {
         this.type = 0;
         this.title = null;
+        this.sectionTitle.setLength( 0 );
+        this.sectionTitleText = false;
     }
 }
@@ -0,0 +1,202 @@
+package org.apache.maven.doxia.index;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The section index of several documents, as built by a {@link SiteIndexer}.
+ * <br>
+ * Each document is represented by a root {@link IndexEntry} whose id is the document reference,
+ * section entries can be looked up by their anchor id across all documents.
+ *
+ * @since 2.0.0
+ */
+public class SiteIndex
+{
+    /** The root entries by document reference, in indexing order. */
+    private final Map<String, IndexEntry> documents = new LinkedHashMap<>();
+
+    /** The section entries by anchor id: an IndexEntry, or an IndexEntry[] if several documents use the id. */
+    private final Map<String, Object> anchors = new HashMap<>();
+
+    /**
+     * Adds the index of a document.
+     *
+     * @param root the root entry of the document, its id is the document reference.
+     */
+    void addDocument( IndexEntry root )
+    {
+        documents.put( root.getId(), root );
+
+        addAnchors( root );
+    }
+
+    private void addAnchors( IndexEntry parent )
+    {
+        for ( IndexEntry entry : parent.getChildEntries() )
+        {
+            String id = entry.getId();
+
+            if ( id != null && !id.isEmpty() )
+            {
+                Object previous = anchors.putIfAbsent( id, entry );
+
+                if ( previous instanceof IndexEntry )
+                {
+                    IndexEntry first = (IndexEntry) previous;
+
+                    if ( getDocument( first ) != getDocument( entry ) )
+                    {
+                        anchors.put( id, new IndexEntry[] { first, entry } );
+                    }
+                }
+                else if ( previous instanceof IndexEntry[] )
+                {
+                    IndexEntry[] entries = (IndexEntry[]) previous;
+
+                    if ( getDocument( entries[entries.length - 1] ) != getDocument( entry ) )
+                    {
+                        entries = Arrays.copyOf( entries, entries.length + 1 );
+                        entries[entries.length - 1] = entry;
+                        anchors.put( id, entries );
+                    }
+                }
+            }
+
+            addAnchors( entry );
+        }
+    }
+
+    /**
+     * Returns the references of all indexed documents.
+     *
+     * @return the document references, in indexing order.
+     */
+    public Set<String> getDocuments()
+    {
+        return Collections.unmodifiableSet( documents.keySet() );
+    }
+
+    /**
+     * Returns the index of a document.
+     *
+     * @param document the document reference.
+     * @return the root entry of the document, or null if the document was not indexed.
+     */
+    public IndexEntry getDocumentIndex( String document )
+    {
+        return documents.get( document );
+    }
+
+    /**
+     * Returns the section entries with the given anchor id, one per document using it.
+     *
+     * @param id the anchor id.
+     * @return the entries, in indexing order of their documents, never null.
+     */
+    public List<IndexEntry> getEntries( String id )
+    {
+        Object value = anchors.get( id );
+
+        if ( value instanceof IndexEntry )
+        {
+            return Collections.singletonList( (IndexEntry) value );
+        }
+        else if ( value instanceof IndexEntry[] )
+        {
+            return Collections.unmodifiableList( Arrays.asList( (IndexEntry[]) value ) );
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Resolves an anchor id globally.
+     *
+     * @param id the anchor id.
+     * @return the entry of the first document using the id, or null if no document uses it.
+     */
+    public IndexEntry resolve( String id )
+    {
+        List<IndexEntry> entries = getEntries( id );
+
+        return entries.isEmpty() ? null : entries.get( 0 );
+    }
+
+    /**
+     * Resolves an anchor id in a given document.
+     *
+     * @param document the document reference.
+     * @param id the anchor id.
+     * @return the first entry of the document with the id, or null if there is none.
+     */
+    public IndexEntry resolve( String document, String id )
+    {
+        for ( IndexEntry entry : getEntries( id ) )
+        {
+            if ( document.equals( getDocumentReference( entry ) ) )
+            {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the reference of the document an entry belongs to.
+     *
+     * @param entry an entry of this index.
+     * @return the document reference.
+     */
+    public String getDocumentReference( IndexEntry entry )
+    {
+        return getDocument( entry ).getId();
+    }
+
+    /**
+     * Returns the number of distinct anchor ids.
+     *
+     * @return the number of anchor ids.
+     */
+    public int getAnchorCount()
+    {
+        return anchors.size();
+    }
+
+    private static IndexEntry getDocument( IndexEntry entry )
+    {
+        IndexEntry root = entry;
+
+        while ( root.getParent() != null )
+        {
+            root = root.getParent();
+        }
+
+        return root;
+    }
+}
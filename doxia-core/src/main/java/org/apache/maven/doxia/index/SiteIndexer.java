@@ -0,0 +1,49 @@
+package org.apache.maven.doxia.index;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+
+import org.apache.maven.doxia.parser.ParseContext;
+import org.apache.maven.doxia.parser.ParseException;
+import org.apache.maven.doxia.parser.manager.ParserNotFoundException;
+
+/**
+ * Builds a {@link SiteIndex} from several documents, parsing them concurrently.
+ *
+ * @since 2.0.0
+ */
+public interface SiteIndexer
+{
+    /**
+     * Indexes the sections of the given documents.
+     *
+     * @param sources the documents to index, in the order that decides which document wins for an anchor id
+     * used by several documents.
+     * @param context the context of the module the documents belong to, each document is parsed with
+     * {@link ParseContext#forReference(String)}.
+     * @param threads the number of documents to parse concurrently.
+     * @return the index of all documents.
+     * @throws ParserNotFoundException if no parser could be found for the parser id of a document.
+     * @throws ParseException if a document could not be read or parsed.
+     */
+    SiteIndex index( Collection<IndexSource> sources, ParseContext context, int threads )
+        throws ParserNotFoundException, ParseException;
+}
@@ -0,0 +1,96 @@
+package org.apache.maven.doxia.macro;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.maven.doxia.sink.Sink;
+
+/**
+ * A macro which may take long to complete, like fetching a remote snippet, and runs in the background.
+ * <p>
+ * When the document is written to a {@link org.apache.maven.doxia.sink.impl.RandomAccessSink}, the parser
+ * gives the macro a sink hook at the position of the macro, and goes on parsing the rest of the document
+ * while the macro runs. The parser waits for the pending macros at the end of the document, so that
+ * a page with several slow macros takes about as long as the slowest one. With any other sink, the macro
+ * is executed synchronously, see {@link #execute(Sink, MacroRequest)}.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public interface AsyncMacro
+    extends Macro
+{
+    /**
+     * Starts the macro. The events are emitted into the given sink, possibly from another thread,
+     * and the sink must not be used after the returned future has completed.
+     *
+     * @param sink The sink to receive the events, only used by this macro.
+     * @param request The corresponding MacroRequest.
+     * @return a future completing once all the events have been emitted, or completing exceptionally
+     * if the execution failed.
+     * @throws org.apache.maven.doxia.macro.MacroExecutionException if the macro could not be started.
+     */
+    CompletableFuture<Void> executeAsync( Sink sink, MacroRequest request )
+        throws MacroExecutionException;
+
+    /**
+     * Executes the macro and waits for its completion.
+     *
+     * @param sink The sink to receive the events.
+     * @param request The corresponding MacroRequest.
+     * @throws org.apache.maven.doxia.macro.MacroExecutionException if an error occurred during execution.
+     */
+    @Override
+    default void execute( Sink sink, MacroRequest request )
+        throws MacroExecutionException
+    {
+        await( executeAsync( sink, request ) );
+    }
+
+    /**
+     * Waits for the completion of an asynchronous macro.
+     *
+     * @param execution the future returned by {@link #executeAsync(Sink, MacroRequest)}.
+     * @throws org.apache.maven.doxia.macro.MacroExecutionException if the execution failed or was interrupted.
+     */
+    static void await( CompletableFuture<Void> execution )
+        throws MacroExecutionException
+    {
+        try
+        {
+            execution.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MacroExecutionException( "Interrupted while waiting for a macro", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof MacroExecutionException )
+            {
+                throw (MacroExecutionException) e.getCause();
+            }
+            throw new MacroExecutionException( "Macro execution failed", e.getCause() );
+        }
+    }
+}
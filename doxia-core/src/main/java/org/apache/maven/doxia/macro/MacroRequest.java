@@ -22,6 +22,7 @@ package org.apache.maven.doxia.macro;
 import java.util.Map;
 
 import org.apache.maven.doxia.parser.AbstractParser;
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.Parser;
 
 import java.io.File;
@@ -43,6 +44,9 @@ public class MacroRequest
     /** A map of parameters. */
     private Map<String, Object> parameters;
 
+    /** The context of the parse request that triggered the macro. */
+    private final ParseContext parseContext;
+
     /**
      * <p>Constructor for MacroRequest.</p>
      *
@@ -52,9 +56,25 @@ public class MacroRequest
      * @param base a {@link java.io.File} object.
      */
     public MacroRequest( String sourceContent, AbstractParser parser, Map<String, Object> param, File base )
+    {
+        this( sourceContent, parser, param, new ParseContext( base ) );
+    }
+
+    /**
+     * <p>Constructor for MacroRequest.</p>
+     *
+     * @param sourceContent a {@link java.lang.String} object.
+     * @param parser a {@link org.apache.maven.doxia.parser.AbstractParser} object.
+     * @param param a {@link java.util.Map} object.
+     * @param context the {@link org.apache.maven.doxia.parser.ParseContext} of the current document.
+     * @since 2.0.0
+     */
+    public MacroRequest( String sourceContent, AbstractParser parser, Map<String, Object> param,
+                         ParseContext context )
     {
         this.parameters = param;
-        this.basedir = base;
+        this.basedir = context.getBasedir();
+        this.parseContext = context;
         param.put( PARAM_SOURCE_CONTENT, sourceContent );
         parser.setSecondParsing( true );
         param.put( PARAM_PARSER, parser );
@@ -80,6 +100,18 @@ public class MacroRequest
         this.basedir = base;
     }
 
+    /**
+     * Returns the context of the parse request that triggered the macro,
+     * e.g. to share caches between documents.
+     *
+     * @return The parse context.
+     * @since 2.0.0
+     */
+    public ParseContext getParseContext()
+    {
+        return parseContext;
+    }
+
     /**
      * Returns the map of parameters.
      *
@@ -42,6 +42,25 @@ public class DefaultMacroManager
     @Inject
     private Map<String, Macro> macros;
 
+    /**
+     * Constructor used by the container, which injects the macros.
+     */
+    public DefaultMacroManager()
+    {
+        // macros are injected
+    }
+
+    /**
+     * Constructor used without container.
+     *
+     * @param macros the macros by id, not null.
+     * @since 2.0.0
+     */
+    public DefaultMacroManager( Map<String, Macro> macros )
+    {
+        this.macros = macros;
+    }
+
     /** {@inheritDoc} */
     public Macro getMacro( String id )
         throws MacroNotFoundException
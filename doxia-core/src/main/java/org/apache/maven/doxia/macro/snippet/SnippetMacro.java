@@ -25,6 +25,7 @@ import javax.inject.Singleton;
 import org.apache.maven.doxia.macro.AbstractMacro;
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
+import org.apache.maven.doxia.parser.DependencyRecorder;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.codehaus.plexus.util.StringUtils;
@@ -35,8 +36,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A macro that prints out the content of a file or a URL.
@@ -51,7 +53,7 @@ public class SnippetMacro
     /**
      * Holds the cache.
      */
-    private static Map<String, String> cache = new HashMap<>();
+    private static Map<String, String> cache = new ConcurrentHashMap<>();
 
     private static final int HOUR = 60;
 
@@ -63,7 +65,7 @@ public class SnippetMacro
     /**
      * Holds the time cache.
      */
-    private static Map<String, Long> timeCached = new HashMap<>();
+    private static Map<String, Long> timeCached = new ConcurrentHashMap<>();
 
     /**
      * Debug.
@@ -150,7 +152,7 @@ public class SnippetMacro
 
         try
         {
-            snippet = getSnippet( url, encoding, id );
+            snippet = getSnippet( url, encoding, id, getDependencyRecorder( request ) );
         }
         catch ( IOException e )
         {
@@ -167,7 +169,7 @@ public class SnippetMacro
         }
         else
         {
-            sink.rawText( snippet.toString() );
+            sink.rawText( snippet );
         }
     }
 
@@ -177,10 +179,11 @@ public class SnippetMacro
      * @param url The URL to parse.
      * @param encoding The encoding of the URL to parse.
      * @param id  The id of the snippet.
+     * @param recorder The recorder of the dependencies of the document, may be null.
      * @return The snippet.
      * @throws IOException if something goes wrong.
      */
-    private StringBuffer getSnippet( URL url, String encoding, String id )
+    private StringBuffer getSnippet( URL url, String encoding, String id, DependencyRecorder recorder )
         throws IOException
     {
         StringBuffer result;
@@ -189,6 +192,7 @@ public class SnippetMacro
 
         if ( cachedSnippet != null )
         {
+            record( recorder, url, cachedSnippet );
             result = new StringBuffer( cachedSnippet );
 
             if ( debug )
@@ -202,6 +206,7 @@ public class SnippetMacro
             {
                 result = new SnippetReader( url, encoding ).readSnippet( id );
                 cacheSnippet( url, id, result.toString() );
+                record( recorder, url, result.toString() );
                 if ( debug )
                 {
                     result.append( "(Fetched from url, cache content " ).append( cache ).append( ")" );
@@ -209,6 +214,7 @@ public class SnippetMacro
             }
             catch ( IOException e )
             {
+                record( recorder, url, null );
                 if ( ignoreDownloadError )
                 {
                     LOGGER.debug( "Exception while reading '{}'", url, e );
@@ -224,6 +230,30 @@ public class SnippetMacro
         return result;
     }
 
+    /**
+     * @param request the macro request.
+     * @return the recorder of the dependencies of the document, or null if they are not recorded.
+     */
+    private static DependencyRecorder getDependencyRecorder( MacroRequest request )
+    {
+        return request.getParseContext() == null ? null : request.getParseContext().getDependencyRecorder();
+    }
+
+    /**
+     * Records the snippet as a dependency of the document.
+     *
+     * @param recorder the recorder of the dependencies, may be null.
+     * @param url the url of the snippet.
+     * @param snippet the snippet content, or null if it could not be read.
+     */
+    private static void record( DependencyRecorder recorder, URL url, String snippet )
+    {
+        if ( recorder != null )
+        {
+            recorder.record( url.toString(), snippet == null ? null : snippet.getBytes( StandardCharsets.UTF_8 ) );
+        }
+    }
+
     /**
      * Return a snippet from the cache.
      *
@@ -27,14 +27,23 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.maven.doxia.macro.AsyncMacro;
 import org.apache.maven.doxia.macro.Macro;
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
 import org.apache.maven.doxia.macro.manager.MacroManager;
 import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
 import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.BudgetSink;
+import org.apache.maven.doxia.sink.impl.CoalescingSink;
+import org.apache.maven.doxia.sink.impl.HeadOnlySink;
+import org.apache.maven.doxia.sink.impl.RandomAccessSink;
 
 /**
  * An abstract base class that defines some convenience methods for parsers.
@@ -57,6 +66,31 @@ public abstract class AbstractParser
      */
     private boolean emitComments = true;
 
+    /**
+     * Merge consecutive text events before they reach the sink?
+     */
+    private boolean coalesceText;
+
+    private boolean headOnly;
+
+    /** Tracks the head of the current document in head-only mode. */
+    private HeadOnlySink headOnlySink;
+
+    /** The resources a document may use, null for no limit. */
+    private ParseBudget budget;
+
+    /** Tracks the budget of the current document. */
+    private BudgetSink budgetSink;
+
+    /** The sink given to {@link #startDocument(Sink)} for the current document. */
+    private Sink documentSink;
+
+    /** The asynchronous macros of the current document still running, in document order. */
+    private final List<CompletableFuture<Void>> pendingMacros = new ArrayList<>();
+
+    /** The context of the current parse request, if any. */
+    private ParseContext parseContext;
+
     private static final String DOXIA_VERSION;
 
     static
@@ -121,8 +155,136 @@ public abstract class AbstractParser
         return emitComments;
     }
 
+    /**
+     * Sets whether consecutive text events with equal attributes are merged into a single event
+     * before reaching the sink, see {@link org.apache.maven.doxia.sink.impl.CoalescingSink}.
+     * Only the parsers supporting it take this setting into account.
+     *
+     * @param coalesceText true to merge text events.
+     * @since 2.0.0
+     */
+    public void setCoalesceText( boolean coalesceText )
+    {
+        this.coalesceText = coalesceText;
+    }
+
+    /**
+     * @return true if consecutive text events are merged before reaching the sink.
+     * @since 2.0.0
+     */
+    public boolean isCoalesceText()
+    {
+        return coalesceText;
+    }
+
+    /**
+     * Sets whether only the head of the documents is parsed, <i>ie</i> the title, author and date.
+     * The sink then receives the events up to <code>head_()</code>, and the parser stops
+     * as soon as the head is complete or the body starts. Documents are not validated in this mode.
+     *
+     * @param headOnly true to parse the head only.
+     * @since 2.0.0
+     */
+    public void setHeadOnly( boolean headOnly )
+    {
+        this.headOnly = headOnly;
+    }
+
+    /**
+     * @return true if only the head of the documents is parsed.
+     * @since 2.0.0
+     */
+    public boolean isHeadOnly()
+    {
+        return headOnly;
+    }
+
+    /**
+     * Sets the resources each document may use. Only the parsers supporting it take this setting into account.
+     *
+     * @param budget the budget of each document, null for no limit.
+     * @since 2.0.0
+     */
+    public void setBudget( ParseBudget budget )
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * @return the budget of each document, null for no limit.
+     * @since 2.0.0
+     */
+    public ParseBudget getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Prepares the sink for the document about to be parsed: in head-only mode, the returned sink
+     * discards the events following the head, and {@link #isHeadParsed()} tells when the parser can stop.
+     * With a {@link #getBudget() budget}, the returned sink enforces it, see {@link #getBudgetViolation()}.
+     *
+     * @param sink the sink to receive the events.
+     * @return the sink to emit the events of the document to.
+     * @since 2.0.0
+     */
+    protected Sink startDocument( Sink sink )
+    {
+        documentSink = sink;
+
+        headOnlySink = headOnly ? new HeadOnlySink( sink ) : null;
+
+        Sink target = headOnlySink == null ? sink : headOnlySink.asSink();
+
+        budgetSink = budget == null ? null : new BudgetSink( target, budget );
+
+        return budgetSink == null ? target : budgetSink.asSink();
+    }
+
+    /**
+     * Tells whether the current document exceeded its budget. Parsers call it regularly, at least once
+     * per input block or token, and fail with a {@link ParseException} giving the returned description.
+     *
+     * @return a description of the limit exceeded, or null if there is no budget or the document is within it.
+     * @since 2.0.0
+     */
+    protected String getBudgetViolation()
+    {
+        return budgetSink == null ? null : budgetSink.getViolation();
+    }
+
+    /**
+     * Tells a parser in head-only mode that it can stop, as the sink returned by {@link #startDocument(Sink)}
+     * has received the complete head.
+     *
+     * @return true if in head-only mode and the head of the current document has been parsed.
+     * @since 2.0.0
+     */
+    protected boolean isHeadParsed()
+    {
+        return headOnlySink != null && headOnlySink.isDone();
+    }
+
+    /**
+     * Checks whether the given sink makes use of any of the given event categories,
+     * see {@link Sink#getConsumedEvents()}. Parsers use it to skip the work producing events
+     * the sink would ignore.
+     *
+     * @param sink the sink receiving the events.
+     * @param events a combination of the <code>Sink.EVENTS_*</code> constants.
+     * @return true if the sink consumes at least one of the given categories.
+     * @since 2.0.0
+     */
+    protected static boolean isConsumed( Sink sink, int events )
+    {
+        return ( sink.getConsumedEvents() & events ) != 0;
+    }
+
     /**
      * Execute a macro on the given sink.
+     * Nothing is done if the sink does not consume {@link Sink#EVENTS_MACROS}.
+     * When the document is written to a {@link RandomAccessSink}, an {@link AsyncMacro} is only started here:
+     * it renders into a sink hook, and {@link #awaitMacros()} waits for its completion.
      *
      * @param macroId an id to lookup the macro
      * @param request the corresponding MacroRequest
@@ -135,21 +297,97 @@ public abstract class AbstractParser
     public void executeMacro( String macroId, MacroRequest request, Sink sink )
         throws MacroExecutionException, MacroNotFoundException
     {
+        if ( !isConsumed( sink, Sink.EVENTS_MACROS ) )
+        {
+            return;
+        }
+
         Macro macro = getMacroManager().getMacro( macroId );
 
+        if ( macro instanceof AsyncMacro && documentSink instanceof RandomAccessSink )
+        {
+            if ( sink instanceof CoalescingSink )
+            {
+                // the text before the macro belongs before the hook
+                ( (CoalescingSink) sink ).flushText();
+            }
+
+            Sink hook = ( (RandomAccessSink) documentSink ).addSinkHook();
+
+            pendingMacros.add( ( (AsyncMacro) macro ).executeAsync( hook, request ) );
+            return;
+        }
+
         macro.execute( sink, request );
     }
 
     /**
-     * Returns the current base directory.
+     * Waits for the {@link AsyncMacro asynchronous macros} of the current document. Parsers call it once
+     * the whole document has been parsed, so that the macros run while the rest of the document is parsed.
+     *
+     * @throws org.apache.maven.doxia.macro.MacroExecutionException if a macro failed
+     * @since 2.0.0
+     */
+    protected void awaitMacros()
+        throws MacroExecutionException
+    {
+        try
+        {
+            for ( CompletableFuture<Void> execution : pendingMacros )
+            {
+                AsyncMacro.await( execution );
+            }
+        }
+        finally
+        {
+            cancelMacros();
+        }
+    }
+
+    private void cancelMacros()
+    {
+        for ( CompletableFuture<Void> execution : pendingMacros )
+        {
+            execution.cancel( true );
+        }
+        pendingMacros.clear();
+    }
+
+    /**
+     * Creates a {@link MacroRequest} for the document currently being parsed.
+     * The given parser is passed to macros that need to parse the source content again
+     * (e.g. <code>toc</code>): it gets the configuration and the parse context of this parser,
+     * but does not execute macros itself.
+     *
+     * @param sourceContent the source content of the current document
+     * @param macroParser a new parser instance of the same type as this parser
+     * @param parameters the macro parameters
+     * @return the macro request
+     * @since 2.0.0
+     */
+    protected MacroRequest createMacroRequest( String sourceContent, AbstractParser macroParser,
+                                               Map<String, Object> parameters )
+    {
+        macroParser.macroManager = macroManager;
+        macroParser.setEmitComments( emitComments );
+        macroParser.parseContext = getParseContext();
+
+        return new MacroRequest( sourceContent, macroParser, parameters, macroParser.parseContext );
+    }
+
+    /**
+     * Returns the current base directory, i.e. the base directory of the current parse context.
+     * Without parse context, falls back to the <code>basedir</code> system property,
+     * which does not work in multi-module builds, see DOXIA-373.
      *
      * @return the base directory
-     * @deprecated this does not work in multi-module builds, see DOXIA-373
      */
     protected File getBasedir()
     {
-        // TODO: This is baaad, it should come in with the request.
-        // (this is only used for macro requests, see AptParser)
+        if ( parseContext != null )
+        {
+            return parseContext.getBasedir();
+        }
 
         String basedir = System.getProperty( "basedir" );
 
@@ -161,6 +399,23 @@ public abstract class AbstractParser
         return new File( new File( "" ).getAbsolutePath() );
     }
 
+    /**
+     * Returns the context of the current parse request. If the parser was not invoked with
+     * {@link #parse(Reader, Sink, ParseContext)}, a context based on {@link #getBasedir()} is returned.
+     *
+     * @return the current parse context, never null
+     * @since 2.0.0
+     */
+    protected ParseContext getParseContext()
+    {
+        if ( parseContext != null )
+        {
+            return parseContext;
+        }
+
+        return new ParseContext( getBasedir() );
+    }
+
     /**
      * Convenience method to parse an arbitrary string and emit events into the given sink.
      *
@@ -195,7 +450,25 @@ public abstract class AbstractParser
     public void parse( Reader source, Sink sink )
         throws ParseException
     {
-        parse( source, sink, null );
+        parse( source, sink, (String) null );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void parse( Reader source, Sink sink, ParseContext context )
+        throws ParseException
+    {
+        ParseContext previous = parseContext;
+        parseContext = context;
+
+        try
+        {
+            parse( source, sink, context.getReference() );
+        }
+        finally
+        {
+            parseContext = previous;
+        }
     }
 
     /**
@@ -230,6 +503,17 @@ public abstract class AbstractParser
         return macroManager;
     }
 
+    /**
+     * Sets the {@link MacroManager}, when the parser is not injected by a container.
+     *
+     * @param macroManager the macro manager
+     * @since 2.0.0
+     */
+    public void setMacroManager( MacroManager macroManager )
+    {
+        this.macroManager = macroManager;
+    }
+
     /**
      * Initialize the parser. This is called first by
      * {@link #parse(java.io.Reader, org.apache.maven.doxia.sink.Sink)} and can be used
@@ -239,7 +523,10 @@ public abstract class AbstractParser
      */
     protected void init()
     {
-        // nop
+        headOnlySink = null;
+        budgetSink = null;
+        documentSink = null;
+        cancelMacros();
     }
 
     /**
@@ -21,24 +21,23 @@ package org.apache.maven.doxia.parser;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
-import java.util.Hashtable;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.markup.XmlMarkup;
 import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.CoalescingSink;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.util.HtmlTools;
 import org.apache.maven.doxia.util.XmlValidator;
@@ -88,10 +87,27 @@ public abstract class AbstractXmlParser
 
     private boolean trimmableWhitespace;
 
+    /** The parser positioned on the TEXT event currently being dispatched, if any. */
+    private XmlPullParser textEventParser;
+
+    /** The normalized text of the current TEXT event, computed lazily by getText(). */
+    private String textEvent;
+
+    /** Whether <code>textEvent</code> only consists of whitespace. */
+    private boolean textEventBlank;
+
     private Map<String, String> entities;
 
     private boolean validate = false;
 
+    /**
+     * Text events are merged by default, as the text of an element is split at each entity reference.
+     */
+    protected AbstractXmlParser()
+    {
+        setCoalesceText( true );
+    }
+
     /** {@inheritDoc} */
     public void parse( Reader source, Sink sink, String reference )
         throws ParseException
@@ -99,9 +115,10 @@ public abstract class AbstractXmlParser
         init();
 
         Reader src = source;
+        Sink target = startDocument( sink );
 
         // 1 first parsing if validation is required
-        if ( isValidate() )
+        if ( isValidate() && !isHeadOnly() )
         {
             String content;
             try
@@ -113,23 +130,39 @@ public abstract class AbstractXmlParser
                 throw new ParseException( "Error reading the model", e );
             }
 
-            new XmlValidator( ).validate( content );
+            DependencyRecorder recorder = getParseContext().getDependencyRecorder();
+            new XmlValidator( new CachedFileEntityResolver( EntityCatalog.getDefault(), recorder ) )
+                .validate( content );
 
             src = new StringReader( content );
         }
 
         // 2 second parsing to process
+        XmlPullParserPool pool = XmlPullParserPool.forParser( this );
+        MXParser parser = null;
+        boolean reusable = false;
+
         try
         {
-            XmlPullParser parser = new MXParser();
+            // already initialized with the entities of this parser, see initXmlParser()
+            parser = pool.borrow( this );
 
             parser.setInput( src );
 
-            // allow parser initialization, e.g. for additional entities in XHTML
-            // Note: do it after input is set, otherwise values are reset
-            initXmlParser( parser );
+            if ( isCoalesceText() )
+            {
+                CoalescingSink coalescingSink = new CoalescingSink( target );
+                parseXml( parser, coalescingSink );
+                coalescingSink.flushText();
+            }
+            else
+            {
+                parseXml( parser, target );
+            }
 
-            parseXml( parser, sink );
+            reusable = true;
+
+            awaitMacros();
         }
         catch ( XmlPullParserException ex )
         {
@@ -140,13 +173,33 @@ public abstract class AbstractXmlParser
         {
             throw new ParseException( "Macro execution failed", ex );
         }
+        finally
+        {
+            // a pull parser left in a bad state by an error is simply dropped
+            if ( reusable )
+            {
+                pool.release( parser );
+            }
+        }
+
+        String violation = getBudgetViolation();
 
         setSecondParsing( false );
         init();
+
+        if ( violation != null )
+        {
+            // exceeded by the last events of the document
+            throw new ParseException( violation );
+        }
     }
 
     /**
      * Initializes the parser with custom entities or other options.
+     * <p>
+     * Since 2.0.0, pull parsers are reused between documents: this method is called once per parser class,
+     * the entities defined and features set here are recorded and applied to all the pull parsers used by
+     * that class. The initialization must therefore not depend on the document being parsed.
      *
      * @param parser A parser, not null.
      * @throws org.codehaus.plexus.util.xml.pull.XmlPullParserException if there's a problem initializing the parser
@@ -197,13 +250,15 @@ public abstract class AbstractXmlParser
      * @param sink the sink to receive the events.
      * @throws org.codehaus.plexus.util.xml.pull.XmlPullParserException if there's a problem parsing the model
      * @throws org.apache.maven.doxia.macro.MacroExecutionException if there's a problem executing a macro
+     * @throws org.apache.maven.doxia.parser.ParseException if the document exceeds its budget
      */
     private void parseXml( XmlPullParser parser, Sink sink )
-        throws XmlPullParserException, MacroExecutionException
+        throws XmlPullParserException, MacroExecutionException, ParseException
     {
         int eventType = parser.getEventType();
 
-        while ( eventType != XmlPullParser.END_DOCUMENT )
+        // in head-only mode, the rest of the document is not even tokenized
+        while ( eventType != XmlPullParser.END_DOCUMENT && !isHeadParsed() )
         {
             if ( eventType == XmlPullParser.START_TAG )
             {
@@ -215,18 +270,30 @@ public abstract class AbstractXmlParser
             }
             else if ( eventType == XmlPullParser.TEXT )
             {
-                String text = getText( parser );
+                // the normalized text is computed once here and shared with handleText()
+                textEventParser = parser;
 
-                if ( isIgnorableWhitespace() )
+                try
                 {
-                    if ( text.trim().length() != 0 )
+                    if ( isIgnorableWhitespace() )
+                    {
+                        String text = getText( parser );
+                        boolean blank = ( text == textEvent ) ? textEventBlank : text.trim().length() == 0;
+
+                        if ( !blank )
+                        {
+                            handleText( parser, sink );
+                        }
+                    }
+                    else
                     {
                         handleText( parser, sink );
                     }
                 }
-                else
+                finally
                 {
-                    handleText( parser, sink );
+                    textEventParser = null;
+                    textEvent = null;
                 }
             }
             else if ( eventType == XmlPullParser.CDSECT )
@@ -259,6 +326,12 @@ public abstract class AbstractXmlParser
                 }
             }
 
+            String violation = getBudgetViolation();
+            if ( violation != null )
+            {
+                throw new ParseException( violation, parser.getLineNumber(), parser.getColumnNumber() );
+            }
+
             try
             {
                 eventType = parser.nextToken();
@@ -306,12 +379,44 @@ public abstract class AbstractXmlParser
     protected void handleText( XmlPullParser parser, Sink sink )
         throws XmlPullParserException
     {
-        String text = getText( parser );
-
         /*
          * NOTE: Don't do any whitespace trimming here. Whitespace normalization has already been performed by the
          * parser so any whitespace that makes it here is significant.
          */
+        emitText( parser, sink );
+    }
+
+    /**
+     * Emits the text of the current text event as a text event into the specified sink, unless it is empty.
+     * If no whitespace normalization is configured, the characters are passed straight from the parser buffer
+     * with {@link Sink#text(char[], int, int)}, otherwise {@link #getText(XmlPullParser)} is emitted.
+     *
+     * @param parser A parser, not null.
+     * @param sink the sink to receive the events. Not null.
+     * @throws org.codehaus.plexus.util.xml.pull.XmlPullParserException if there's a problem parsing the model
+     * @since 2.0.0
+     */
+    protected void emitText( XmlPullParser parser, Sink sink )
+        throws XmlPullParserException
+    {
+        if ( !isTrimmableWhitespace() && !isCollapsibleWhitespace() && parser.getEventType() == XmlPullParser.TEXT )
+        {
+            int[] holder = new int[2];
+            char[] ch = parser.getTextCharacters( holder );
+
+            if ( ch != null )
+            {
+                if ( holder[1] > 0 )
+                {
+                    sink.text( ch, holder[0], holder[1] );
+                }
+
+                return;
+            }
+        }
+
+        String text = getText( parser );
+
         if ( StringUtils.isNotEmpty( text ) )
         {
             sink.text( text );
@@ -493,6 +598,8 @@ public abstract class AbstractXmlParser
      *
      * @param parser A parser, not null.
      * @return the {@link XmlPullParser#getText()} taking care of trimmable or collapsible configuration.
+     * While a text event is dispatched, the normalized text is computed once from
+     * {@link XmlPullParser#getTextCharacters(int[])} and returned by every subsequent call.
      * @see XmlPullParser#getText()
      * @see #isCollapsibleWhitespace()
      * @see #isTrimmableWhitespace()
@@ -500,28 +607,123 @@ public abstract class AbstractXmlParser
      */
     protected String getText( XmlPullParser parser )
     {
-        String text = parser.getText();
+        if ( parser == textEventParser )
+        {
+            if ( textEvent == null )
+            {
+                int[] holder = new int[2];
+                char[] ch = parser.getTextCharacters( holder );
+
+                if ( ch == null )
+                {
+                    String text = parser.getText();
+
+                    if ( text == null )
+                    {
+                        return null;
+                    }
+
+                    ch = text.toCharArray();
+                    holder[0] = 0;
+                    holder[1] = ch.length;
+                }
+
+                textEvent = normalizeText( ch, holder[0], holder[1] );
+            }
+
+            return textEvent;
+        }
+
+        return normalizeText( parser.getText() );
+    }
+
+    /**
+     * @param text the text to normalize, may be null.
+     * @return the normalized text, or the given one if no normalization is configured.
+     */
+    private String normalizeText( String text )
+    {
+        if ( text == null || !( isTrimmableWhitespace() || isCollapsibleWhitespace() ) )
+        {
+            return text;
+        }
+
+        return normalizeText( text.toCharArray(), 0, text.length() );
+    }
+
+    /**
+     * Trims and collapses the given characters in a single scan, according to the
+     * trimmable and collapsible configuration. As a side effect <code>textEventBlank</code>
+     * tells whether the result only consists of whitespace.
+     *
+     * @param ch the character buffer.
+     * @param start the offset of the text in the buffer.
+     * @param length the length of the text.
+     * @return the normalized text.
+     */
+    private String normalizeText( char[] ch, int start, int length )
+    {
+        int begin = start;
+        int end = start + length;
 
         if ( isTrimmableWhitespace() )
         {
-            text = text.trim();
+            while ( begin < end && ch[begin] <= ' ' )
+            {
+                begin++;
+            }
+
+            while ( end > begin && ch[end - 1] <= ' ' )
+            {
+                end--;
+            }
         }
 
+        boolean blank = true;
+        String text;
+
         if ( isCollapsibleWhitespace() )
         {
-            StringBuilder newText = new StringBuilder();
-            String[] elts = StringUtils.split( text, " \r\n" );
-            for ( int i = 0; i < elts.length; i++ )
+            // same result as joining the " \r\n" separated tokens with a single space
+            char[] out = new char[end - begin];
+            int n = 0;
+            boolean separator = false;
+
+            for ( int i = begin; i < end; i++ )
             {
-                newText.append( elts[i] );
-                if ( ( i + 1 ) < elts.length )
+                char c = ch[i];
+
+                if ( c == ' ' || c == '\r' || c == '\n' )
                 {
-                    newText.append( " " );
+                    separator = n > 0;
+                }
+                else
+                {
+                    if ( separator )
+                    {
+                        out[n++] = ' ';
+                        separator = false;
+                    }
+
+                    out[n++] = c;
+                    blank &= c <= ' ';
                 }
             }
-            text = newText.toString();
+
+            text = new String( out, 0, n );
+        }
+        else
+        {
+            for ( int i = begin; blank && i < end; i++ )
+            {
+                blank = ch[i] <= ' ';
+            }
+
+            text = new String( ch, begin, end - begin );
         }
 
+        textEventBlank = blank;
+
         return text;
     }
 
@@ -689,61 +891,91 @@ public abstract class AbstractXmlParser
 
     /**
      * Implementation of the callback mechanism <code>EntityResolver</code>.
-     * Using a mechanism of cached files in temp dir to improve performance when using the <code>XMLReader</code>.
+     * The entities bundled in the Doxia jars are resolved from the {@link EntityCatalog}, the others are read
+     * once and kept in memory to improve performance when using the <code>XMLReader</code>.
+     * The other entities are recorded as dependencies of the document, if a {@link DependencyRecorder} is given.
      */
     public static class CachedFileEntityResolver
         implements EntityResolver
     {
         /** Map with systemId as key and the content of systemId as byte[]. */
-        protected static final Map<String, byte[]> ENTITY_CACHE = new Hashtable<>();
+        protected static final Map<String, byte[]> ENTITY_CACHE = new ConcurrentHashMap<>();
+
+        private final EntityCatalog catalog;
+
+        private final DependencyRecorder recorder;
+
+        /**
+         * Constructs a resolver using the {@link EntityCatalog#getDefault() default catalog}.
+         */
+        public CachedFileEntityResolver()
+        {
+            this( EntityCatalog.getDefault() );
+        }
+
+        /**
+         * @param catalog the catalog of the known entities, not null.
+         * @since 2.0.0
+         */
+        public CachedFileEntityResolver( EntityCatalog catalog )
+        {
+            this( catalog, null );
+        }
+
+        /**
+         * @param catalog the catalog of the known entities, not null.
+         * @param recorder the recorder of the entities outside the catalog, may be null.
+         * @since 2.0.0
+         */
+        public CachedFileEntityResolver( EntityCatalog catalog, DependencyRecorder recorder )
+        {
+            this.catalog = Objects.requireNonNull( catalog, "catalog cannot be null" );
+            this.recorder = recorder;
+        }
 
         /** {@inheritDoc} */
         public InputSource resolveEntity( String publicId, String systemId )
             throws SAXException, IOException
         {
-            byte[] res = ENTITY_CACHE.get( systemId );
-            // already cached?
+            byte[] res = catalog.get( systemId );
+            boolean bundled = res != null;
+            if ( !bundled )
+            {
+                res = ENTITY_CACHE.get( systemId );
+            }
+            // not known yet?
             if ( res == null )
             {
-                String systemName = FileUtils.getFile( systemId ).getName();
-                File temp = new File( System.getProperty( "java.io.tmpdir" ), systemName );
-                // maybe already as a temp file?
-                if ( !temp.exists() )
+                // is systemId a file or an url?
+                if ( systemId.toLowerCase( Locale.ENGLISH ).startsWith( "file" ) )
                 {
-                    // is systemId a file or an url?
-                    if ( systemId.toLowerCase( Locale.ENGLISH ).startsWith( "file" ) )
+                    // Doxia XSDs are included in the jars, so try to find the resource systemName from
+                    // the classpath...
+                    String resource = "/" + FileUtils.getFile( systemId ).getName();
+                    URL url = getClass().getResource( resource );
+                    if ( url != null )
                     {
-                        // Doxia XSDs are included in the jars, so try to find the resource systemName from
-                        // the classpath...
-                        String resource = "/" + systemName;
-                        URL url = getClass().getResource( resource );
-                        if ( url != null )
-                        {
-                            res = toByteArray( url );
-                        }
-                        else
-                        {
-                            throw new SAXException( "Could not find the SYSTEM entity: " + systemId
-                            + " because '" + resource + "' is not available of the classpath." );
-                        }
+                        res = toByteArray( url );
                     }
                     else
                     {
-                        res = toByteArray( new URL( systemId ) );
+                        throw new SAXException( "Could not find the SYSTEM entity: " + systemId
+                        + " because '" + resource + "' is not available of the classpath." );
                     }
-
-                    // write systemId as temp file
-                    copy( res, temp );
                 }
                 else
                 {
-                    // TODO How to refresh Doxia XSDs from temp dir?
-                    res = toByteArray( temp.toURI().toURL() );
+                    res = toByteArray( new URL( systemId ) );
                 }
 
                 ENTITY_CACHE.put( systemId, res );
             }
 
+            if ( recorder != null && !bundled )
+            {
+                recorder.record( systemId, res );
+            }
+
             InputSource is = new InputSource( new ByteArrayInputStream( res ) );
             is.setPublicId( publicId );
             is.setSystemId( systemId );
@@ -778,37 +1010,5 @@ public abstract class AbstractXmlParser
                 IOUtil.close( is );
             }
         }
-
-        /**
-         * Wrap {@link IOUtil#copy(byte[], OutputStream)} to throw SAXException.
-         *
-         * @param res not null array of byte
-         * @param f the file where to write the bytes
-         * @throws SAXException if any
-         * @see IOUtil#copy(byte[], OutputStream)
-         */
-        private void copy( byte[] res, File f )
-            throws SAXException
-        {
-            if ( f.isDirectory() )
-            {
-                throw new SAXException( "'" + f.getAbsolutePath() + "' is a directory, can not write it." );
-            }
-
-            OutputStream os = null;
-            try
-            {
-                os = new FileOutputStream( f );
-                IOUtil.copy( res, os );
-            }
-            catch ( IOException e )
-            {
-                throw new SAXException( e );
-            }
-            finally
-            {
-                IOUtil.close( os );
-            }
-        }
     }
 }
@@ -0,0 +1,91 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Objects;
+
+/**
+ * An external resource a document depends on, like a snippet file or an entity, with the fingerprint
+ * of its content when the document was parsed.
+ *
+ * @since 2.0.0
+ * @see DependencyRecorder
+ */
+public final class Dependency
+{
+    private final String location;
+
+    private final String fingerprint;
+
+    /**
+     * Constructor.
+     *
+     * @param location the path or URL of the resource, not null.
+     * @param fingerprint the fingerprint of the content of the resource, or null if it could not be read.
+     */
+    public Dependency( String location, String fingerprint )
+    {
+        this.location = Objects.requireNonNull( location, "location cannot be null" );
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return the path or URL of the resource, never null.
+     */
+    public String getLocation()
+    {
+        return location;
+    }
+
+    /**
+     * @return the fingerprint of the content of the resource, or null if it could not be read.
+     */
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( !( o instanceof Dependency ) )
+        {
+            return false;
+        }
+        Dependency that = (Dependency) o;
+        return location.equals( that.location ) && Objects.equals( fingerprint, that.fingerprint );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( location, fingerprint );
+    }
+
+    @Override
+    public String toString()
+    {
+        return location + " (" + fingerprint + ")";
+    }
+}
@@ -0,0 +1,241 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The inputs of the outputs of a site build, to rebuild only the outputs whose inputs changed.
+ * <p>
+ * The inputs of an output are typically its source document and the {@link DependencyRecorder recorded}
+ * dependencies of that document. The graph is thread-safe, and can be saved to and loaded from a file
+ * between builds.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class DependencyGraph
+{
+    private static final char SEPARATOR = '\t';
+
+    /** The inputs by output. */
+    private final Map<String, List<Dependency>> inputs = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the inputs of an output, replacing the previous ones.
+     *
+     * @param output the output, e.g. the path of a generated page, not null.
+     * @param dependencies the inputs of the output, not null.
+     */
+    public void put( String output, Collection<Dependency> dependencies )
+    {
+        Objects.requireNonNull( output, "output cannot be null" );
+
+        inputs.put( output, Collections.unmodifiableList( new ArrayList<>( dependencies ) ) );
+    }
+
+    /**
+     * @param output the output, not null.
+     * @return the inputs of the output, or null if the output is unknown.
+     */
+    public List<Dependency> get( String output )
+    {
+        return inputs.get( output );
+    }
+
+    /**
+     * Forgets an output, <i>e.g.</i> when its source was deleted.
+     *
+     * @param output the output, not null.
+     */
+    public void remove( String output )
+    {
+        inputs.remove( output );
+    }
+
+    /**
+     * @return the known outputs.
+     */
+    public Set<String> getOutputs()
+    {
+        return new TreeSet<>( inputs.keySet() );
+    }
+
+    /**
+     * Finds the outputs depending on changed resources.
+     *
+     * @param changed the paths or URLs of the changed resources, as recorded.
+     * @return the outputs having at least one changed input.
+     */
+    public Set<String> getStaleOutputs( Collection<String> changed )
+    {
+        Set<String> locations = new HashSet<>( changed );
+
+        Set<String> stale = new TreeSet<>();
+        for ( Map.Entry<String, List<Dependency>> entry : inputs.entrySet() )
+        {
+            for ( Dependency dependency : entry.getValue() )
+            {
+                if ( locations.contains( dependency.getLocation() ) )
+                {
+                    stale.add( entry.getKey() );
+                    break;
+                }
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Finds the outputs depending on resources whose content changed.
+     *
+     * @param fingerprints the current fingerprints of resources by location, see
+     * {@link DependencyRecorder#fingerprint(byte[])}; a null fingerprint stands for a resource that cannot be read.
+     * The inputs missing from the map are considered unchanged.
+     * @return the outputs having at least one input with another fingerprint than the recorded one.
+     */
+    public Set<String> getStaleOutputs( Map<String, String> fingerprints )
+    {
+        Set<String> stale = new TreeSet<>();
+        for ( Map.Entry<String, List<Dependency>> entry : inputs.entrySet() )
+        {
+            for ( Dependency dependency : entry.getValue() )
+            {
+                String location = dependency.getLocation();
+                if ( fingerprints.containsKey( location )
+                    && !Objects.equals( fingerprints.get( location ), dependency.getFingerprint() ) )
+                {
+                    stale.add( entry.getKey() );
+                    break;
+                }
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Saves the graph to a UTF-8 text file, one line per input: the output, the location of the input
+     * and its fingerprint, separated by tabs. An output without inputs has a line of its own.
+     *
+     * @param file the file to write, replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save( Path file )
+        throws IOException
+    {
+        Map<String, List<Dependency>> sorted = new TreeMap<>( inputs );
+
+        try ( BufferedWriter writer = Files.newBufferedWriter( file, StandardCharsets.UTF_8 ) )
+        {
+            for ( Map.Entry<String, List<Dependency>> entry : sorted.entrySet() )
+            {
+                if ( entry.getValue().isEmpty() )
+                {
+                    writer.write( entry.getKey() );
+                    writer.newLine();
+                }
+
+                for ( Dependency dependency : entry.getValue() )
+                {
+                    writer.write( entry.getKey() );
+                    writer.write( SEPARATOR );
+                    writer.write( dependency.getLocation() );
+                    writer.write( SEPARATOR );
+                    if ( dependency.getFingerprint() != null )
+                    {
+                        writer.write( dependency.getFingerprint() );
+                    }
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a graph saved by {@link #save(Path)}.
+     *
+     * @param file the file to read.
+     * @return the graph, empty if the file does not exist.
+     * @throws IOException if the file cannot be read or is not a saved graph.
+     */
+    public static DependencyGraph load( Path file )
+        throws IOException
+    {
+        DependencyGraph graph = new DependencyGraph();
+
+        if ( !Files.exists( file ) )
+        {
+            return graph;
+        }
+
+        Map<String, List<Dependency>> loaded = new TreeMap<>();
+        try ( BufferedReader reader = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) )
+        {
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                if ( line.isEmpty() )
+                {
+                    continue;
+                }
+
+                int first = line.indexOf( SEPARATOR );
+                if ( first < 0 )
+                {
+                    loaded.computeIfAbsent( line, k -> new ArrayList<>() );
+                    continue;
+                }
+
+                int second = line.indexOf( SEPARATOR, first + 1 );
+                if ( second < 0 )
+                {
+                    throw new IOException( "Invalid line in " + file + ": " + line );
+                }
+
+                String fingerprint = line.substring( second + 1 );
+                loaded.computeIfAbsent( line.substring( 0, first ), k -> new ArrayList<>() )
+                    .add( new Dependency( line.substring( first + 1, second ),
+                                          fingerprint.isEmpty() ? null : fingerprint ) );
+            }
+        }
+
+        for ( Map.Entry<String, List<Dependency>> entry : loaded.entrySet() )
+        {
+            graph.put( entry.getKey(), entry.getValue() );
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,100 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the external resources a document touched while it was parsed: snippets included by macros,
+ * entities resolved during validation, <i>etc.</i> A recorder is attached to the {@link ParseContext} of one
+ * document, see {@link ParseContext#withDependencyRecorder(DependencyRecorder)}, and may be used concurrently
+ * by asynchronous macros.
+ *
+ * @since 2.0.0
+ * @see DependencyGraph
+ */
+public class DependencyRecorder
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** The dependencies by location, in the order they were first recorded. */
+    private final Map<String, Dependency> dependencies = new LinkedHashMap<>();
+
+    /**
+     * Records a resource and the content read from it. A resource recorded several times keeps
+     * its last fingerprint.
+     *
+     * @param location the path or URL of the resource, not null.
+     * @param content the content read, or null if the resource could not be read.
+     */
+    public void record( String location, byte[] content )
+    {
+        Dependency dependency = new Dependency( location, content == null ? null : fingerprint( content ) );
+
+        synchronized ( dependencies )
+        {
+            dependencies.put( location, dependency );
+        }
+    }
+
+    /**
+     * @return the recorded dependencies, in the order they were first recorded.
+     */
+    public List<Dependency> getDependencies()
+    {
+        synchronized ( dependencies )
+        {
+            return new ArrayList<>( dependencies.values() );
+        }
+    }
+
+    /**
+     * Computes the fingerprint of a content, as recorded by {@link #record(String, byte[])}.
+     *
+     * @param content the content, not null.
+     * @return the SHA-256 digest of the content, in hexadecimal.
+     */
+    public static String fingerprint( byte[] content )
+    {
+        byte[] digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-256" ).digest( content );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            // all Java platforms support SHA-256
+            throw new IllegalStateException( e );
+        }
+
+        char[] hex = new char[digest.length * 2];
+        for ( int i = 0; i < digest.length; i++ )
+        {
+            hex[2 * i] = HEX[( digest[i] >> 4 ) & 0xF];
+            hex[2 * i + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String( hex );
+    }
+}
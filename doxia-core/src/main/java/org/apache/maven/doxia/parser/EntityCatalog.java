@@ -0,0 +1,152 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * The XML entities and schemas bundled in the Doxia jars, by system id, so that they are resolved
+ * without accessing the disk or the network.
+ * <p>
+ * Each jar declares its entities in a <code>META-INF/doxia/entity-catalog.properties</code> resource, mapping
+ * a system id to the classpath resource holding its content, for instance:
+ * </p>
+ * <pre>
+ * https\://maven.apache.org/xsd/xdoc-2.0.xsd = xdoc-2.0.xsd
+ * </pre>
+ * <p>
+ * The contents are read once, when the catalog is loaded, and the catalog is immutable.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public final class EntityCatalog
+{
+    /** The classpath resource declaring the entities of a jar. */
+    public static final String CATALOG_RESOURCE = "META-INF/doxia/entity-catalog.properties";
+
+    /** Map with systemId as key and the content of systemId as byte[]. */
+    private final Map<String, byte[]> entities;
+
+    private EntityCatalog( Map<String, byte[]> entities )
+    {
+        this.entities = Collections.unmodifiableMap( entities );
+    }
+
+    /**
+     * @return the catalog of the entities visible from the class loader of Doxia.
+     */
+    public static EntityCatalog getDefault()
+    {
+        return DefaultHolder.CATALOG;
+    }
+
+    /**
+     * Loads the catalogs declared in all the {@link #CATALOG_RESOURCE} resources of a class loader.
+     *
+     * @param classLoader the class loader to look the catalogs and the entities up, not null.
+     * @return the merged catalog, the first declaration of a system id wins.
+     * @throws IOException if a catalog or a declared entity cannot be read.
+     */
+    public static EntityCatalog load( ClassLoader classLoader )
+        throws IOException
+    {
+        Map<String, byte[]> entities = new HashMap<>();
+
+        Enumeration<URL> catalogs = classLoader.getResources( CATALOG_RESOURCE );
+        while ( catalogs.hasMoreElements() )
+        {
+            URL catalog = catalogs.nextElement();
+
+            Properties declarations = new Properties();
+            try ( InputStream in = catalog.openStream() )
+            {
+                declarations.load( in );
+            }
+
+            for ( String systemId : declarations.stringPropertyNames() )
+            {
+                if ( entities.containsKey( systemId ) )
+                {
+                    continue;
+                }
+
+                String resource = declarations.getProperty( systemId ).trim();
+                URL url = classLoader.getResource( resource );
+                if ( url == null )
+                {
+                    throw new IOException( "The entity '" + systemId + "' declared in " + catalog
+                        + " refers to '" + resource + "', which is not available on the classpath." );
+                }
+
+                try ( InputStream in = url.openStream() )
+                {
+                    entities.put( systemId, IOUtil.toByteArray( in ) );
+                }
+            }
+        }
+
+        return new EntityCatalog( entities );
+    }
+
+    /**
+     * @param systemId the system id of an entity.
+     * @return the content of the entity, or null if it is not in the catalog. The array must not be modified.
+     */
+    public byte[] get( String systemId )
+    {
+        return entities.get( systemId );
+    }
+
+    /**
+     * @return the number of entities in the catalog.
+     */
+    public int size()
+    {
+        return entities.size();
+    }
+
+    /** Loads the default catalog on first use. */
+    private static class DefaultHolder
+    {
+        private static final EntityCatalog CATALOG = loadDefault();
+
+        private static EntityCatalog loadDefault()
+        {
+            try
+            {
+                return load( EntityCatalog.class.getClassLoader() );
+            }
+            catch ( IOException e )
+            {
+                throw new IllegalStateException( "Cannot load the bundled entity catalog", e );
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * The resources a parser may use for a single document: wall time, nesting depth of the Sink events,
+ * number of Sink events and size in bytes of the text emitted. A limit of zero or less means no limit.
+ * <br>
+ * The budget is enforced cooperatively: the Sink returned by {@link AbstractParser#startDocument(
+ * org.apache.maven.doxia.sink.Sink)} records the first limit exceeded and discards the following events,
+ * and the parser fails with a {@link ParseException} at its next check, see
+ * {@link AbstractParser#getBudgetViolation()}.
+ *
+ * @since 2.0.0
+ */
+public class ParseBudget
+{
+    /** The maximum time to parse a document, in milliseconds. */
+    private long maxTime;
+
+    /** The maximum nesting depth of the Sink events. */
+    private int maxDepth;
+
+    /** The maximum number of Sink events. */
+    private long maxEvents;
+
+    /** The maximum number of bytes of text passed to the Sink, encoded in UTF-8. */
+    private long maxOutputSize;
+
+    /**
+     * Constructs a budget without any limit.
+     */
+    public ParseBudget()
+    {
+        // no limit
+    }
+
+    /**
+     * Constructs a copy of the given budget.
+     *
+     * @param budget the budget to copy, not null.
+     */
+    public ParseBudget( ParseBudget budget )
+    {
+        this.maxTime = budget.maxTime;
+        this.maxDepth = budget.maxDepth;
+        this.maxEvents = budget.maxEvents;
+        this.maxOutputSize = budget.maxOutputSize;
+    }
+
+    /**
+     * @return the maximum time to parse a document, in milliseconds.
+     */
+    public long getMaxTime()
+    {
+        return maxTime;
+    }
+
+    /**
+     * Sets the maximum time to parse a document, measured from the start of the document.
+     *
+     * @param maxTime the time in milliseconds, zero or less for no limit.
+     */
+    public void setMaxTime( long maxTime )
+    {
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * @return the maximum nesting depth of the Sink events.
+     */
+    public int getMaxDepth()
+    {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum nesting depth of the Sink events, <i>ie</i> the number of events opened
+     * and not closed yet. <code>body()</code> counts as the first level.
+     *
+     * @param maxDepth the depth, zero or less for no limit.
+     */
+    public void setMaxDepth( int maxDepth )
+    {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return the maximum number of Sink events.
+     */
+    public long getMaxEvents()
+    {
+        return maxEvents;
+    }
+
+    /**
+     * Sets the maximum number of Sink events emitted for a document.
+     *
+     * @param maxEvents the number of events, zero or less for no limit.
+     */
+    public void setMaxEvents( long maxEvents )
+    {
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * @return the maximum number of bytes of text passed to the Sink, encoded in UTF-8.
+     */
+    public long getMaxOutputSize()
+    {
+        return maxOutputSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes of text passed to the Sink for a document, which bounds
+     * the size of the output: the strings given to the events are counted in UTF-8, the markup
+     * written by the Sink and the attributes are not.
+     *
+     * @param maxOutputSize the number of bytes, zero or less for no limit.
+     */
+    public void setMaxOutputSize( long maxOutputSize )
+    {
+        this.maxOutputSize = maxOutputSize;
+    }
+}
@@ -0,0 +1,166 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The context of a single parse request: the base directory against which relative resources
+ * (e.g. snippet files) are resolved, the reference of the parsed source and a map of attributes
+ * that macros may use as caches.
+ * <br>
+ * Contexts created with {@link #forReference(String)} share their attributes with the context they were
+ * created from, so that several documents of the same module can be converted with one set of caches.
+ *
+ * @since 2.0.0
+ */
+public class ParseContext
+{
+    /** The base directory used to resolve relative resources. */
+    private final File basedir;
+
+    /** The reference to the source being parsed, e.g. a file name. */
+    private final String reference;
+
+    /** Attributes shared by all documents parsed with this context. */
+    private final Map<String, Object> attributes;
+
+    /** Records the external resources of the document, if any. */
+    private final DependencyRecorder dependencyRecorder;
+
+    /**
+     * Constructor.
+     *
+     * @param basedir the base directory used to resolve relative resources, not null.
+     */
+    public ParseContext( File basedir )
+    {
+        this( basedir, null );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param basedir the base directory used to resolve relative resources, not null.
+     * @param reference the reference to the source being parsed (e.g. file name), may be null.
+     */
+    public ParseContext( File basedir, String reference )
+    {
+        this( basedir, reference, new ConcurrentHashMap<>(), null );
+    }
+
+    private ParseContext( File basedir, String reference, Map<String, Object> attributes,
+                          DependencyRecorder dependencyRecorder )
+    {
+        if ( basedir == null )
+        {
+            throw new IllegalArgumentException( "basedir must not be null" );
+        }
+
+        this.basedir = basedir;
+        this.reference = reference;
+        this.attributes = attributes;
+        this.dependencyRecorder = dependencyRecorder;
+    }
+
+    /**
+     * Returns the base directory used to resolve relative resources.
+     *
+     * @return the base directory, never null.
+     */
+    public File getBasedir()
+    {
+        return basedir;
+    }
+
+    /**
+     * Returns the reference to the source being parsed.
+     *
+     * @return the reference, e.g. a file name, may be null.
+     */
+    public String getReference()
+    {
+        return reference;
+    }
+
+    /**
+     * Returns the attribute with the given name.
+     *
+     * @param name the name of the attribute.
+     * @return the attribute value, or null if not set.
+     */
+    public Object getAttribute( String name )
+    {
+        return attributes.get( name );
+    }
+
+    /**
+     * Sets an attribute, visible to all contexts sharing the attributes of this one.
+     * A null value removes the attribute.
+     *
+     * @param name the name of the attribute, not null.
+     * @param value the attribute value.
+     */
+    public void setAttribute( String name, Object value )
+    {
+        if ( value == null )
+        {
+            attributes.remove( name );
+        }
+        else
+        {
+            attributes.put( name, value );
+        }
+    }
+
+    /**
+     * Creates a context for another source of the same module: same base directory, shared attributes.
+     *
+     * @param reference the reference to the other source, may be null.
+     * @return a new context.
+     */
+    public ParseContext forReference( String reference )
+    {
+        return new ParseContext( basedir, reference, attributes, null );
+    }
+
+    /**
+     * Creates a context for the same source, recording the external resources touched by the document.
+     *
+     * @param recorder the recorder of the dependencies of the document, null to record nothing.
+     * @return a new context, sharing the attributes of this one.
+     */
+    public ParseContext withDependencyRecorder( DependencyRecorder recorder )
+    {
+        return new ParseContext( basedir, reference, attributes, recorder );
+    }
+
+    /**
+     * Returns the recorder of the external resources touched by the document, see {@link DependencyRecorder}.
+     *
+     * @return the recorder, or null if the dependencies are not recorded.
+     */
+    public DependencyRecorder getDependencyRecorder()
+    {
+        return dependencyRecorder;
+    }
+}
@@ -66,6 +66,21 @@ public interface Parser
     void parse( Reader source, Sink sink, String reference )
         throws ParseException;
 
+    /**
+     * Parses the given source model and emits Doxia events into the given sink.
+     * Relative resources referenced from the source (e.g. by macros) are resolved
+     * against the base directory of the given context.
+     *
+     * @param source not null reader that provides the source document.
+     * You could use <code>newReader</code> methods from {@link org.codehaus.plexus.util.ReaderFactory}.
+     * @param sink A sink that consumes the Doxia events.
+     * @param context not null context of this parse request.
+     * @throws org.apache.maven.doxia.parser.ParseException if the model could not be parsed.
+     * @since 2.0.0
+     */
+    void parse( Reader source, Sink sink, ParseContext context )
+        throws ParseException;
+
     /**
      * The parser type value could be {@link #UNKNOWN_TYPE}, {@link #TXT_TYPE} or
      * {@link #XML_TYPE}.
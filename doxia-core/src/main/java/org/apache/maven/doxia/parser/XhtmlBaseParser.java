@@ -30,7 +30,6 @@ import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.util.DoxiaUtils;
 
-import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.pull.XmlPullParser;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.slf4j.Logger;
@@ -760,17 +759,15 @@ public class XhtmlBaseParser
     protected void handleText( XmlPullParser parser, Sink sink )
         throws XmlPullParserException
     {
-        String text = getText( parser );
-
         /*
          * NOTE: Don't do any whitespace trimming here. Whitespace normalization has already been performed by the
          * parser so any whitespace that makes it here is significant.
          *
          * NOTE: text within script tags is ignored, scripting code should be embedded in CDATA.
          */
-        if ( StringUtils.isNotEmpty( text ) && !isScriptBlock() )
+        if ( !isScriptBlock() )
         {
-            sink.text( text );
+            emitText( parser, sink );
         }
     }
 
@@ -0,0 +1,194 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.plexus.util.xml.pull.EntityReplacementMap;
+import org.codehaus.plexus.util.xml.pull.MXParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Keeps initialized pull parsers for reuse, per parser class and per thread.
+ * <p>
+ * The entities and features set up by <code>AbstractXmlParser.initXmlParser()</code> are recorded the first time
+ * a parser class is used: the entities become the template of all the pull parsers created for that class, which
+ * restore them on each <code>setInput()</code>, and the features are applied once to each new pull parser.
+ * A pull parser is borrowed for the parsing of one document, and is only given back once that parsing succeeded.
+ */
+final class XmlPullParserPool
+{
+    private static final ClassValue<XmlPullParserPool> POOLS = new ClassValue<XmlPullParserPool>()
+    {
+        @Override
+        protected XmlPullParserPool computeValue( Class<?> type )
+        {
+            return new XmlPullParserPool();
+        }
+    };
+
+    /** The idle pull parser of each thread. */
+    private final ThreadLocal<MXParser> idle = new ThreadLocal<>();
+
+    /** The recorded setup, null until the first pull parser is created. */
+    private volatile Setup setup;
+
+    private XmlPullParserPool()
+    {
+        // use forParser()
+    }
+
+    /**
+     * @param owner the parser that will use the pull parsers.
+     * @return the pool of the class of the given parser.
+     */
+    static XmlPullParserPool forParser( AbstractXmlParser owner )
+    {
+        return POOLS.get( owner.getClass() );
+    }
+
+    /**
+     * Takes the idle pull parser of the current thread, or creates a new one.
+     *
+     * @param owner the parser that will use the pull parser.
+     * @return an initialized pull parser, whose input still has to be set.
+     * @throws XmlPullParserException if the initialization of a new pull parser fails.
+     */
+    MXParser borrow( AbstractXmlParser owner )
+        throws XmlPullParserException
+    {
+        MXParser parser = idle.get();
+
+        if ( parser != null )
+        {
+            idle.remove();
+            return parser;
+        }
+
+        Setup s = setup;
+
+        if ( s == null )
+        {
+            s = record( owner );
+            setup = s;
+        }
+
+        return s.newParser();
+    }
+
+    /**
+     * Gives back a pull parser after a successful parsing, for reuse by the current thread.
+     *
+     * @param parser a pull parser returned by {@link #borrow(AbstractXmlParser)}.
+     */
+    void release( MXParser parser )
+    {
+        try
+        {
+            // don't keep a reference to the document
+            parser.setInput( (Reader) null );
+        }
+        catch ( XmlPullParserException e )
+        {
+            // not reusable
+            return;
+        }
+
+        if ( idle.get() == null )
+        {
+            idle.set( parser );
+        }
+    }
+
+    private static Setup record( AbstractXmlParser owner )
+        throws XmlPullParserException
+    {
+        RecordingParser recorder = new RecordingParser();
+
+        // as for a real document, initialize after the input is set
+        recorder.setInput( new StringReader( "" ) );
+        owner.initXmlParser( recorder );
+
+        return new Setup( recorder.entities, recorder.features );
+    }
+
+    /**
+     * The recorded entities and features.
+     */
+    private static final class Setup
+    {
+        /** The entities template, null if no entity has been defined. */
+        private final EntityReplacementMap entities;
+
+        private final Map<String, Boolean> features;
+
+        Setup( List<String[]> entities, Map<String, Boolean> features )
+        {
+            this.entities =
+                entities.isEmpty() ? null : new EntityReplacementMap( entities.toArray( new String[0][] ) );
+            this.features = features;
+        }
+
+        MXParser newParser()
+            throws XmlPullParserException
+        {
+            MXParser parser = ( entities == null ) ? new MXParser() : new MXParser( entities );
+
+            for ( Map.Entry<String, Boolean> feature : features.entrySet() )
+            {
+                parser.setFeature( feature.getKey(), feature.getValue() );
+            }
+
+            return parser;
+        }
+    }
+
+    /**
+     * A pull parser recording the entities and features set on it.
+     */
+    private static final class RecordingParser
+        extends MXParser
+    {
+        private final List<String[]> entities = new ArrayList<>();
+
+        private final Map<String, Boolean> features = new LinkedHashMap<>();
+
+        @Override
+        public void defineEntityReplacementText( String entityName, String replacementText )
+            throws XmlPullParserException
+        {
+            super.defineEntityReplacementText( entityName, replacementText );
+            entities.add( new String[] { entityName, replacementText } );
+        }
+
+        @Override
+        public void setFeature( String name, boolean state )
+            throws XmlPullParserException
+        {
+            super.setFeature( name, state );
+            features.put( name, state );
+        }
+    }
+}
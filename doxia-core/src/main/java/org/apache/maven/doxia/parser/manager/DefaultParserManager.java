@@ -21,6 +21,7 @@ package org.apache.maven.doxia.parser.manager;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.maven.doxia.parser.Parser;
@@ -40,19 +41,38 @@ public class DefaultParserManager
 {
     @SuppressWarnings( "MismatchedQueryAndUpdateOfCollection" )
     @Inject
-    private Map<String, Parser> parsers;
+    private Map<String, Provider<Parser>> parsers;
+
+    /**
+     * Constructor used by the container, which injects the parsers.
+     */
+    public DefaultParserManager()
+    {
+        // parsers are injected
+    }
+
+    /**
+     * Constructor used without container.
+     *
+     * @param parsers the providers of the parsers by id, not null.
+     * @since 2.0.0
+     */
+    public DefaultParserManager( Map<String, Provider<Parser>> parsers )
+    {
+        this.parsers = parsers;
+    }
 
     /** {@inheritDoc} */
     public Parser getParser( String id )
         throws ParserNotFoundException
     {
-        Parser parser = parsers.get( id );
+        Provider<Parser> parser = parsers.get( id );
 
         if ( parser == null )
         {
             throw new ParserNotFoundException( "Cannot find parser with id = " + id );
         }
 
-        return parser;
+        return parser.get();
     }
 }
@@ -32,6 +32,7 @@ public interface ParserManager
 
     /**
      * Returns the parser that corresponds to the given id.
+     * Parsers are stateful, each call returns a new instance which must not be used concurrently.
      *
      * @param id The identifier.
      * @return The corresponding parser.
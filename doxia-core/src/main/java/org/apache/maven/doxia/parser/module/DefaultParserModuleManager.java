@@ -24,6 +24,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -41,7 +42,7 @@ public class DefaultParserModuleManager
     @Inject
     private Map<String, ParserModule> parserModules;
 
-    private Collection<ParserModule> parserModulesValues;
+    private volatile Collection<ParserModule> parserModulesValues;
 
     /**
      * {@inheritDoc}
@@ -50,17 +51,21 @@ public class DefaultParserModuleManager
      */
     public Collection<ParserModule> getParserModules()
     {
-        if ( parserModulesValues == null )
+        Collection<ParserModule> values = parserModulesValues;
+
+        if ( values == null )
         {
             Map<Class<?>, ParserModule> parserModulesTmp = new LinkedHashMap<>();
             for ( ParserModule module : parserModules.values() )
             {
                 parserModulesTmp.put( module.getClass(), module );
             }
-            parserModulesValues = parserModulesTmp.values();
+            // built completely before being published, computing it twice concurrently is harmless
+            values = Collections.unmodifiableCollection( parserModulesTmp.values() );
+            parserModulesValues = values;
         }
 
-        return parserModulesValues;
+        return values;
     }
 
     /** {@inheritDoc} */
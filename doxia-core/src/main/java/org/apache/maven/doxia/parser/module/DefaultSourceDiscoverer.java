@@ -0,0 +1,213 @@
+package org.apache.maven.doxia.parser.module;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Default implementation of the <code>SourceDiscoverer</code> interface: each directory is listed by its own
+ * fork/join task, so that large source directories are walked concurrently too.
+ * <br>
+ * The parser modules are looked up once, into an immutable map of the modules by source directory
+ * and file extension. The extensions are matched ignoring case, and symbolic links to directories
+ * are not followed.
+ *
+ * @since 2.0.0
+ */
+@Singleton
+@Named
+public class DefaultSourceDiscoverer
+    implements SourceDiscoverer
+{
+    private final ParserModuleManager parserModuleManager;
+
+    /** The parser modules by source directory, then by lower case extension. */
+    private volatile Map<String, Map<String, ParserModule>> modules;
+
+    /**
+     * Constructor.
+     *
+     * @param parserModuleManager the manager of the parser modules to look the sources up for.
+     */
+    @Inject
+    public DefaultSourceDiscoverer( ParserModuleManager parserModuleManager )
+    {
+        this.parserModuleManager = parserModuleManager;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void discover( Collection<Path> siteDirectories, Consumer<SourceFile> consumer, int threads )
+        throws IOException
+    {
+        List<DirectoryWalk> walks = new ArrayList<>();
+
+        for ( Path siteDirectory : siteDirectories )
+        {
+            for ( Map.Entry<String, Map<String, ParserModule>> entry : getModules().entrySet() )
+            {
+                Path sourceDirectory = siteDirectory.resolve( entry.getKey() );
+
+                if ( Files.isDirectory( sourceDirectory ) )
+                {
+                    walks.add( new DirectoryWalk( sourceDirectory, sourceDirectory, entry.getValue(), consumer ) );
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool( Math.max( 1, threads ) );
+
+        try
+        {
+            pool.invoke( new RecursiveAction()
+            {
+                @Override
+                protected void compute()
+                {
+                    invokeAll( walks );
+                }
+            } );
+        }
+        catch ( UncheckedIOException e )
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    private Map<String, Map<String, ParserModule>> getModules()
+    {
+        Map<String, Map<String, ParserModule>> result = modules;
+
+        if ( result == null )
+        {
+            Map<String, Map<String, ParserModule>> byDirectory = new LinkedHashMap<>();
+
+            for ( ParserModule module : parserModuleManager.getParserModules() )
+            {
+                Map<String, ParserModule> byExtension =
+                    byDirectory.computeIfAbsent( module.getSourceDirectory(), k -> new LinkedHashMap<>() );
+
+                for ( String extension : module.getExtensions() )
+                {
+                    byExtension.putIfAbsent( extension.toLowerCase( Locale.ENGLISH ), module );
+                }
+            }
+
+            for ( Map.Entry<String, Map<String, ParserModule>> entry : byDirectory.entrySet() )
+            {
+                entry.setValue( Collections.unmodifiableMap( entry.getValue() ) );
+            }
+
+            // computing it twice concurrently is harmless
+            result = Collections.unmodifiableMap( byDirectory );
+            modules = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Lists a directory, passing the matching files to the consumer and forking a walk for each subdirectory.
+     */
+    private static class DirectoryWalk
+        extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path sourceDirectory;
+
+        private final transient Path directory;
+
+        private final transient Map<String, ParserModule> modules;
+
+        private final transient Consumer<SourceFile> consumer;
+
+        DirectoryWalk( Path sourceDirectory, Path directory, Map<String, ParserModule> modules,
+                       Consumer<SourceFile> consumer )
+        {
+            this.sourceDirectory = sourceDirectory;
+            this.directory = directory;
+            this.modules = modules;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute()
+        {
+            List<DirectoryWalk> subdirectories = new ArrayList<>();
+
+            try ( DirectoryStream<Path> entries = Files.newDirectoryStream( directory ) )
+            {
+                for ( Path entry : entries )
+                {
+                    if ( Files.isDirectory( entry, LinkOption.NOFOLLOW_LINKS ) )
+                    {
+                        subdirectories.add( new DirectoryWalk( sourceDirectory, entry, modules, consumer ) );
+                        continue;
+                    }
+
+                    ParserModule module = modules.get( getExtension( entry ) );
+
+                    if ( module != null && Files.isRegularFile( entry ) )
+                    {
+                        consumer.accept( new SourceFile( entry, sourceDirectory, module.getParserId() ) );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+
+            invokeAll( subdirectories );
+        }
+
+        private static String getExtension( Path file )
+        {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf( '.' );
+
+            return dot < 0 ? "" : name.substring( dot + 1 ).toLowerCase( Locale.ENGLISH );
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.apache.maven.doxia.parser.module;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Finds the source documents of sites: the files of each {@link ParserModule#getSourceDirectory() source directory}
+ * having one of the {@link ParserModule#getExtensions() extensions} of its parser module.
+ *
+ * @since 2.0.0
+ */
+public interface SourceDiscoverer
+{
+    /**
+     * Walks the source directories of the given site directories concurrently, and passes each source document
+     * to the consumer as soon as it is found, so that its conversion can start before the walk is over.
+     *
+     * @param siteDirectories the site directories, e.g. <code>src/site</code> of each module.
+     * Missing source directories are skipped.
+     * @param consumer receives the source documents, in no particular order and from several threads.
+     * @param threads the number of directories to walk concurrently.
+     * @throws IOException if a directory cannot be read.
+     */
+    void discover( Collection<Path> siteDirectories, Consumer<SourceFile> consumer, int threads )
+        throws IOException;
+}
@@ -0,0 +1,99 @@
+package org.apache.maven.doxia.parser.module;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.file.Path;
+
+/**
+ * A source document found by a {@link SourceDiscoverer}.
+ *
+ * @since 2.0.0
+ */
+public class SourceFile
+{
+    /** The source file. */
+    private final Path path;
+
+    /** The directory of the parser module the file was found in. */
+    private final Path sourceDirectory;
+
+    /** The id of the parser to use. */
+    private final String parserId;
+
+    /**
+     * Constructor.
+     *
+     * @param path the source file, not null.
+     * @param sourceDirectory the directory of the parser module the file was found in, not null.
+     * @param parserId the id of the parser to use, not null.
+     */
+    public SourceFile( Path path, Path sourceDirectory, String parserId )
+    {
+        this.path = path;
+        this.sourceDirectory = sourceDirectory;
+        this.parserId = parserId;
+    }
+
+    /**
+     * Returns the source file.
+     *
+     * @return the path of the file.
+     */
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /**
+     * Returns the directory of the parser module the file was found in, <i>e.g.</i> <code>src/site/apt</code>.
+     *
+     * @return the source directory.
+     */
+    public Path getSourceDirectory()
+    {
+        return sourceDirectory;
+    }
+
+    /**
+     * Returns the path of the file relative to its source directory, with <code>/</code> as separator.
+     *
+     * @return the relative path, e.g. <code>guides/index.apt</code>.
+     */
+    public String getReference()
+    {
+        return sourceDirectory.relativize( path ).toString().replace( path.getFileSystem().getSeparator(), "/" );
+    }
+
+    /**
+     * Returns the id of the parser to use.
+     *
+     * @return the parser id.
+     */
+    public String getParserId()
+    {
+        return parserId;
+    }
+
+    @Override
+    public String toString()
+    {
+        return path + " (" + parserId + ")";
+    }
+}
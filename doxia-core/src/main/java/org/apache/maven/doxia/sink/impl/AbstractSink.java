@@ -19,6 +19,9 @@ package org.apache.maven.doxia.sink.impl;
  * under the License.
  */
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.apache.maven.doxia.markup.Markup;
 import org.apache.maven.doxia.sink.Sink;
 
@@ -76,6 +79,53 @@ public abstract class AbstractSink
         return buffer.toString();
     }
 
+     /**
+      * Writes the given text to the given writer, replacing all occurrences of
+      * '\n', '\r' and '\r\n' with the system EOL on the fly.
+      * This is the streaming counterpart of {@link #unifyEOLs(String)}.
+      *
+      * @param out the writer to write to.
+      * @param text the text to write, not null.
+      * @throws IOException if the writer fails.
+      * @since 2.0.0
+      */
+     protected static void writeUnifiedEOLs( Writer out, CharSequence text )
+         throws IOException
+     {
+         int length = text.length();
+         char[] chunk = new char[Math.min( length, 1024 )];
+         int n = 0;
+
+         for ( int i = 0; i < length; i++ )
+         {
+             char c = text.charAt( i );
+
+             if ( c == '\r' || c == '\n' )
+             {
+                 if ( c == '\r' && ( i + 1 ) < length && text.charAt( i + 1 ) == '\n' )
+                 {
+                     i++;
+                 }
+
+                 out.write( chunk, 0, n );
+                 out.write( EOL );
+                 n = 0;
+             }
+             else
+             {
+                 if ( n == chunk.length )
+                 {
+                     out.write( chunk, 0, n );
+                     n = 0;
+                 }
+
+                 chunk[n++] = c;
+             }
+         }
+
+         out.write( chunk, 0, n );
+     }
+
      /**
       * This is called in {@link #head()} or in {@link #close()}, and can be used
       * to set the sink into a clear state so it can be re-used.
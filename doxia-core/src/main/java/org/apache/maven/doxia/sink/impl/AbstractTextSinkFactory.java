@@ -24,10 +24,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.file.Files;
 import java.util.Objects;
 
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkFactory;
+import org.apache.maven.doxia.util.Utf8Writer;
 import org.codehaus.plexus.util.WriterFactory;
 
 /**
@@ -75,9 +77,14 @@ public abstract class AbstractTextSinkFactory
             }
         }
 
-        Writer writer = WriterFactory.newWriter( new File( outputDir, outputName ), encoding );
+        File outputFile = new File( outputDir, outputName );
 
-        return createSink( writer, encoding );
+        if ( Utf8Writer.isUtf8( encoding ) )
+        {
+            return createSink( new Utf8Writer( Files.newOutputStream( outputFile.toPath() ) ), encoding );
+        }
+
+        return createSink( WriterFactory.newWriter( outputFile, encoding ), encoding );
     }
 
     /** {@inheritDoc} */
@@ -91,6 +98,26 @@ public abstract class AbstractTextSinkFactory
     public Sink createSink( OutputStream out, String encoding )
         throws IOException
     {
-        return createSink( new OutputStreamWriter( out, encoding ), encoding );
+        return createSink( newWriter( out, encoding ), encoding );
+    }
+
+    /**
+     * Create the writer encoding the sink output, a {@link Utf8Writer} for <code>UTF-8</code>.
+     *
+     * @param out The stream to write to, never <code>null</code>.
+     * @param encoding The character encoding.
+     * @return a writer encoding characters to the given stream.
+     * @throws IOException if the encoding is not supported.
+     * @since 2.0.0
+     */
+    protected Writer newWriter( OutputStream out, String encoding )
+        throws IOException
+    {
+        if ( Utf8Writer.isUtf8( encoding ) )
+        {
+            return new Utf8Writer( out );
+        }
+
+        return new OutputStreamWriter( out, encoding );
     }
 }
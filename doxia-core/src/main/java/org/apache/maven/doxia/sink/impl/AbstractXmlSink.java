@@ -19,6 +19,8 @@ package org.apache.maven.doxia.sink.impl;
  * under the License.
  */
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Objects;
 
 import javax.swing.text.MutableAttributeSet;
@@ -36,6 +38,9 @@ public abstract class AbstractXmlSink
     extends SinkAdapter
     implements XmlMarkup
 {
+    /** Highest character written as is by {@link #writeEscaped(Writer, char[], int, int, boolean)}. */
+    private static final int ASCII = 0x7E;
+
     /** Default namespace prepended to all tags */
     private String nameSpace;
 
@@ -216,4 +221,89 @@ public abstract class AbstractXmlSink
      * @param text the given text to write
      */
     protected abstract void write( String text );
+
+    /**
+     * Writes the given characters HTML escaped to the given writer, replacing line terminators
+     * with the system EOL on the fly. This gives the same output as
+     * <code>unifyEOLs( HtmlTools.escapeHTML( new String( buf, off, len ), false ) )</code>
+     * without creating intermediate Strings.
+     *
+     * @param out the writer to write to.
+     * @param buf the characters to write.
+     * @param off the offset of the first character in <code>buf</code>.
+     * @param len the number of characters to write.
+     * @param keepCharacterReferences <code>true</code> to write the ampersand of a numeric character
+     * reference unescaped, ie <code>&amp;#</code> stays as is (DOXIA-314).
+     * @throws IOException if the writer fails.
+     * @see org.apache.maven.doxia.util.HtmlTools#escapeHTML(String, boolean)
+     * @since 2.0.0
+     */
+    protected static void writeEscaped( Writer out, char[] buf, int off, int len, boolean keepCharacterReferences )
+        throws IOException
+    {
+        int end = off + len;
+        int start = off;
+
+        for ( int i = off; i < end; i++ )
+        {
+            char c = buf[i];
+            String replacement;
+
+            switch ( c )
+            {
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '&':
+                    replacement = ( keepCharacterReferences && ( i + 1 ) < end && buf[i + 1] == '#' ) ? null : "&amp;";
+                    break;
+                case '\"':
+                    replacement = "&quot;";
+                    break;
+                case '\r':
+                case '\n':
+                    replacement = EOL;
+                    break;
+                default:
+                    replacement = null;
+            }
+
+            if ( replacement == null && c <= ASCII )
+            {
+                continue;
+            }
+
+            out.write( buf, start, i - start );
+            start = i + 1;
+
+            if ( replacement != null )
+            {
+                if ( c == '\r' && ( i + 1 ) < end && buf[i + 1] == '\n' )
+                {
+                    start = ++i + 1;
+                }
+
+                out.write( replacement );
+            }
+            else
+            {
+                int codePoint = c;
+
+                if ( Character.isHighSurrogate( c ) && ( i + 1 ) < end )
+                {
+                    codePoint = Character.toCodePoint( c, buf[++i] );
+                    start = i + 1;
+                }
+
+                out.write( "&#x" );
+                out.write( Integer.toHexString( codePoint ) );
+                out.write( ';' );
+            }
+        }
+
+        out.write( buf, start, end - start );
+    }
 }
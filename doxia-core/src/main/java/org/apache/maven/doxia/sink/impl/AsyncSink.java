@@ -0,0 +1,453 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.text.AttributeSet;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * Decouples the emitter of Sink events, typically a parser, from the rendering Sink.
+ * Events are recorded into a bounded buffer by the emitting thread and replayed into the
+ * wrapped Sink by a dedicated consumer thread, so that parsing and rendering overlap.
+ * <p>
+ * Events are batched into chunks, the number of chunks in flight is bounded: once the buffer
+ * is full, the emitter blocks until the consumer caught up. Event arguments which may be reused
+ * by the emitter, ie character arrays, CharSequences, attribute sets and arrays, are copied.
+ * </p>
+ * <p>
+ * A failure of the wrapped Sink is rethrown to the emitter by the next event, at the latest by
+ * <code>flush()</code> or <code>close()</code>. Once a failure happened, all subsequent events but
+ * <code>close()</code> are discarded. <code>flush()</code> returns when the wrapped Sink has processed
+ * all previous events and has been flushed, <code>close()</code> returns when the wrapped Sink has
+ * been closed and the consumer thread has terminated.
+ * </p>
+ * <p>
+ * The returned Sink is not thread-safe: all events must be emitted by the same thread.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class AsyncSink
+    implements InvocationHandler
+{
+    /** The default number of chunks in flight. */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /** The number of events per chunk. */
+    private static final int CHUNK_EVENTS = 256;
+
+    /** Queued after the last chunk to terminate the consumer. */
+    private static final Object[] END = new Object[0];
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private static final Method TEXT;
+
+    private static final Method RAW_TEXT;
+
+    private static final Method FLUSH;
+
+    private static final Method CLOSE;
+
+    private static final Method GET_CONSUMED_EVENTS;
+
+    static
+    {
+        try
+        {
+            TEXT = Sink.class.getMethod( "text", String.class );
+            RAW_TEXT = Sink.class.getMethod( "rawText", String.class );
+            FLUSH = Sink.class.getMethod( "flush" );
+            CLOSE = Sink.class.getMethod( "close" );
+            GET_CONSUMED_EVENTS = Sink.class.getMethod( "getConsumedEvents" );
+        }
+        catch ( NoSuchMethodException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+    private final Sink sink;
+
+    /** Chunks of (Method or CountDownLatch, arguments) pairs, a chunk is terminated by null if not full. */
+    private final BlockingQueue<Object[]> queue;
+
+    /** Processed chunks handed back to the emitter for reuse. */
+    private final BlockingQueue<Object[]> free;
+
+    private final Thread consumer;
+
+    /** The first failure of the wrapped Sink, set by the consumer thread. */
+    private volatile Throwable failure;
+
+    // the following fields are only accessed by the emitting thread
+
+    private Object[] chunk;
+
+    private int count;
+
+    private boolean failureReported;
+
+    private boolean closed;
+
+    /**
+     * Constructs an AsyncSink, the consumer thread is started by {@link #newInstance(Sink, int)}.
+     *
+     * @param sink the Sink to replay the events into.
+     * @param capacity the maximum number of chunks in flight.
+     */
+    private AsyncSink( Sink sink, int capacity )
+    {
+        if ( capacity < 1 )
+        {
+            throw new IllegalArgumentException( "Illegal capacity: " + capacity );
+        }
+
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>( capacity );
+        this.free = new ArrayBlockingQueue<>( capacity + 1 );
+        this.chunk = new Object[CHUNK_EVENTS * 2];
+        this.consumer = new Thread( this::consume, "doxia-async-sink-" + THREAD_NUMBER.incrementAndGet() );
+        this.consumer.setDaemon( true );
+    }
+
+    /**
+     * Returns an asynchronous Sink replaying all events into the given Sink, with the default capacity.
+     *
+     * @param sink the Sink to replay the events into, not null.
+     * @return a {@link org.apache.maven.doxia.sink.Sink} object.
+     * @see #newInstance(Sink, int)
+     */
+    public static Sink newInstance( Sink sink )
+    {
+        return newInstance( sink, DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Returns an asynchronous Sink replaying all events into the given Sink.
+     * The caller must eventually close the returned Sink to release the consumer thread.
+     *
+     * @param sink the Sink to replay the events into, not null.
+     * @param capacity the maximum number of chunks of events in flight, at least 1.
+     * @return a {@link org.apache.maven.doxia.sink.Sink} object.
+     */
+    public static Sink newInstance( Sink sink, int capacity )
+    {
+        AsyncSink handler = new AsyncSink( sink, capacity );
+
+        handler.consumer.start();
+
+        return (Sink) Proxy.newProxyInstance( AsyncSink.class.getClassLoader(), new Class<?>[]{Sink.class},
+                                              handler );
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Records the event for the consumer thread.
+     */
+    public Object invoke( Object proxy, Method method, Object[] args )
+    {
+        if ( method.getDeclaringClass() == Object.class )
+        {
+            switch ( method.getName() )
+            {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode( proxy );
+                default:
+                    return "AsyncSink[" + sink + "]";
+            }
+        }
+
+        if ( GET_CONSUMED_EVENTS.equals( method ) )
+        {
+            // a constant declaration, safe to answer from the producing thread
+            return sink.getConsumedEvents();
+        }
+
+        if ( closed )
+        {
+            if ( CLOSE.equals( method ) )
+            {
+                return null;
+            }
+
+            throw new IllegalStateException( "Sink event " + method.getName() + "() after close()" );
+        }
+
+        if ( CLOSE.equals( method ) )
+        {
+            closed = true;
+            record( CLOSE, NO_ARGS );
+            publish();
+            put( END );
+            join();
+            checkFailure();
+        }
+        else if ( FLUSH.equals( method ) )
+        {
+            CountDownLatch flushed = new CountDownLatch( 1 );
+            record( FLUSH, NO_ARGS );
+            record( flushed, null );
+            publish();
+            await( flushed );
+            checkFailure();
+        }
+        else
+        {
+            checkFailure();
+            record( method, args );
+        }
+
+        return null;
+    }
+
+    private void record( Object event, Object[] args )
+    {
+        Object method = event;
+        Object[] arguments = args;
+
+        if ( event instanceof Method && args != null )
+        {
+            String name = ( (Method) event ).getName();
+
+            if ( "text".equals( name ) && args.length == 3 )
+            {
+                method = TEXT;
+                arguments = new Object[] { new String( (char[]) args[0], (Integer) args[1], (Integer) args[2] ) };
+            }
+            else if ( "rawText".equals( name ) && args[0] instanceof CharSequence && !( args[0] instanceof String ) )
+            {
+                method = RAW_TEXT;
+                arguments = new Object[] { args[0].toString() };
+            }
+            else
+            {
+                arguments = copyArguments( args );
+            }
+        }
+
+        chunk[count++] = method;
+        chunk[count++] = arguments;
+
+        if ( count == chunk.length )
+        {
+            publish();
+        }
+    }
+
+    private static Object[] copyArguments( Object[] args )
+    {
+        Object[] copy = args;
+
+        for ( int i = 0; i < args.length; i++ )
+        {
+            Object arg = args[i];
+            Object argCopy = arg;
+
+            if ( arg instanceof SinkEventAttributes )
+            {
+                AttributeSet attributes = ( (SinkEventAttributes) arg ).copyAttributes();
+                argCopy = ( attributes instanceof SinkEventAttributes ) ? attributes
+                                : new SinkEventAttributeSet( attributes );
+            }
+            else if ( arg instanceof int[] )
+            {
+                argCopy = ( (int[]) arg ).clone();
+            }
+            else if ( arg instanceof Object[] )
+            {
+                argCopy = ( (Object[]) arg ).clone();
+            }
+
+            if ( argCopy != arg )
+            {
+                if ( copy == args )
+                {
+                    copy = args.clone();
+                }
+
+                copy[i] = argCopy;
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Hands the current chunk over to the consumer thread, blocking while the buffer is full.
+     */
+    private void publish()
+    {
+        if ( count == 0 )
+        {
+            return;
+        }
+
+        if ( count < chunk.length )
+        {
+            chunk[count] = null;
+        }
+
+        put( chunk );
+
+        Object[] recycled = free.poll();
+        chunk = ( recycled != null ) ? recycled : new Object[CHUNK_EVENTS * 2];
+        count = 0;
+    }
+
+    private void put( Object[] events )
+    {
+        try
+        {
+            queue.put( events );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting for the Sink", e );
+        }
+    }
+
+    private void await( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting for the Sink", e );
+        }
+    }
+
+    private void join()
+    {
+        try
+        {
+            consumer.join();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting for the Sink", e );
+        }
+    }
+
+    /**
+     * Rethrows a failure of the wrapped Sink to the emitting thread, once.
+     */
+    private void checkFailure()
+    {
+        Throwable t = failure;
+
+        if ( t == null || failureReported )
+        {
+            return;
+        }
+
+        failureReported = true;
+
+        if ( t instanceof RuntimeException )
+        {
+            throw (RuntimeException) t;
+        }
+        else if ( t instanceof Error )
+        {
+            throw (Error) t;
+        }
+
+        throw new IllegalStateException( "Sink failed", t );
+    }
+
+    /**
+     * The consumer loop, replays the events into the wrapped Sink until the end marker.
+     */
+    private void consume()
+    {
+        try
+        {
+            Object[] events;
+
+            while ( ( events = queue.take() ) != END )
+            {
+                for ( int i = 0; i < events.length && events[i] != null; i += 2 )
+                {
+                    Object event = events[i];
+
+                    if ( event instanceof CountDownLatch )
+                    {
+                        ( (CountDownLatch) event ).countDown();
+                    }
+                    else if ( failure == null || event == CLOSE )
+                    {
+                        replay( (Method) event, (Object[]) events[i + 1] );
+                    }
+                }
+
+                Arrays.fill( events, null );
+                free.offer( events );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            failure = e;
+        }
+    }
+
+    private void replay( Method method, Object[] args )
+    {
+        try
+        {
+            method.invoke( sink, args );
+        }
+        catch ( InvocationTargetException e )
+        {
+            if ( failure == null )
+            {
+                failure = e.getCause();
+            }
+        }
+        catch ( IllegalAccessException | RuntimeException e )
+        {
+            if ( failure == null )
+            {
+                failure = e;
+            }
+        }
+    }
+}
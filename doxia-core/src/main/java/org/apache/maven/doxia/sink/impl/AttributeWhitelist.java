@@ -0,0 +1,189 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.text.AttributeSet;
+import javax.swing.text.MutableAttributeSet;
+
+/**
+ * A set of valid attribute names, tested with a single bit lookup.
+ * <p>
+ * Attribute names are interned in a global registry that gives each of them an integer id,
+ * and a whitelist is the bitset of the ids of its names. A whitelist is immutable, and meant
+ * to be computed once per kind of element, see {@link SinkUtils#getWhitelist(String[])}.
+ *
+ * @since 2.0.0
+ */
+public final class AttributeWhitelist
+{
+    /** The ids of all the attribute names registered so far. */
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final BitSet ids = new BitSet();
+
+    private final String[] names;
+
+    private AttributeWhitelist( String[] names )
+    {
+        this.names = names.clone();
+
+        for ( String name : names )
+        {
+            ids.set( IDS.computeIfAbsent( name, n -> NEXT_ID.getAndIncrement() ) );
+        }
+    }
+
+    /**
+     * Creates a whitelist.
+     *
+     * @param names the valid attribute names, in any order.
+     * @return a new whitelist.
+     */
+    public static AttributeWhitelist of( String... names )
+    {
+        return new AttributeWhitelist( names );
+    }
+
+    /**
+     * @return the valid attribute names, as given when creating this whitelist.
+     */
+    public String[] getNames()
+    {
+        return names.clone();
+    }
+
+    /**
+     * Checks if an attribute is valid.
+     *
+     * @param name the name of an attribute, its String value is compared. Not null.
+     * @return true if the attribute is in this whitelist.
+     */
+    public boolean allows( Object name )
+    {
+        Integer id = IDS.get( name.toString() );
+
+        return id != null && ids.get( id );
+    }
+
+    /**
+     * Checks if all the attributes of a set are valid.
+     *
+     * @param attributes the attributes to check. May be null.
+     * @return true if the attributes are null or all in this whitelist.
+     */
+    public boolean conforms( AttributeSet attributes )
+    {
+        if ( attributes == null )
+        {
+            return true;
+        }
+
+        Enumeration<?> e = attributes.getAttributeNames();
+
+        while ( e.hasMoreElements() )
+        {
+            if ( !allows( e.nextElement() ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the valid attributes of a set.
+     *
+     * @param attributes the attributes to filter. May be null.
+     * @return a new MutableAttributeSet with the valid attributes, null if the given attributes are null.
+     * @see SinkUtils#filterAttributes(AttributeSet, String[])
+     */
+    public MutableAttributeSet copyOf( AttributeSet attributes )
+    {
+        return attributes == null ? null : copy( attributes );
+    }
+
+    private SinkEventAttributeSet copy( AttributeSet attributes )
+    {
+        SinkEventAttributeSet atts = new SinkEventAttributeSet( attributes.getAttributeCount() );
+
+        Enumeration<?> e = attributes.getAttributeNames();
+
+        while ( e.hasMoreElements() )
+        {
+            Object name = e.nextElement();
+
+            if ( allows( name ) )
+            {
+                atts.addAttribute( name.toString(), attributes.getAttribute( name ) );
+            }
+        }
+
+        return atts;
+    }
+
+    /**
+     * Filters a set of attributes without copying it when possible: the set itself is returned if all its
+     * attributes are valid, and the shared {@link SinkEventAttributeSet#EMPTY} if none is.
+     * The result must thus be considered read-only, use {@link #copyOf(AttributeSet)} to modify it.
+     *
+     * @param attributes the attributes to filter. May be null.
+     * @return the valid attributes, null if the given attributes are null.
+     */
+    public MutableAttributeSet filter( MutableAttributeSet attributes )
+    {
+        if ( attributes == null || attributes.getAttributeCount() == 0 )
+        {
+            return attributes;
+        }
+
+        int valid = 0;
+
+        Enumeration<?> e = attributes.getAttributeNames();
+
+        while ( e.hasMoreElements() )
+        {
+            if ( allows( e.nextElement() ) )
+            {
+                valid++;
+            }
+        }
+
+        if ( valid == attributes.getAttributeCount() )
+        {
+            return attributes;
+        }
+
+        if ( valid == 0 )
+        {
+            return SinkEventAttributeSet.EMPTY;
+        }
+
+        return copy( attributes );
+    }
+}
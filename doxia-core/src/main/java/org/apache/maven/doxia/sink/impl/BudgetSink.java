@@ -0,0 +1,278 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.doxia.parser.ParseBudget;
+import org.apache.maven.doxia.sink.Sink;
+
+/**
+ * Passes the events of a document to a Sink as long as they fit in a {@link ParseBudget}.
+ * <p>
+ * The first limit exceeded is recorded and returned by {@link #getViolation()}, and the following events
+ * are discarded except <code>flush()</code> and <code>close()</code>. No exception is thrown to the emitter of
+ * the events: the parser checks the violation at its own pace and fails with a descriptive message.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class BudgetSink
+    implements InvocationHandler
+{
+    /** The events opening a nesting level, <i>ie</i> those with a matching end event. */
+    private static final Set<String> START_EVENTS = new HashSet<>();
+
+    static
+    {
+        Set<String> names = new HashSet<>();
+        for ( Method method : Sink.class.getMethods() )
+        {
+            names.add( method.getName() );
+        }
+
+        for ( String name : names )
+        {
+            if ( names.contains( name + "_" ) )
+            {
+                START_EVENTS.add( name );
+            }
+        }
+    }
+
+    /** The clock is read once for this number of events. */
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final Sink sink;
+
+    private final Sink proxy;
+
+    private final ParseBudget budget;
+
+    private final long start;
+
+    private long events;
+
+    private int depth;
+
+    private long outputSize;
+
+    private String violation;
+
+    /**
+     * Constructs a BudgetSink, the time budget starts now.
+     *
+     * @param sink the Sink receiving the events, not null.
+     * @param budget the budget of the document, not null.
+     */
+    public BudgetSink( Sink sink, ParseBudget budget )
+    {
+        this.sink = Objects.requireNonNull( sink, "sink cannot be null" );
+        this.budget = Objects.requireNonNull( budget, "budget cannot be null" );
+        this.proxy = (Sink) Proxy.newProxyInstance( BudgetSink.class.getClassLoader(),
+                                                    new Class<?>[]{Sink.class}, this );
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * @return the Sink to send the events of the document to.
+     */
+    public Sink asSink()
+    {
+        return proxy;
+    }
+
+    /**
+     * Returns the first limit of the budget exceeded, the time limit being checked now.
+     *
+     * @return a description of the limit exceeded, or null if the document is within its budget.
+     */
+    public String getViolation()
+    {
+        if ( violation == null )
+        {
+            checkTime();
+        }
+
+        return violation;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Passes the event to the wrapped Sink if it is within the budget.
+     */
+    public Object invoke( Object proxy, Method method, Object[] args )
+        throws Throwable
+    {
+        String name = method.getName();
+
+        if ( method.getDeclaringClass() == Object.class )
+        {
+            switch ( name )
+            {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode( proxy );
+                default:
+                    return "BudgetSink[" + sink + "]";
+            }
+        }
+
+        switch ( name )
+        {
+            case "getConsumedEvents":
+                return sink.getConsumedEvents();
+            case "flush":
+            case "close":
+                forward( method, args );
+                return null;
+            default:
+                break;
+        }
+
+        if ( violation == null )
+        {
+            count( name, args );
+        }
+
+        if ( violation == null )
+        {
+            forward( method, args );
+        }
+
+        return null;
+    }
+
+    private void count( String name, Object[] args )
+    {
+        events++;
+        if ( budget.getMaxEvents() > 0 && events > budget.getMaxEvents() )
+        {
+            exceeded( "more than " + budget.getMaxEvents() + " Sink events" );
+            return;
+        }
+
+        if ( name.endsWith( "_" ) )
+        {
+            depth--;
+        }
+        else if ( START_EVENTS.contains( name ) )
+        {
+            depth++;
+            if ( budget.getMaxDepth() > 0 && depth > budget.getMaxDepth() )
+            {
+                exceeded( "events nested deeper than " + budget.getMaxDepth() + " levels" );
+                return;
+            }
+        }
+
+        if ( args != null && budget.getMaxOutputSize() > 0 )
+        {
+            for ( Object arg : args )
+            {
+                if ( arg instanceof CharSequence )
+                {
+                    CharSequence text = (CharSequence) arg;
+                    for ( int i = 0; i < text.length(); i++ )
+                    {
+                        outputSize += utf8Length( text.charAt( i ) );
+                    }
+                }
+            }
+
+            if ( args.length == 3 && args[0] instanceof char[] )
+            {
+                // text( char[], int, int )
+                char[] buf = (char[]) args[0];
+                int end = (Integer) args[1] + (Integer) args[2];
+                for ( int i = (Integer) args[1]; i < end; i++ )
+                {
+                    outputSize += utf8Length( buf[i] );
+                }
+            }
+
+            if ( outputSize > budget.getMaxOutputSize() )
+            {
+                exceeded( "more than " + budget.getMaxOutputSize() + " bytes of text" );
+                return;
+            }
+        }
+
+        if ( events % CLOCK_INTERVAL == 0 )
+        {
+            checkTime();
+        }
+    }
+
+    /**
+     * @param c a UTF-16 code unit.
+     * @return the number of bytes of the code unit in UTF-8, a surrogate pair taking 4 bytes.
+     */
+    private static int utf8Length( char c )
+    {
+        if ( c < 0x80 )
+        {
+            return 1;
+        }
+        else if ( c < 0x800 || Character.isSurrogate( c ) )
+        {
+            return 2;
+        }
+        return 3;
+    }
+
+    private void checkTime()
+    {
+        long maxTime = budget.getMaxTime();
+
+        if ( maxTime > 0 && System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos( maxTime ) )
+        {
+            exceeded( "parsing took more than " + maxTime + " ms" );
+        }
+    }
+
+    private void exceeded( String limit )
+    {
+        violation = "Parse budget exceeded: " + limit;
+    }
+
+    private void forward( Method method, Object[] args )
+        throws Throwable
+    {
+        try
+        {
+            method.invoke( sink, args );
+        }
+        catch ( InvocationTargetException e )
+        {
+            // what the wrapped Sink threw
+            throw e.getCause();
+        }
+    }
+}
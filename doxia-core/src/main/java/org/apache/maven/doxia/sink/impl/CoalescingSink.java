@@ -0,0 +1,1459 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Objects;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * Merges consecutive text events with equal attributes into a single event of the wrapped Sink.
+ * <p>
+ * Parsers tend to emit a text event per text node and per entity reference, so that
+ * <code>a &amp;amp; b</code> becomes three text events which are each escaped and written separately.
+ * This Sink keeps the text until any other event is received, and then emits it at once before that event.
+ * Text still pending at the end of a parse must be emitted with {@link #flushText()}, it is also
+ * emitted by {@link #flush()} and {@link #close()}.
+ * </p>
+ * <p>
+ * A single text event is passed through unchanged, character ranges are copied as the given array may be reused.
+ * This Sink is not thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class CoalescingSink
+    implements Sink
+{
+    private final Sink sink;
+
+    /** The pending text if it consists of a single String event, null otherwise. */
+    private String text;
+
+    /** The pending text if it consists of several events or of a character range, null otherwise. */
+    private StringBuilder buffer;
+
+    /** The attributes of the pending text. */
+    private SinkEventAttributes attributes;
+
+    private boolean pending;
+
+    /**
+     * Constructs a CoalescingSink.
+     *
+     * @param sink the Sink receiving the merged events, not null.
+     */
+    public CoalescingSink( Sink sink )
+    {
+        this.sink = Objects.requireNonNull( sink, "sink cannot be null" );
+    }
+
+    /**
+     * @return the wrapped Sink.
+     */
+    public Sink getSink()
+    {
+        return sink;
+    }
+
+    /**
+     * Emits the pending text, if any, into the wrapped Sink.
+     */
+    public void flushText()
+    {
+        if ( !pending )
+        {
+            return;
+        }
+
+        String merged;
+        if ( text != null )
+        {
+            merged = text;
+            text = null;
+        }
+        else
+        {
+            merged = buffer.toString();
+            buffer.setLength( 0 );
+        }
+
+        SinkEventAttributes atts = attributes;
+        attributes = null;
+        pending = false;
+
+        if ( atts == null )
+        {
+            sink.text( merged );
+        }
+        else
+        {
+            sink.text( merged, atts );
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void text( String text )
+    {
+        text( text, null );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void text( String text, SinkEventAttributes attributes )
+    {
+        if ( text == null )
+        {
+            // not text, leave it to the wrapped Sink
+            flushText();
+            if ( attributes == null )
+            {
+                sink.text( null );
+            }
+            else
+            {
+                sink.text( null, attributes );
+            }
+            return;
+        }
+
+        if ( pending && !sameAttributes( attributes ) )
+        {
+            flushText();
+        }
+
+        if ( !pending )
+        {
+            this.text = text;
+            this.attributes = attributes;
+            this.pending = true;
+            return;
+        }
+
+        pendingBuffer().append( text );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void text( char[] buf, int off, int len )
+    {
+        if ( pending && attributes != null )
+        {
+            flushText();
+        }
+
+        pendingBuffer().append( buf, off, len );
+        pending = true;
+    }
+
+    /**
+     * @return the buffer of the pending text, holding all of it.
+     */
+    private StringBuilder pendingBuffer()
+    {
+        if ( buffer == null )
+        {
+            buffer = new StringBuilder( 256 );
+        }
+
+        if ( text != null )
+        {
+            buffer.append( text );
+            text = null;
+        }
+
+        return buffer;
+    }
+
+    private boolean sameAttributes( SinkEventAttributes atts )
+    {
+        if ( attributes == null || atts == null )
+        {
+            return attributes == atts;
+        }
+
+        return attributes == atts || attributes.isEqual( atts );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void head()
+    {
+        flushText();
+        sink.head();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void head( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.head( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void head_()
+    {
+        flushText();
+        sink.head_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void title()
+    {
+        flushText();
+        sink.title();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void title( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.title( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void title_()
+    {
+        flushText();
+        sink.title_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void author()
+    {
+        flushText();
+        sink.author();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void author( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.author( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void author_()
+    {
+        flushText();
+        sink.author_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void date()
+    {
+        flushText();
+        sink.date();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void date( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.date( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void date_()
+    {
+        flushText();
+        sink.date_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void body()
+    {
+        flushText();
+        sink.body();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void body( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.body( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void body_()
+    {
+        flushText();
+        sink.body_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void article()
+    {
+        flushText();
+        sink.article();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void article( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.article( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void article_()
+    {
+        flushText();
+        sink.article_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void navigation()
+    {
+        flushText();
+        sink.navigation();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void navigation( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.navigation( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void navigation_()
+    {
+        flushText();
+        sink.navigation_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sidebar()
+    {
+        flushText();
+        sink.sidebar();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sidebar( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.sidebar( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sidebar_()
+    {
+        flushText();
+        sink.sidebar_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle()
+    {
+        flushText();
+        sink.sectionTitle();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle_()
+    {
+        flushText();
+        sink.sectionTitle_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section1()
+    {
+        flushText();
+        sink.section1();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section1_()
+    {
+        flushText();
+        sink.section1_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle1()
+    {
+        flushText();
+        sink.sectionTitle1();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle1_()
+    {
+        flushText();
+        sink.sectionTitle1_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section2()
+    {
+        flushText();
+        sink.section2();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section2_()
+    {
+        flushText();
+        sink.section2_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle2()
+    {
+        flushText();
+        sink.sectionTitle2();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle2_()
+    {
+        flushText();
+        sink.sectionTitle2_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section3()
+    {
+        flushText();
+        sink.section3();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section3_()
+    {
+        flushText();
+        sink.section3_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle3()
+    {
+        flushText();
+        sink.sectionTitle3();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle3_()
+    {
+        flushText();
+        sink.sectionTitle3_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section4()
+    {
+        flushText();
+        sink.section4();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section4_()
+    {
+        flushText();
+        sink.section4_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle4()
+    {
+        flushText();
+        sink.sectionTitle4();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle4_()
+    {
+        flushText();
+        sink.sectionTitle4_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section5()
+    {
+        flushText();
+        sink.section5();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section5_()
+    {
+        flushText();
+        sink.section5_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle5()
+    {
+        flushText();
+        sink.sectionTitle5();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle5_()
+    {
+        flushText();
+        sink.sectionTitle5_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section( int level, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.section( level, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void section_( int level )
+    {
+        flushText();
+        sink.section_( level );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle( int level, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.sectionTitle( level, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sectionTitle_( int level )
+    {
+        flushText();
+        sink.sectionTitle_( level );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void header()
+    {
+        flushText();
+        sink.header();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void header( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.header( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void header_()
+    {
+        flushText();
+        sink.header_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void content()
+    {
+        flushText();
+        sink.content();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void content( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.content( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void content_()
+    {
+        flushText();
+        sink.content_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void footer()
+    {
+        flushText();
+        sink.footer();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void footer( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.footer( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void footer_()
+    {
+        flushText();
+        sink.footer_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void list()
+    {
+        flushText();
+        sink.list();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void list( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.list( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void list_()
+    {
+        flushText();
+        sink.list_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void listItem()
+    {
+        flushText();
+        sink.listItem();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void listItem( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.listItem( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void listItem_()
+    {
+        flushText();
+        sink.listItem_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void numberedList( int numbering )
+    {
+        flushText();
+        sink.numberedList( numbering );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void numberedList( int numbering, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.numberedList( numbering, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void numberedList_()
+    {
+        flushText();
+        sink.numberedList_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void numberedListItem()
+    {
+        flushText();
+        sink.numberedListItem();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void numberedListItem( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.numberedListItem( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void numberedListItem_()
+    {
+        flushText();
+        sink.numberedListItem_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definitionList()
+    {
+        flushText();
+        sink.definitionList();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definitionList( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.definitionList( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definitionList_()
+    {
+        flushText();
+        sink.definitionList_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definitionListItem()
+    {
+        flushText();
+        sink.definitionListItem();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definitionListItem( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.definitionListItem( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definitionListItem_()
+    {
+        flushText();
+        sink.definitionListItem_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definition()
+    {
+        flushText();
+        sink.definition();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definition( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.definition( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definition_()
+    {
+        flushText();
+        sink.definition_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definedTerm()
+    {
+        flushText();
+        sink.definedTerm();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definedTerm( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.definedTerm( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void definedTerm_()
+    {
+        flushText();
+        sink.definedTerm_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figure()
+    {
+        flushText();
+        sink.figure();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figure( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.figure( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figure_()
+    {
+        flushText();
+        sink.figure_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figureCaption()
+    {
+        flushText();
+        sink.figureCaption();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figureCaption( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.figureCaption( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figureCaption_()
+    {
+        flushText();
+        sink.figureCaption_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figureGraphics( String name )
+    {
+        flushText();
+        sink.figureGraphics( name );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void figureGraphics( String src, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.figureGraphics( src, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void table()
+    {
+        flushText();
+        sink.table();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void table( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.table( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void table_()
+    {
+        flushText();
+        sink.table_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableRows( int[] justification, boolean grid )
+    {
+        flushText();
+        sink.tableRows( justification, grid );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableRows_()
+    {
+        flushText();
+        sink.tableRows_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableRow()
+    {
+        flushText();
+        sink.tableRow();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableRow( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.tableRow( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableRow_()
+    {
+        flushText();
+        sink.tableRow_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableCell()
+    {
+        flushText();
+        sink.tableCell();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableCell( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.tableCell( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableCell_()
+    {
+        flushText();
+        sink.tableCell_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableHeaderCell()
+    {
+        flushText();
+        sink.tableHeaderCell();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableHeaderCell( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.tableHeaderCell( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableHeaderCell_()
+    {
+        flushText();
+        sink.tableHeaderCell_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableCaption()
+    {
+        flushText();
+        sink.tableCaption();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableCaption( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.tableCaption( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tableCaption_()
+    {
+        flushText();
+        sink.tableCaption_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void paragraph()
+    {
+        flushText();
+        sink.paragraph();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void paragraph( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.paragraph( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void paragraph_()
+    {
+        flushText();
+        sink.paragraph_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void data( String value )
+    {
+        flushText();
+        sink.data( value );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void data( String value, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.data( value, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void data_()
+    {
+        flushText();
+        sink.data_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void time( String datetime )
+    {
+        flushText();
+        sink.time( datetime );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void time( String datetime, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.time( datetime, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void time_()
+    {
+        flushText();
+        sink.time_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void address()
+    {
+        flushText();
+        sink.address();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void address( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.address( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void address_()
+    {
+        flushText();
+        sink.address_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void blockquote()
+    {
+        flushText();
+        sink.blockquote();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void blockquote( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.blockquote( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void blockquote_()
+    {
+        flushText();
+        sink.blockquote_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void division()
+    {
+        flushText();
+        sink.division();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void division( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.division( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void division_()
+    {
+        flushText();
+        sink.division_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void verbatim( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.verbatim( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void verbatim_()
+    {
+        flushText();
+        sink.verbatim_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void horizontalRule()
+    {
+        flushText();
+        sink.horizontalRule();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void horizontalRule( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.horizontalRule( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pageBreak()
+    {
+        flushText();
+        sink.pageBreak();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void anchor( String name )
+    {
+        flushText();
+        sink.anchor( name );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void anchor( String name, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.anchor( name, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void anchor_()
+    {
+        flushText();
+        sink.anchor_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void link( String name )
+    {
+        flushText();
+        sink.link( name );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void link( String name, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.link( name, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void link_()
+    {
+        flushText();
+        sink.link_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void inline()
+    {
+        flushText();
+        sink.inline();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void inline( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.inline( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void inline_()
+    {
+        flushText();
+        sink.inline_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void italic()
+    {
+        flushText();
+        sink.italic();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void italic_()
+    {
+        flushText();
+        sink.italic_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void bold()
+    {
+        flushText();
+        sink.bold();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void bold_()
+    {
+        flushText();
+        sink.bold_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void monospaced()
+    {
+        flushText();
+        sink.monospaced();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void monospaced_()
+    {
+        flushText();
+        sink.monospaced_();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lineBreak()
+    {
+        flushText();
+        sink.lineBreak();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lineBreak( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.lineBreak( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lineBreakOpportunity()
+    {
+        flushText();
+        sink.lineBreakOpportunity();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lineBreakOpportunity( SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.lineBreakOpportunity( attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void nonBreakingSpace()
+    {
+        flushText();
+        sink.nonBreakingSpace();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rawText( String text )
+    {
+        flushText();
+        sink.rawText( text );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rawText( CharSequence text )
+    {
+        flushText();
+        sink.rawText( text );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void comment( String comment )
+    {
+        flushText();
+        sink.comment( comment );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void unknown( String name, Object[] requiredParams, SinkEventAttributes attributes )
+    {
+        flushText();
+        sink.unknown( name, requiredParams, attributes );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush()
+    {
+        flushText();
+        sink.flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close()
+    {
+        flushText();
+        sink.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getConsumedEvents()
+    {
+        return sink.getConsumedEvents();
+    }
+}
@@ -0,0 +1,147 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+
+import org.apache.maven.doxia.sink.Sink;
+
+/**
+ * Passes the events of the head of a document to a Sink, and discards the events after it.
+ * <p>
+ * The head is complete once <code>head_()</code> has been received, or when <code>body()</code> is received
+ * first. From then on {@link #isDone()} returns true, telling the parser it may stop,
+ * and the events are discarded except <code>flush()</code> and <code>close()</code>.
+ * </p>
+ * <p>
+ * The Sink returned by {@link #asSink()} declares the {@link Sink#EVENTS_STRUCTURE} events of the wrapped Sink
+ * only, as the head contains no other events.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class HeadOnlySink
+    implements InvocationHandler
+{
+    private final Sink sink;
+
+    private final Sink proxy;
+
+    private boolean done;
+
+    /**
+     * Constructs a HeadOnlySink.
+     *
+     * @param sink the Sink receiving the events of the head, not null.
+     */
+    public HeadOnlySink( Sink sink )
+    {
+        this.sink = Objects.requireNonNull( sink, "sink cannot be null" );
+        this.proxy = (Sink) Proxy.newProxyInstance( HeadOnlySink.class.getClassLoader(),
+                                                    new Class<?>[]{Sink.class}, this );
+    }
+
+    /**
+     * @return the Sink to send the events of the document to.
+     */
+    public Sink asSink()
+    {
+        return proxy;
+    }
+
+    /**
+     * @return true if the head of the document has been received.
+     */
+    public boolean isDone()
+    {
+        return done;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Passes the event to the wrapped Sink until the head is complete.
+     */
+    public Object invoke( Object proxy, Method method, Object[] args )
+        throws Throwable
+    {
+        String name = method.getName();
+
+        if ( method.getDeclaringClass() == Object.class )
+        {
+            switch ( name )
+            {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode( proxy );
+                default:
+                    return "HeadOnlySink[" + sink + "]";
+            }
+        }
+
+        switch ( name )
+        {
+            case "getConsumedEvents":
+                return sink.getConsumedEvents() & Sink.EVENTS_STRUCTURE;
+            case "flush":
+            case "close":
+                forward( method, args );
+                return null;
+            case "body":
+                done = true;
+                return null;
+            default:
+                break;
+        }
+
+        if ( done )
+        {
+            return null;
+        }
+
+        forward( method, args );
+
+        if ( "head_".equals( name ) )
+        {
+            done = true;
+        }
+
+        return null;
+    }
+
+    private void forward( Method method, Object[] args )
+        throws Throwable
+    {
+        try
+        {
+            method.invoke( sink, args );
+        }
+        catch ( InvocationTargetException e )
+        {
+            // what the wrapped Sink threw
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.swing.text.MutableAttributeSet;
+import javax.swing.text.html.HTML.Tag;
+
+import org.apache.maven.doxia.markup.HtmlMarkup;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * The sink events that are written as a single HTML element, shared by {@link XhtmlBaseSink}
+ * and {@link Xhtml5BaseSink}. Each constant holds the tag, the attributes allowed on it and
+ * whether an open paragraph must be closed before it, so that the sinks emit all these events
+ * with the same code.
+ *
+ * @since 2.0.0
+ */
+enum HtmlElement
+{
+    ARTICLE( HtmlMarkup.ARTICLE, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    NAVIGATION( HtmlMarkup.NAV, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    SIDEBAR( HtmlMarkup.ASIDE, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    HEADER( HtmlMarkup.HEADER, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    FOOTER( HtmlMarkup.FOOTER, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    LIST( HtmlMarkup.UL, SinkUtils.SINK_BASE_ATTRIBUTES, true ),
+    LIST_ITEM( HtmlMarkup.LI, SinkUtils.SINK_BASE_ATTRIBUTES, false ),
+    NUMBERED_LIST_ITEM( HtmlMarkup.LI, SinkUtils.SINK_BASE_ATTRIBUTES, false ),
+    DEFINITION_LIST( HtmlMarkup.DL, SinkUtils.SINK_BASE_ATTRIBUTES, true ),
+    DEFINED_TERM( HtmlMarkup.DT, SinkUtils.SINK_BASE_ATTRIBUTES, false ),
+    DEFINITION( HtmlMarkup.DD, SinkUtils.SINK_BASE_ATTRIBUTES, false ),
+    ADDRESS( HtmlMarkup.ADDRESS, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    BLOCKQUOTE( HtmlMarkup.BLOCKQUOTE, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    DIVISION( HtmlMarkup.DIV, SinkUtils.SINK_SECTION_ATTRIBUTES, false ),
+    HORIZONTAL_RULE( HtmlMarkup.HR, SinkUtils.SINK_HR_ATTRIBUTES, false, true );
+
+    private final Tag tag;
+
+    private final AttributeWhitelist validAttributes;
+
+    private final boolean closesParagraph;
+
+    private final boolean empty;
+
+    HtmlElement( Tag tag, String[] validAttributes, boolean closesParagraph )
+    {
+        this( tag, validAttributes, closesParagraph, false );
+    }
+
+    HtmlElement( Tag tag, String[] validAttributes, boolean closesParagraph, boolean empty )
+    {
+        this.tag = tag;
+        this.validAttributes = SinkUtils.getWhitelist( validAttributes );
+        this.closesParagraph = closesParagraph;
+        this.empty = empty;
+    }
+
+    /**
+     * @return the tag of the element.
+     */
+    Tag getTag()
+    {
+        return tag;
+    }
+
+    /**
+     * @return true if an open paragraph must be closed before the element, as a <code>p</code>
+     * can only contain inline elements.
+     */
+    boolean closesParagraph()
+    {
+        return closesParagraph;
+    }
+
+    /**
+     * Writes the start tag of this element, or the whole element if it is empty.
+     *
+     * @param sink the sink to write to.
+     * @param attributes the attributes of the event, only the valid ones are written. May be null.
+     */
+    void start( AbstractXmlSink sink, SinkEventAttributes attributes )
+    {
+        // the tags are only written, so the attributes need not be copied
+        MutableAttributeSet atts = validAttributes.filter( attributes );
+
+        if ( empty )
+        {
+            sink.writeSimpleTag( tag, atts );
+        }
+        else
+        {
+            sink.writeStartTag( tag, atts );
+        }
+    }
+
+    /**
+     * Writes the end tag of this element, nothing for an empty element.
+     *
+     * @param sink the sink to write to.
+     */
+    void end( AbstractXmlSink sink )
+    {
+        if ( !empty )
+        {
+            sink.writeEndTag( tag );
+        }
+    }
+}
@@ -73,6 +73,17 @@ public class PipelineSink
     public Object invoke( Object proxy, Method method, Object[] args )
             throws IllegalAccessException, InvocationTargetException
     {
+        if ( "getConsumedEvents".equals( method.getName() ) )
+        {
+            // a pipeline uses what any of its Sinks uses
+            int events = 0;
+            for ( Sink sink : pipeline )
+            {
+                events |= sink.getConsumedEvents();
+            }
+            return events;
+        }
+
         for ( Sink sink : pipeline )
         {
             method.invoke( sink, args );
@@ -553,6 +553,9 @@ public class RandomAccessSink
      */
     public void flush()
     {
+        // the events before the first hook come first
+        coreSink.flush();
+
         for ( int i = 0; i < sinks.size(); i++ )
         {
             // first flush to get complete buffer
@@ -594,6 +597,13 @@ public class RandomAccessSink
         currentSink.footer_();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public int getConsumedEvents()
+    {
+        return coreSink.getConsumedEvents();
+    }
+
     /** {@inheritDoc} */
     @Override
     public void head()
@@ -895,6 +905,13 @@ public class RandomAccessSink
         currentSink.rawText( text );
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void rawText( CharSequence text )
+    {
+        currentSink.rawText( text );
+    }
+
     /** {@inheritDoc} */
     @Override
     public void section( int level, SinkEventAttributes attributes )
@@ -1231,6 +1248,13 @@ public class RandomAccessSink
         currentSink.text( text, attributes );
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void text( char[] buf, int off, int len )
+    {
+        currentSink.text( buf, off, len );
+    }
+
     /** {@inheritDoc} */
     @Override
     public void time( String datetime )
@@ -19,17 +19,18 @@ package org.apache.maven.doxia.sink.impl;
  * under the License.
  */
 
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Enumeration;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 import javax.swing.text.AttributeSet;
 
 import org.apache.maven.doxia.sink.SinkEventAttributes;
 
 /**
- * Implementation of MutableAttributeSet using a LinkedHashMap.
+ * Implementation of MutableAttributeSet using parallel name and value arrays.
+ * Attributes keep their insertion order.
  *
  * @author ltheussl
  * @since 1.1
@@ -92,6 +93,17 @@ public class SinkEventAttributeSet
      */
     public static final SinkEventAttributes JUSTIFY;
 
+    /**
+     * An unmodifiable attribute set without any attribute.
+     *
+     * @since 2.0.0
+     */
+    public static final SinkEventAttributes EMPTY;
+
+    /** Shared backing arrays of sets which never held an attribute. */
+    private static final String[] NO_NAMES = new String[0];
+
+    private static final Object[] NO_VALUES = new Object[0];
 
     static
     {
@@ -108,9 +120,22 @@ public class SinkEventAttributeSet
         RIGHT = new SinkEventAttributeSet( ALIGN, "right" ).unmodifiable();
         CENTER = new SinkEventAttributeSet( ALIGN, "center" ).unmodifiable();
         JUSTIFY = new SinkEventAttributeSet( ALIGN, "justify" ).unmodifiable();
+
+        EMPTY = new SinkEventAttributeSet( 0 ).unmodifiable();
     }
 
-    private Map<String, Object> attribs;
+    /** Attribute names in insertion order, only the first <code>size</code> slots are used. */
+    private String[] names;
+
+    /** Attribute values, parallel to <code>names</code>. */
+    private Object[] values;
+
+    private int size;
+
+    /** Incremented on every structural change, used to detect concurrent modifications. */
+    private int modCount;
+
+    private boolean unmodifiable;
 
     private AttributeSet resolveParent;
 
@@ -124,12 +149,27 @@ public class SinkEventAttributeSet
 
     /**
      * Constructs a new, empty SinkEventAttributeSet with the specified initial size.
+     * No storage is allocated for an initial size of 0 until the first attribute is added.
      *
      * @param size the initial number of attribs.
      */
     public SinkEventAttributeSet( int size )
     {
-        attribs = new LinkedHashMap<>( size );
+        if ( size < 0 )
+        {
+            throw new IllegalArgumentException( "Illegal size: " + size );
+        }
+
+        if ( size == 0 )
+        {
+            names = NO_NAMES;
+            values = NO_VALUES;
+        }
+        else
+        {
+            names = new String[size];
+            values = new Object[size];
+        }
     }
 
     /**
@@ -148,11 +188,12 @@ public class SinkEventAttributeSet
             throw new IllegalArgumentException( "Missing attribute!" );
         }
 
-        attribs = new LinkedHashMap<>( n / 2 );
+        names = new String[n / 2];
+        values = new Object[n / 2];
 
         for ( int i = 0; i < n; i += 2 )
         {
-            attribs.put( attributes[i], attributes[i + 1] );
+            put( attributes[i], attributes[i + 1] );
         }
     }
 
@@ -164,7 +205,7 @@ public class SinkEventAttributeSet
      */
     public SinkEventAttributeSet( AttributeSet attributes )
     {
-        attribs = new LinkedHashMap<>( attributes.getAttributeCount() );
+        this( attributes.getAttributeCount() );
 
         Enumeration<?> names = attributes.getAttributeNames();
 
@@ -172,7 +213,7 @@ public class SinkEventAttributeSet
         {
             Object name = names.nextElement();
 
-            attribs.put( name.toString(), attributes.getAttribute( name ) );
+            put( name.toString(), attributes.getAttribute( name ) );
         }
     }
 
@@ -186,7 +227,7 @@ public class SinkEventAttributeSet
      */
     public SinkEventAttributeSet unmodifiable()
     {
-        this.attribs = Collections.unmodifiableMap( attribs );
+        this.unmodifiable = true;
 
         return this;
     }
@@ -198,7 +239,7 @@ public class SinkEventAttributeSet
      */
     public boolean isEmpty()
     {
-        return attribs.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -208,13 +249,13 @@ public class SinkEventAttributeSet
      */
     public int getAttributeCount()
     {
-        return attribs.size();
+        return size;
     }
 
     /** {@inheritDoc} */
     public boolean isDefined( Object attrName )
     {
-        return attribs.containsKey( attrName );
+        return indexOf( attrName ) >= 0;
     }
 
     /** {@inheritDoc} */
@@ -241,13 +282,39 @@ public class SinkEventAttributeSet
      */
     public Enumeration<String> getAttributeNames()
     {
-        return Collections.enumeration( attribs.keySet() );
+        return new Enumeration<String>()
+        {
+            private final int expectedModCount = modCount;
+
+            private int index;
+
+            public boolean hasMoreElements()
+            {
+                return index < size;
+            }
+
+            public String nextElement()
+            {
+                if ( modCount != expectedModCount )
+                {
+                    throw new ConcurrentModificationException();
+                }
+
+                if ( index >= size )
+                {
+                    throw new NoSuchElementException();
+                }
+
+                return names[index++];
+            }
+        };
     }
 
     /** {@inheritDoc} */
     public Object getAttribute( Object key  )
     {
-        Object value = attribs.get( key  );
+        int i = indexOf( key );
+        Object value = ( i < 0 ) ? null : values[i];
 
         if ( value == null )
         {
@@ -291,7 +358,9 @@ public class SinkEventAttributeSet
      */
     public void addAttribute( Object name, Object value )
     {
-        attribs.put( name.toString(), value );
+        checkModifiable();
+
+        put( name.toString(), value );
     }
 
     /** {@inheritDoc} */
@@ -302,6 +371,25 @@ public class SinkEventAttributeSet
             return;
         }
 
+        checkModifiable();
+
+        if ( attributes instanceof SinkEventAttributeSet )
+        {
+            SinkEventAttributeSet other = (SinkEventAttributeSet) attributes;
+
+            if ( other == this )
+            {
+                return;
+            }
+
+            for ( int i = 0; i < other.size; i++ )
+            {
+                put( other.names[i], other.getAttribute( other.names[i] ) );
+            }
+
+            return;
+        }
+
         Enumeration<?> names = attributes.getAttributeNames();
 
         while ( names.hasMoreElements() )
@@ -315,7 +403,27 @@ public class SinkEventAttributeSet
     /** {@inheritDoc} */
     public void removeAttribute( Object name )
     {
-        attribs.remove( name );
+        checkModifiable();
+
+        int i = indexOf( name );
+
+        if ( i < 0 )
+        {
+            return;
+        }
+
+        int moved = size - i - 1;
+
+        if ( moved > 0 )
+        {
+            System.arraycopy( names, i + 1, names, i, moved );
+            System.arraycopy( values, i + 1, values, i, moved );
+        }
+
+        size--;
+        names[size] = null;
+        values[size] = null;
+        modCount++;
     }
 
     /** {@inheritDoc} */
@@ -340,7 +448,12 @@ public class SinkEventAttributeSet
         }
         else if ( attributes == this )
         {
-            attribs.clear();
+            checkModifiable();
+
+            Arrays.fill( names, 0, size, null );
+            Arrays.fill( values, 0, size, null );
+            size = 0;
+            modCount++;
         }
         else
         {
@@ -379,8 +492,14 @@ public class SinkEventAttributeSet
     @Override
     public Object clone()
     {
-        SinkEventAttributeSet attr = new SinkEventAttributeSet( attribs.size() );
-        attr.attribs = new LinkedHashMap<>( attribs );
+        SinkEventAttributeSet attr = new SinkEventAttributeSet( size );
+
+        if ( size > 0 )
+        {
+            System.arraycopy( names, 0, attr.names, 0, size );
+            System.arraycopy( values, 0, attr.values, 0, size );
+            attr.size = size;
+        }
 
         if ( resolveParent != null )
         {
@@ -396,7 +515,15 @@ public class SinkEventAttributeSet
     {
         final int parentHash = ( resolveParent == null ? 0 : resolveParent.hashCode() );
 
-        return attribs.hashCode() + parentHash;
+        // same value as the former LinkedHashMap based implementation
+        int hash = 0;
+
+        for ( int i = 0; i < size; i++ )
+        {
+            hash += names[i].hashCode() ^ ( values[i] == null ? 0 : values[i].hashCode() );
+        }
+
+        return hash + parentHash;
     }
 
     /** {@inheritDoc} */
@@ -434,6 +561,65 @@ public class SinkEventAttributeSet
         return s.toString();
     }
 
+    /**
+     * Linear lookup, attribute sets rarely hold more than a handful of entries.
+     *
+     * @param name the attribute name.
+     * @return the index of the attribute, or -1 if it is not defined.
+     */
+    private int indexOf( Object name )
+    {
+        if ( name == null )
+        {
+            return -1;
+        }
+
+        for ( int i = 0; i < size; i++ )
+        {
+            if ( name.equals( names[i] ) )
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Stores the given mapping, replacing the value of an existing attribute
+     * in place and appending new ones.
+     */
+    private void put( String name, Object value )
+    {
+        int i = indexOf( name );
+
+        if ( i >= 0 )
+        {
+            values[i] = value;
+            return;
+        }
+
+        if ( size == names.length )
+        {
+            int capacity = ( size < 4 ) ? 4 : size + ( size >> 1 );
+            names = Arrays.copyOf( names, capacity );
+            values = Arrays.copyOf( values, capacity );
+        }
+
+        names[size] = name;
+        values[size] = value;
+        size++;
+        modCount++;
+    }
+
+    private void checkModifiable()
+    {
+        if ( unmodifiable )
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * Attribute sets for the semantic attribute.
      */
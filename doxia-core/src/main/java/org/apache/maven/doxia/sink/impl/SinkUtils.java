@@ -21,6 +21,8 @@ package org.apache.maven.doxia.sink.impl;
 
 import java.util.Enumeration;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import javax.swing.text.AttributeSet;
 import javax.swing.text.MutableAttributeSet;
@@ -137,6 +139,9 @@ public class SinkUtils
         SinkEventAttributes.SCOPE, SinkEventAttributes.VALIGN, SinkEventAttributes.WIDTH
     };
 
+    /** The precomputed whitelists of the SINK_*_ATTRIBUTES arrays, by array identity. */
+    private static final Map<String[], AttributeWhitelist> WHITELISTS = new IdentityHashMap<>();
+
     static
     {
         SINK_IMG_ATTRIBUTES = join( SINK_BASE_ATTRIBUTES, IMG_ATTRIBUTES );
@@ -152,6 +157,28 @@ public class SinkUtils
                 join( SINK_BASE_ATTRIBUTES,
                 new String[] {SinkEventAttributes.ALIGN, SinkEventAttributes.BGCOLOR, SinkEventAttributes.VALIGN} );
         SINK_TD_ATTRIBUTES = join( SINK_BASE_ATTRIBUTES, TABLE_CELL_ATTRIBUTES );
+
+        for ( String[] valids : new String[][] {SINK_BASE_ATTRIBUTES, SINK_BR_ATTRIBUTES, SINK_IMG_ATTRIBUTES,
+            SINK_SECTION_ATTRIBUTES, SINK_VERBATIM_ATTRIBUTES, SINK_HR_ATTRIBUTES, SINK_LINK_ATTRIBUTES,
+            SINK_TABLE_ATTRIBUTES, SINK_TD_ATTRIBUTES, SINK_TR_ATTRIBUTES} )
+        {
+            WHITELISTS.put( valids, AttributeWhitelist.of( valids ) );
+        }
+    }
+
+    /**
+     * Returns the whitelist of an array of attribute names. The whitelists of the SINK_*_ATTRIBUTES
+     * arrays of this class are precomputed, a new one is created for any other array.
+     *
+     * @param valids an array of attribute names, in any order. Not null.
+     * @return the whitelist of these names.
+     * @since 2.0.0
+     */
+    public static AttributeWhitelist getWhitelist( String[] valids )
+    {
+        AttributeWhitelist whitelist = WHITELISTS.get( valids );
+
+        return whitelist != null ? whitelist : AttributeWhitelist.of( valids );
     }
 
     private static String[] join( String[] a, String[] b )
@@ -247,8 +274,11 @@ public class SinkUtils
      * @param attributes The AttributeSet to filter. The String values of Attribute names
      * are compared to the elements of the valids array.
      * @param valids a sorted array of attribute names that are to be kept in the resulting AttributeSet.
-     *      <b>Note:</b> a binary search is employed, so the array has to be sorted for correct results.
-     * @return A filtered MutableAttributeSet object. Returns null if the input AttributeSet is null.
+     *      <b>Note:</b> a binary search is employed, so the array has to be sorted for correct results,
+     *      except for the SINK_*_ATTRIBUTES arrays of this class, which are looked up in their precomputed
+     *      {@link AttributeWhitelist}.
+     * @return A filtered MutableAttributeSet object, that may be modified.
+     *      Returns null if the input AttributeSet is null.
      *      If the array of valids is either null or empty, an empty AttributeSet is returned.
      */
     public static MutableAttributeSet filterAttributes( AttributeSet attributes, String[] valids )
@@ -263,7 +293,21 @@ public class SinkUtils
             return new SinkEventAttributeSet( 0 );
         }
 
-        MutableAttributeSet atts = new SinkEventAttributeSet( attributes.getAttributeCount() );
+        if ( attributes.getAttributeCount() == 0 )
+        {
+            return new SinkEventAttributeSet( 0 );
+        }
+
+        AttributeWhitelist whitelist = WHITELISTS.get( valids );
+
+        if ( whitelist != null )
+        {
+            return whitelist.copyOf( attributes );
+        }
+
+        int count = attributes.getAttributeCount();
+
+        MutableAttributeSet atts = new SinkEventAttributeSet( Math.min( count, valids.length ) );
 
         Enumeration<?> names = attributes.getAttributeNames();
 
@@ -19,8 +19,10 @@ package org.apache.maven.doxia.sink.impl;
  * under the License.
  */
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.EmptyStackException;
@@ -294,17 +296,14 @@ public class Xhtml5BaseSink
     @Override
     public void article( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.ARTICLE, atts );
+        startElement( HtmlElement.ARTICLE, attributes );
     }
 
     /** {@inheritDoc} */
     @Override
     public void article_()
     {
-        writeEndTag( HtmlMarkup.ARTICLE );
+        endElement( HtmlElement.ARTICLE );
     }
 
     /** {@inheritDoc} */
@@ -318,17 +317,14 @@ public class Xhtml5BaseSink
     @Override
     public void navigation( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.NAV, atts );
+        startElement( HtmlElement.NAVIGATION, attributes );
     }
 
     /** {@inheritDoc} */
     @Override
     public void navigation_()
     {
-        writeEndTag( HtmlMarkup.NAV );
+        endElement( HtmlElement.NAVIGATION );
     }
 
     /** {@inheritDoc} */
@@ -342,17 +338,14 @@ public class Xhtml5BaseSink
     @Override
     public void sidebar( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.ASIDE, atts );
+        startElement( HtmlElement.SIDEBAR, attributes );
     }
 
     /** {@inheritDoc} */
     @Override
     public void sidebar_()
     {
-        writeEndTag( HtmlMarkup.ASIDE );
+        endElement( HtmlElement.SIDEBAR );
     }
 
     /** {@inheritDoc} */
@@ -638,17 +631,14 @@ public class Xhtml5BaseSink
     @Override
     public void header( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.HEADER, atts );
+        startElement( HtmlElement.HEADER, attributes );
     }
 
     /** {@inheritDoc} */
     @Override
     public void header_()
     {
-        writeEndTag( HtmlMarkup.HEADER );
+        endElement( HtmlElement.HEADER );
     }
 
     /** {@inheritDoc} */
@@ -710,17 +700,14 @@ public class Xhtml5BaseSink
     @Override
     public void footer( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.FOOTER, atts );
+        startElement( HtmlElement.FOOTER, attributes );
     }
 
     /** {@inheritDoc} */
     @Override
     public void footer_()
     {
-        writeEndTag( HtmlMarkup.FOOTER );
+        endElement( HtmlElement.FOOTER );
     }
 
     // -----------------------------------------------------------------------
@@ -744,18 +731,7 @@ public class Xhtml5BaseSink
     @Override
     public void list( SinkEventAttributes attributes )
     {
-        if ( paragraphFlag )
-        {
-            // The content of element type "p" must match
-            // "(a|br|span|bdo|object|applet|img|map|iframe|tt|i|b|u|s|strike|big|small|font|basefont|em|strong|
-            // dfn|code|q|samp|kbd|var|cite|abbr|acronym|sub|sup|input|select|textarea|label|button|ins|del|script)".
-            paragraph_();
-        }
-
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.UL, atts );
+        startElement( HtmlElement.LIST, attributes );
     }
 
     /**
@@ -765,7 +741,7 @@ public class Xhtml5BaseSink
     @Override
     public void list_()
     {
-        writeEndTag( HtmlMarkup.UL );
+        endElement( HtmlElement.LIST );
     }
 
     /**
@@ -785,10 +761,7 @@ public class Xhtml5BaseSink
     @Override
     public void listItem( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.LI, atts );
+        startElement( HtmlElement.LIST_ITEM, attributes );
     }
 
     /**
@@ -798,7 +771,7 @@ public class Xhtml5BaseSink
     @Override
     public void listItem_()
     {
-        writeEndTag( HtmlMarkup.LI );
+        endElement( HtmlElement.LIST_ITEM );
     }
 
     /**
@@ -890,10 +863,7 @@ public class Xhtml5BaseSink
     @Override
     public void numberedListItem( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.LI, atts );
+        startElement( HtmlElement.NUMBERED_LIST_ITEM, attributes );
     }
 
     /**
@@ -903,7 +873,7 @@ public class Xhtml5BaseSink
     @Override
     public void numberedListItem_()
     {
-        writeEndTag( HtmlMarkup.LI );
+        endElement( HtmlElement.NUMBERED_LIST_ITEM );
     }
 
     /**
@@ -923,18 +893,7 @@ public class Xhtml5BaseSink
     @Override
     public void definitionList( SinkEventAttributes attributes )
     {
-        if ( paragraphFlag )
-        {
-            // The content of element type "p" must match
-            // "(a|br|span|bdo|object|applet|img|map|iframe|tt|i|b|u|s|strike|big|small|font|basefont|em|strong|
-            // dfn|code|q|samp|kbd|var|cite|abbr|acronym|sub|sup|input|select|textarea|label|button|ins|del|script)".
-            paragraph_();
-        }
-
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DL, atts );
+        startElement( HtmlElement.DEFINITION_LIST, attributes );
     }
 
     /**
@@ -944,7 +903,7 @@ public class Xhtml5BaseSink
     @Override
     public void definitionList_()
     {
-        writeEndTag( HtmlMarkup.DL );
+        endElement( HtmlElement.DEFINITION_LIST );
     }
 
     /**
@@ -954,10 +913,7 @@ public class Xhtml5BaseSink
     @Override
     public void definedTerm( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DT, atts );
+        startElement( HtmlElement.DEFINED_TERM, attributes );
     }
 
     /**
@@ -977,7 +933,7 @@ public class Xhtml5BaseSink
     @Override
     public void definedTerm_()
     {
-        writeEndTag( HtmlMarkup.DT );
+        endElement( HtmlElement.DEFINED_TERM );
     }
 
     /**
@@ -997,10 +953,7 @@ public class Xhtml5BaseSink
     @Override
     public void definition( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DD, atts );
+        startElement( HtmlElement.DEFINITION, attributes );
     }
 
     /**
@@ -1010,7 +963,7 @@ public class Xhtml5BaseSink
     @Override
     public void definition_()
     {
-        writeEndTag( HtmlMarkup.DD );
+        endElement( HtmlElement.DEFINITION );
     }
 
     /** {@inheritDoc} */
@@ -1205,10 +1158,7 @@ public class Xhtml5BaseSink
     @Override
     public void address( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.ADDRESS, atts );
+        startElement( HtmlElement.ADDRESS, attributes );
     }
 
     /**
@@ -1218,7 +1168,7 @@ public class Xhtml5BaseSink
     @Override
     public void address_()
     {
-        writeEndTag( HtmlMarkup.ADDRESS );
+        endElement( HtmlElement.ADDRESS );
     }
 
     /**
@@ -1238,10 +1188,7 @@ public class Xhtml5BaseSink
     @Override
     public void blockquote( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.BLOCKQUOTE, atts );
+        startElement( HtmlElement.BLOCKQUOTE, attributes );
     }
 
     /**
@@ -1251,7 +1198,7 @@ public class Xhtml5BaseSink
     @Override
     public void blockquote_()
     {
-        writeEndTag( HtmlMarkup.BLOCKQUOTE );
+        endElement( HtmlElement.BLOCKQUOTE );
     }
 
     /**
@@ -1271,10 +1218,7 @@ public class Xhtml5BaseSink
     @Override
     public void division( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DIV, atts );
+        startElement( HtmlElement.DIVISION, attributes );
     }
 
     /**
@@ -1284,7 +1228,7 @@ public class Xhtml5BaseSink
     @Override
     public void division_()
     {
-        writeEndTag( HtmlMarkup.DIV );
+        endElement( HtmlElement.DIVISION );
     }
 
     /**
@@ -1368,10 +1312,7 @@ public class Xhtml5BaseSink
     @Override
     public void horizontalRule( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_HR_ATTRIBUTES  );
-
-        writeSimpleTag( HtmlMarkup.HR, atts );
+        startElement( HtmlElement.HORIZONTAL_RULE, attributes );
     }
 
     /** {@inheritDoc} */
@@ -1650,8 +1591,7 @@ public class Xhtml5BaseSink
         }
         else
         {
-            writeStartTag( t,
-                SinkUtils.filterAttributes( attributes, SinkUtils.SINK_TD_ATTRIBUTES ) );
+            writeStartTag( t, SinkUtils.getWhitelist( SinkUtils.SINK_TD_ATTRIBUTES ).filter( attributes ) );
         }
     }
 
@@ -2088,6 +2028,39 @@ public class Xhtml5BaseSink
         text( text );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The characters are escaped straight into the output: a subclass customizing
+     * {@link #text(String)} must override this method too.
+     */
+    @Override
+    public void text( char[] buf, int off, int len )
+    {
+        Writer out = getContentWriter();
+
+        if ( ( out == null && !headFlag ) )
+        {
+            super.text( buf, off, len );
+        }
+        else if ( headFlag )
+        {
+            getTextBuffer().append( buf, off, len );
+        }
+        else
+        {
+            try
+            {
+                // small hack due to DOXIA-314, see content(String)
+                writeEscaped( out, buf, off, len, !verbatimFlag );
+            }
+            catch ( IOException e )
+            {
+                // IOException can only be caused by our own PrintWriter or StringWriter
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void rawText( String text )
@@ -2102,6 +2075,38 @@ public class Xhtml5BaseSink
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The text is written straight into the output: a subclass customizing
+     * {@link #rawText(String)} must override this method too.
+     */
+    @Override
+    public void rawText( CharSequence text )
+    {
+        Writer out = getContentWriter();
+
+        if ( text == null || ( out == null && !headFlag ) )
+        {
+            super.rawText( text );
+        }
+        else if ( headFlag )
+        {
+            getTextBuffer().append( text );
+        }
+        else
+        {
+            try
+            {
+                writeUnifiedEOLs( out, text );
+            }
+            catch ( IOException e )
+            {
+                // IOException can only be caused by our own PrintWriter or StringWriter
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void comment( String comment )
@@ -2251,6 +2256,8 @@ public class Xhtml5BaseSink
     public void flush()
     {
         writer.flush();
+
+        checkWriteError();
     }
 
     /** {@inheritDoc} */
@@ -2260,6 +2267,20 @@ public class Xhtml5BaseSink
         writer.close();
 
         init();
+
+        checkWriteError();
+    }
+
+    /**
+     * The underlying <code>PrintWriter</code> swallows I/O errors: report them once the output is flushed,
+     * so that a truncated document does not go unnoticed.
+     */
+    private void checkWriteError()
+    {
+        if ( writer.checkError() )
+        {
+            throw new UncheckedIOException( new IOException( "Error writing the sink output" ) );
+        }
     }
 
     // ----------------------------------------------------------------------
@@ -2313,6 +2334,25 @@ public class Xhtml5BaseSink
         return HtmlTools.encodeURL( text );
     }
 
+    /**
+     * Returns the writer which {@link #write(String)} currently writes to, if text can be written to it directly.
+     *
+     * @return the current table content writer or the main writer, <code>null</code> inside a table caption.
+     */
+    private Writer getContentWriter()
+    {
+        if ( !this.tableCaptionXMLWriterStack.isEmpty() && this.tableCaptionXMLWriterStack.getLast() != null )
+        {
+            return null;
+        }
+        else if ( !this.tableContentWriterStack.isEmpty() && this.tableContentWriterStack.getLast() != null )
+        {
+            return this.tableContentWriterStack.getLast();
+        }
+
+        return writer;
+    }
+
     /** {@inheritDoc} */
     protected void write( String text )
     {
@@ -2330,6 +2370,33 @@ public class Xhtml5BaseSink
         }
     }
 
+    /**
+     * Writes the start of an element from the {@link HtmlElement} table, closing an open paragraph first
+     * if the element cannot be nested in it.
+     *
+     * @param element the element to start.
+     * @param attributes the attributes of the event. May be null.
+     */
+    private void startElement( HtmlElement element, SinkEventAttributes attributes )
+    {
+        if ( paragraphFlag && element.closesParagraph() )
+        {
+            paragraph_();
+        }
+
+        element.start( this, attributes );
+    }
+
+    /**
+     * Writes the end of an element from the {@link HtmlElement} table.
+     *
+     * @param element the element to end.
+     */
+    private void endElement( HtmlElement element )
+    {
+        element.end( this );
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void writeStartTag( Tag t, MutableAttributeSet att, boolean isSimpleTag )
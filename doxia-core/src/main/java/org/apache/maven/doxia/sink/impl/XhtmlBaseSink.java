@@ -19,8 +19,10 @@ package org.apache.maven.doxia.sink.impl;
  * under the License.
  */
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -595,18 +597,7 @@ public class XhtmlBaseSink
     @Override
     public void list( SinkEventAttributes attributes )
     {
-        if ( paragraphFlag )
-        {
-            // The content of element type "p" must match
-            // "(a|br|span|bdo|object|applet|img|map|iframe|tt|i|b|u|s|strike|big|small|font|basefont|em|strong|
-            // dfn|code|q|samp|kbd|var|cite|abbr|acronym|sub|sup|input|select|textarea|label|button|ins|del|script)".
-            paragraph_();
-        }
-
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.UL, atts );
+        startElement( HtmlElement.LIST, attributes );
     }
 
     /**
@@ -616,7 +607,7 @@ public class XhtmlBaseSink
     @Override
     public void list_()
     {
-        writeEndTag( HtmlMarkup.UL );
+        endElement( HtmlElement.LIST );
     }
 
     /**
@@ -636,10 +627,7 @@ public class XhtmlBaseSink
     @Override
     public void listItem( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.LI, atts );
+        startElement( HtmlElement.LIST_ITEM, attributes );
     }
 
     /**
@@ -649,7 +637,7 @@ public class XhtmlBaseSink
     @Override
     public void listItem_()
     {
-        writeEndTag( HtmlMarkup.LI );
+        endElement( HtmlElement.LIST_ITEM );
     }
 
     /**
@@ -741,10 +729,7 @@ public class XhtmlBaseSink
     @Override
     public void numberedListItem( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.LI, atts );
+        startElement( HtmlElement.NUMBERED_LIST_ITEM, attributes );
     }
 
     /**
@@ -754,7 +739,7 @@ public class XhtmlBaseSink
     @Override
     public void numberedListItem_()
     {
-        writeEndTag( HtmlMarkup.LI );
+        endElement( HtmlElement.NUMBERED_LIST_ITEM );
     }
 
     /**
@@ -774,18 +759,7 @@ public class XhtmlBaseSink
     @Override
     public void definitionList( SinkEventAttributes attributes )
     {
-        if ( paragraphFlag )
-        {
-            // The content of element type "p" must match
-            // "(a|br|span|bdo|object|applet|img|map|iframe|tt|i|b|u|s|strike|big|small|font|basefont|em|strong|
-            // dfn|code|q|samp|kbd|var|cite|abbr|acronym|sub|sup|input|select|textarea|label|button|ins|del|script)".
-            paragraph_();
-        }
-
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DL, atts );
+        startElement( HtmlElement.DEFINITION_LIST, attributes );
     }
 
     /**
@@ -795,7 +769,7 @@ public class XhtmlBaseSink
     @Override
     public void definitionList_()
     {
-        writeEndTag( HtmlMarkup.DL );
+        endElement( HtmlElement.DEFINITION_LIST );
     }
 
     /**
@@ -805,10 +779,7 @@ public class XhtmlBaseSink
     @Override
     public void definedTerm( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DT, atts );
+        startElement( HtmlElement.DEFINED_TERM, attributes );
     }
 
     /**
@@ -828,7 +799,7 @@ public class XhtmlBaseSink
     @Override
     public void definedTerm_()
     {
-        writeEndTag( HtmlMarkup.DT );
+        endElement( HtmlElement.DEFINED_TERM );
     }
 
     /**
@@ -848,10 +819,7 @@ public class XhtmlBaseSink
     @Override
     public void definition( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_BASE_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DD, atts );
+        startElement( HtmlElement.DEFINITION, attributes );
     }
 
     /**
@@ -861,7 +829,7 @@ public class XhtmlBaseSink
     @Override
     public void definition_()
     {
-        writeEndTag( HtmlMarkup.DD );
+        endElement( HtmlElement.DEFINITION );
     }
 
     /**
@@ -1083,10 +1051,7 @@ public class XhtmlBaseSink
     @Override
     public void address( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.ADDRESS, atts );
+        startElement( HtmlElement.ADDRESS, attributes );
     }
 
     /**
@@ -1096,7 +1061,7 @@ public class XhtmlBaseSink
     @Override
     public void address_()
     {
-        writeEndTag( HtmlMarkup.ADDRESS );
+        endElement( HtmlElement.ADDRESS );
     }
 
     /**
@@ -1116,10 +1081,7 @@ public class XhtmlBaseSink
     @Override
     public void blockquote( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.BLOCKQUOTE, atts );
+        startElement( HtmlElement.BLOCKQUOTE, attributes );
     }
 
     /**
@@ -1129,7 +1091,7 @@ public class XhtmlBaseSink
     @Override
     public void blockquote_()
     {
-        writeEndTag( HtmlMarkup.BLOCKQUOTE );
+        endElement( HtmlElement.BLOCKQUOTE );
     }
 
     /**
@@ -1149,10 +1111,7 @@ public class XhtmlBaseSink
     @Override
     public void division( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
-
-        writeStartTag( HtmlMarkup.DIV, atts );
+        startElement( HtmlElement.DIVISION, attributes );
     }
 
     /**
@@ -1162,7 +1121,7 @@ public class XhtmlBaseSink
     @Override
     public void division_()
     {
-        writeEndTag( HtmlMarkup.DIV );
+        endElement( HtmlElement.DIVISION );
     }
 
     /**
@@ -1246,10 +1205,7 @@ public class XhtmlBaseSink
     @Override
     public void horizontalRule( SinkEventAttributes attributes )
     {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(
-                attributes, SinkUtils.SINK_HR_ATTRIBUTES  );
-
-        writeSimpleTag( HtmlMarkup.HR, atts );
+        startElement( HtmlElement.HORIZONTAL_RULE, attributes );
     }
 
     /** {@inheritDoc} */
@@ -1527,8 +1483,7 @@ public class XhtmlBaseSink
         }
         else
         {
-            writeStartTag( t,
-                SinkUtils.filterAttributes( attributes, SinkUtils.SINK_TD_ATTRIBUTES ) );
+            writeStartTag( t, SinkUtils.getWhitelist( SinkUtils.SINK_TD_ATTRIBUTES ).filter( attributes ) );
         }
     }
 
@@ -1939,6 +1894,39 @@ public class XhtmlBaseSink
         text( text );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The characters are escaped straight into the output: a subclass customizing
+     * {@link #text(String)} must override this method too.
+     */
+    @Override
+    public void text( char[] buf, int off, int len )
+    {
+        Writer out = getContentWriter();
+
+        if ( ( out == null && !headFlag ) )
+        {
+            super.text( buf, off, len );
+        }
+        else if ( headFlag )
+        {
+            getTextBuffer().append( buf, off, len );
+        }
+        else
+        {
+            try
+            {
+                // small hack due to DOXIA-314, see content(String)
+                writeEscaped( out, buf, off, len, !verbatimFlag );
+            }
+            catch ( IOException e )
+            {
+                // IOException can only be caused by our own PrintWriter or StringWriter
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void rawText( String text )
@@ -1953,6 +1941,38 @@ public class XhtmlBaseSink
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The text is written straight into the output: a subclass customizing
+     * {@link #rawText(String)} must override this method too.
+     */
+    @Override
+    public void rawText( CharSequence text )
+    {
+        Writer out = getContentWriter();
+
+        if ( text == null || ( out == null && !headFlag ) )
+        {
+            super.rawText( text );
+        }
+        else if ( headFlag )
+        {
+            getTextBuffer().append( text );
+        }
+        else
+        {
+            try
+            {
+                writeUnifiedEOLs( out, text );
+            }
+            catch ( IOException e )
+            {
+                // IOException can only be caused by our own PrintWriter or StringWriter
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void comment( String comment )
@@ -2102,6 +2122,8 @@ public class XhtmlBaseSink
     public void flush()
     {
         writer.flush();
+
+        checkWriteError();
     }
 
     /** {@inheritDoc} */
@@ -2111,6 +2133,20 @@ public class XhtmlBaseSink
         writer.close();
 
         init();
+
+        checkWriteError();
+    }
+
+    /**
+     * The underlying <code>PrintWriter</code> swallows I/O errors: report them once the output is flushed,
+     * so that a truncated document does not go unnoticed.
+     */
+    private void checkWriteError()
+    {
+        if ( writer.checkError() )
+        {
+            throw new UncheckedIOException( new IOException( "Error writing the sink output" ) );
+        }
     }
 
     // ----------------------------------------------------------------------
@@ -2164,6 +2200,25 @@ public class XhtmlBaseSink
         return HtmlTools.encodeURL( text );
     }
 
+    /**
+     * Returns the writer which {@link #write(String)} currently writes to, if text can be written to it directly.
+     *
+     * @return the current table content writer or the main writer, <code>null</code> inside a table caption.
+     */
+    private Writer getContentWriter()
+    {
+        if ( !this.tableCaptionXMLWriterStack.isEmpty() && this.tableCaptionXMLWriterStack.getLast() != null )
+        {
+            return null;
+        }
+        else if ( !this.tableContentWriterStack.isEmpty() && this.tableContentWriterStack.getLast() != null )
+        {
+            return this.tableContentWriterStack.getLast();
+        }
+
+        return writer;
+    }
+
     /** {@inheritDoc} */
     protected void write( String text )
     {
@@ -2181,6 +2236,33 @@ public class XhtmlBaseSink
         }
     }
 
+    /**
+     * Writes the start of an element from the {@link HtmlElement} table, closing an open paragraph first
+     * if the element cannot be nested in it.
+     *
+     * @param element the element to start.
+     * @param attributes the attributes of the event. May be null.
+     */
+    private void startElement( HtmlElement element, SinkEventAttributes attributes )
+    {
+        if ( paragraphFlag && element.closesParagraph() )
+        {
+            paragraph_();
+        }
+
+        element.start( this, attributes );
+    }
+
+    /**
+     * Writes the end of an element from the {@link HtmlElement} table.
+     *
+     * @param element the element to end.
+     */
+    private void endElement( HtmlElement element )
+    {
+        element.end( this );
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void writeStartTag( Tag t, MutableAttributeSet att, boolean isSimpleTag )
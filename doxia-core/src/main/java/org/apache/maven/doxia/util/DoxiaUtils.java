@@ -26,7 +26,6 @@ import java.io.IOException;
 
 import java.net.URL;
 
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
@@ -213,7 +212,12 @@ public class DoxiaUtils
             return "a";
         }
 
-        StringBuilder buffer = new StringBuilder( length );
+        if ( isValidId( idd ) )
+        {
+            return idd;
+        }
+
+        StringBuilder buffer = new StringBuilder( length + 16 );
 
         for ( int i = 0; i < length; ++i )
         {
@@ -235,14 +239,8 @@ public class DoxiaUtils
             }
             else if ( !chop )
             {
-
-                byte[] bytes = String.valueOf( c ).getBytes( StandardCharsets.UTF_8 );
-
-                for ( byte aByte : bytes )
-                {
-                    buffer.append( '.' );
-                    buffer.append( String.format( "%02X", aByte ) );
-                }
+                // each char is encoded on its own, a surrogate gives '?' like String.getBytes() does
+                appendUtf8Escaped( buffer, '.', c );
             }
         }
 
@@ -352,6 +350,55 @@ public class DoxiaUtils
         return ( c >= '0' && c <= '9' );
     }
 
+    /** Upper case hexadecimal digits, indexed by value. */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Appends the UTF-8 bytes of a code point, each written as the escape char followed by
+     * two upper case hexadecimal digits. An unpaired surrogate is written as <code>'?'</code>.
+     *
+     * @param buffer the buffer to append to.
+     * @param escape the char written before each byte, ie <code>'%'</code> for URLs.
+     * @param codePoint the code point to encode.
+     */
+    static void appendUtf8Escaped( final StringBuilder buffer, final char escape, final int codePoint )
+    {
+        if ( codePoint < 0x80 )
+        {
+            appendHex( buffer, escape, codePoint );
+        }
+        else if ( codePoint < 0x800 )
+        {
+            appendHex( buffer, escape, 0xC0 | ( codePoint >> 6 ) );
+            appendHex( buffer, escape, 0x80 | ( codePoint & 0x3F ) );
+        }
+        else if ( codePoint < 0x10000 )
+        {
+            if ( Character.isSurrogate( (char) codePoint ) )
+            {
+                appendHex( buffer, escape, '?' );
+            }
+            else
+            {
+                appendHex( buffer, escape, 0xE0 | ( codePoint >> 12 ) );
+                appendHex( buffer, escape, 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+                appendHex( buffer, escape, 0x80 | ( codePoint & 0x3F ) );
+            }
+        }
+        else
+        {
+            appendHex( buffer, escape, 0xF0 | ( codePoint >> 18 ) );
+            appendHex( buffer, escape, 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+            appendHex( buffer, escape, 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+            appendHex( buffer, escape, 0x80 | ( codePoint & 0x3F ) );
+        }
+    }
+
+    private static void appendHex( final StringBuilder buffer, final char escape, final int b )
+    {
+        buffer.append( escape ).append( HEX_DIGITS[( b >> 4 ) & 0xF] ).append( HEX_DIGITS[b & 0xF] );
+    }
+
     /**
      * Determine width and height of an image. If successful, the returned SinkEventAttributes
      * contain width and height attribute keys whose values are the width and height of the image (as a String).
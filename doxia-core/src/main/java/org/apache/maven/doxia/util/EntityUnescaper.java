@@ -0,0 +1,290 @@
+package org.apache.maven.doxia.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.text.translate.EntityArrays;
+
+/**
+ * A single pass unescaper of character references: named entities from a fixed table,
+ * decimal <code>&amp;#229;</code> and hexadecimal <code>&amp;#x1d7ed;</code> references,
+ * including supplementary code points. References must be terminated by a semicolon,
+ * anything that is not a known reference is copied unchanged.
+ * <p>
+ * The named entities are kept in a precomputed open addressing hash table, that is probed
+ * directly with the characters of the input, so no intermediate String is created.
+ * Instances are immutable and thread safe.
+ *
+ * @since 2.0.0
+ */
+public final class EntityUnescaper
+{
+    /**
+     * Unescapes the HTML 4.0 named entities, as <code>StringEscapeUtils.unescapeHtml4()</code>.
+     */
+    public static final EntityUnescaper HTML4;
+
+    /**
+     * Unescapes the five XML named entities, as <code>StringEscapeUtils.unescapeXml()</code>.
+     */
+    public static final EntityUnescaper XML;
+
+    static
+    {
+        Map<CharSequence, CharSequence> html = new LinkedHashMap<>();
+        html.putAll( EntityArrays.BASIC_UNESCAPE );
+        html.putAll( EntityArrays.ISO8859_1_UNESCAPE );
+        html.putAll( EntityArrays.HTML40_EXTENDED_UNESCAPE );
+        HTML4 = new EntityUnescaper( html );
+
+        Map<CharSequence, CharSequence> xml = new LinkedHashMap<>();
+        xml.putAll( EntityArrays.BASIC_UNESCAPE );
+        xml.putAll( EntityArrays.APOS_UNESCAPE );
+        XML = new EntityUnescaper( xml );
+    }
+
+    /** Entity names, without the leading ampersand and the trailing semicolon. */
+    private final String[] names;
+
+    private final String[] values;
+
+    private final int mask;
+
+    private final int maxLength;
+
+    /**
+     * @param entities the entities, from <code>&amp;name;</code> to their replacement.
+     */
+    private EntityUnescaper( Map<CharSequence, CharSequence> entities )
+    {
+        int size = Integer.highestOneBit( entities.size() * 4 - 1 ) << 1;
+        names = new String[size];
+        values = new String[size];
+        mask = size - 1;
+
+        int max = 0;
+        for ( Map.Entry<CharSequence, CharSequence> entity : entities.entrySet() )
+        {
+            String key = entity.getKey().toString();
+            String name = key.substring( 1, key.length() - 1 );
+
+            int i = hash( name, 0, name.length() ) & mask;
+            while ( names[i] != null )
+            {
+                i = ( i + 1 ) & mask;
+            }
+            names[i] = name;
+            values[i] = entity.getValue().toString();
+
+            max = Math.max( max, name.length() );
+        }
+        maxLength = max;
+    }
+
+    /**
+     * Unescapes a string.
+     *
+     * @param text the text to unescape, may be null.
+     * @return the unescaped text, the same instance if it contains no reference, null if null input.
+     */
+    public String unescape( String text )
+    {
+        if ( text == null )
+        {
+            return null;
+        }
+
+        int amp = text.indexOf( '&' );
+        if ( amp < 0 )
+        {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder( text.length() );
+        sb.append( text, 0, amp );
+        unescape( text, amp, text.length(), sb );
+
+        return sb.toString();
+    }
+
+    /**
+     * Unescapes a range of characters, appending the result to a buffer that may be reused across calls.
+     *
+     * @param text the text to unescape, not null.
+     * @param start the start of the range, inclusive.
+     * @param end the end of the range, exclusive.
+     * @param out the buffer to append to, not null.
+     */
+    public void unescape( CharSequence text, int start, int end, StringBuilder out )
+    {
+        int copied = start;
+        int i = start;
+
+        while ( i < end )
+        {
+            if ( text.charAt( i ) != '&' )
+            {
+                i++;
+                continue;
+            }
+
+            int semicolon = indexOfSemicolon( text, i + 1, end );
+            if ( semicolon < 0 )
+            {
+                i++;
+                continue;
+            }
+
+            if ( text.charAt( i + 1 ) == '#' )
+            {
+                int codePoint = parseCodePoint( text, i + 2, semicolon );
+                if ( codePoint >= 0 )
+                {
+                    out.append( text, copied, i ).appendCodePoint( codePoint );
+                    copied = semicolon + 1;
+                }
+            }
+            else
+            {
+                String value = lookup( text, i + 1, semicolon );
+                if ( value != null )
+                {
+                    out.append( text, copied, i ).append( value );
+                    copied = semicolon + 1;
+                }
+            }
+
+            // an unknown reference is copied as is, its content is not scanned again
+            i = copied > i ? copied : i + 1;
+        }
+
+        out.append( text, copied, end );
+    }
+
+    /**
+     * @return the index of the semicolon closing a reference starting at <code>from</code>,
+     * -1 if there is none within the length of the longest reference, so that each ampersand costs
+     * a bounded number of steps.
+     */
+    private int indexOfSemicolon( CharSequence text, int from, int end )
+    {
+        // "#x10FFFF" is the longest numeric reference
+        int limit = Math.min( end, from + Math.max( maxLength, 8 ) + 1 );
+
+        for ( int i = from; i < limit; i++ )
+        {
+            char c = text.charAt( i );
+            if ( c == ';' )
+            {
+                return i;
+            }
+            if ( c == '&' )
+            {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    private String lookup( CharSequence text, int start, int end )
+    {
+        int length = end - start;
+        if ( length == 0 || length > maxLength )
+        {
+            return null;
+        }
+
+        int i = hash( text, start, end ) & mask;
+        for ( String name = names[i]; name != null; name = names[i] )
+        {
+            if ( name.length() == length && regionMatches( name, text, start ) )
+            {
+                return values[i];
+            }
+            i = ( i + 1 ) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the code point of a numeric reference, -1 if the digits are invalid or the code point out of range.
+     */
+    private static int parseCodePoint( CharSequence text, int start, int end )
+    {
+        int radix = 10;
+        if ( start < end && ( text.charAt( start ) == 'x' || text.charAt( start ) == 'X' ) )
+        {
+            radix = 16;
+            start++;
+        }
+
+        if ( start == end )
+        {
+            return -1;
+        }
+
+        int codePoint = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            int digit = Character.digit( text.charAt( i ), radix );
+            if ( digit < 0 )
+            {
+                return -1;
+            }
+
+            codePoint = codePoint * radix + digit;
+            if ( codePoint > Character.MAX_CODE_POINT )
+            {
+                return -1;
+            }
+        }
+
+        return codePoint;
+    }
+
+    private static boolean regionMatches( String name, CharSequence text, int start )
+    {
+        for ( int i = 0; i < name.length(); i++ )
+        {
+            if ( name.charAt( i ) != text.charAt( start + i ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash( CharSequence s, int start, int end )
+    {
+        int h = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            h = 31 * h + s.charAt( i );
+        }
+
+        // spread the high bits, as the table is indexed with the low ones
+        return h ^ ( h >>> 16 );
+    }
+}
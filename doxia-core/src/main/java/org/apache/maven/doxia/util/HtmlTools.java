@@ -19,17 +19,12 @@ package org.apache.maven.doxia.util;
  * under the License.
  */
 
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import javax.swing.text.html.HTML.Tag;
 
-import org.apache.commons.text.StringEscapeUtils;
 import org.apache.maven.doxia.markup.HtmlMarkup;
-import org.codehaus.plexus.util.StringUtils;
 
 /**
  * The <code>HtmlTools</code> class defines methods to HTML handling.
@@ -227,9 +222,11 @@ public class HtmlTools
      * &#38;#x1d7ed; = \uD835\uDFED
      * </pre>
      *
+     * The text is unescaped in a single pass by an {@link EntityUnescaper}.
+     *
      * @param text the <code>String</code> to unescape, may be null.
      * @param xmlMode set to <code>true</code> to replace &#38;apos by '.
-     * @return a new unescaped <code>String</code>, <code>null</code> if null string input.
+     * @return the unescaped <code>String</code>, <code>null</code> if null string input.
      * @since 1.1.1.
      */
     public static String unescapeHTML( String text, boolean xmlMode )
@@ -239,50 +236,7 @@ public class HtmlTools
             return null;
         }
 
-        String unescaped;
-        if ( xmlMode )
-        {
-            unescaped = StringEscapeUtils.unescapeXml( text );
-        }
-        else
-        {
-            // StringEscapeUtils.unescapeHtml4 returns entities it doesn't recognize unchanged
-            unescaped = StringEscapeUtils.unescapeHtml4( text );
-        }
-
-        String tmp = unescaped;
-        List<String> entities = new ArrayList<>();
-        while ( true )
-        {
-            int i = tmp.indexOf( "&#x" );
-            if ( i == -1 )
-            {
-                break;
-            }
-
-            tmp = tmp.substring( i + 3 );
-            if ( tmp.indexOf( ';' ) != -1 )
-            {
-                String entity = tmp.substring( 0, tmp.indexOf( ';' ) );
-                try
-                {
-                    Integer.parseInt( entity, 16 );
-                    entities.add( entity );
-                }
-                catch ( NumberFormatException e )
-                {
-                    // nop
-                }
-            }
-        }
-
-        for ( String entity : entities )
-        {
-            int codePoint = Integer.parseInt( entity, 16 );
-            unescaped = StringUtils.replace( unescaped, "&#x" + entity + ";", new String( toChars( codePoint ) ) );
-        }
-
-        return unescaped;
+        return ( xmlMode ? EntityUnescaper.XML : EntityUnescaper.HTML4 ).unescape( text );
     }
 
     /**
@@ -298,11 +252,9 @@ public class HtmlTools
             return null;
         }
 
-        StringBuilder encoded = new StringBuilder();
+        StringBuilder encoded = new StringBuilder( url.length() + 16 );
         int length = url.length();
 
-        char[] unicode = new char[1];
-
         for ( int i = 0; i < length; ++i )
         {
             char c = url.charAt( i );
@@ -340,25 +292,14 @@ public class HtmlTools
                     }
                     else
                     {
-                        byte[] bytes;
+                        int codePoint = c;
 
                         if ( isHighSurrogate( c ) )
                         {
-                            int codePoint = toCodePoint( c, url.charAt( ++i ) );
-                            unicode = toChars( codePoint );
-                            bytes = ( new String( unicode, 0, unicode.length ) ).getBytes( StandardCharsets.UTF_8 );
-                        }
-                        else
-                        {
-                            unicode[0] = c;
-                            bytes = ( new String( unicode, 0, 1 ) ).getBytes( StandardCharsets.UTF_8 );
+                            codePoint = toCodePoint( c, url.charAt( ++i ) );
                         }
 
-                        for ( byte aByte : bytes )
-                        {
-                            encoded.append( '%' );
-                            encoded.append( String.format( "%02X", aByte ) );
-                        }
+                        DoxiaUtils.appendUtf8Escaped( encoded, '%', codePoint );
                     }
             }
         }
@@ -0,0 +1,129 @@
+package org.apache.maven.doxia.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes ids for a single document, remembering the ids already computed.
+ * <p>
+ * Section titles, anchors and links to them repeatedly encode the same names within a document:
+ * {@link #encodeId(String)} returns the same result as {@link DoxiaUtils#encodeId(String, boolean)}
+ * but computes it once per name. {@link #uniqueId(String)} additionally makes sure that a given id is
+ * handed out only once, by appending <code>_2</code>, <code>_3</code>... to duplicates.
+ * <p>
+ * Instances are meant to be used for one document at a time, and are not thread-safe.
+ *
+ * @since 2.0.0
+ */
+public class IdEncoder
+{
+    /** Whether non-ASCII characters are dropped. */
+    private final boolean chop;
+
+    /** The encoded ids, by name. */
+    private final Map<String, String> ids = new HashMap<>();
+
+    /** The ids returned by uniqueId. */
+    private final Set<String> usedIds = new HashSet<>();
+
+    /**
+     * Constructs an encoder replacing non-ASCII characters, see {@link DoxiaUtils#encodeId(String)}.
+     */
+    public IdEncoder()
+    {
+        this( false );
+    }
+
+    /**
+     * Constructs an encoder.
+     *
+     * @param chop true if non-ASCII characters should be dropped, see {@link DoxiaUtils#encodeId(String, boolean)}.
+     */
+    public IdEncoder( boolean chop )
+    {
+        this.chop = chop;
+    }
+
+    /**
+     * Construct a valid Doxia id.
+     *
+     * @param name The name to be encoded. May be null in which case null is returned.
+     * @return The encoded id, the same as {@link DoxiaUtils#encodeId(String, boolean)}.
+     */
+    public String encodeId( String name )
+    {
+        if ( name == null )
+        {
+            return null;
+        }
+
+        String id = ids.get( name );
+
+        if ( id == null )
+        {
+            id = DoxiaUtils.encodeId( name, chop );
+            ids.put( name, id );
+        }
+
+        return id;
+    }
+
+    /**
+     * Construct a valid Doxia id which has not been returned yet by this method.
+     * The first occurrence of a name gets the same id as {@link #encodeId(String)}, next ones
+     * get a <code>_2</code>, <code>_3</code>... suffix.
+     *
+     * @param name The name to be encoded. May be null in which case null is returned.
+     * @return A valid id, unique for this encoder.
+     */
+    public String uniqueId( String name )
+    {
+        String id = encodeId( name );
+
+        if ( id == null || usedIds.add( id ) )
+        {
+            return id;
+        }
+
+        int n = 2;
+        String candidate;
+
+        do
+        {
+            candidate = id + '_' + n++;
+        }
+        while ( !usedIds.add( candidate ) );
+
+        return candidate;
+    }
+
+    /**
+     * Forgets all ids, to start a new document.
+     */
+    public void reset()
+    {
+        ids.clear();
+        usedIds.clear();
+    }
+}
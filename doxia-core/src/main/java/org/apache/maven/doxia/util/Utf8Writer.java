@@ -0,0 +1,418 @@
+package org.apache.maven.doxia.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A <code>Writer</code> encoding characters as <code>UTF-8</code> directly into a byte buffer,
+ * which is written to the underlying stream in large chunks.
+ * <p>
+ * Markup output is mostly ASCII, which is copied byte per char without going through a
+ * <code>CharsetEncoder</code>. Unpaired surrogates are replaced by <code>'?'</code>, like
+ * <code>OutputStreamWriter</code> does. Byte buffers are recycled through a small shared pool
+ * once the writer is closed.
+ * <p>
+ * Unlike <code>OutputStreamWriter</code>, this writer is not synchronized: it is meant to be
+ * used by a single sink at a time. Any <code>IOException</code> raised by the underlying stream
+ * is thrown to the caller, and thrown again by any later call.
+ *
+ * @since 2.0.0
+ */
+public class Utf8Writer
+    extends Writer
+{
+    /** The size of the byte buffer. */
+    static final int BUFFER_SIZE = 16 * 1024;
+
+    /** The maximal number of idle buffers kept in the pool. */
+    private static final int POOL_SIZE = 16;
+
+    /** Idle byte buffers. */
+    private static final BlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>( POOL_SIZE );
+
+    /** The size of the chunks copied out of a <code>String</code>. */
+    private static final int CHUNK_SIZE = 1024;
+
+    private final OutputStream out;
+
+    private byte[] buffer;
+
+    private int count;
+
+    /** A high surrogate waiting for its low surrogate, or 0. */
+    private char pendingHighSurrogate;
+
+    /** Scratch chars for <code>write( String, int, int )</code>, lazily allocated. */
+    private char[] chunk;
+
+    /** The first error raised by the underlying stream. */
+    private IOException failure;
+
+    private boolean closed;
+
+    /**
+     * Constructs a new writer.
+     *
+     * @param out the stream to write the encoded bytes to, not null.
+     */
+    public Utf8Writer( OutputStream out )
+    {
+        this.out = Objects.requireNonNull( out, "out cannot be null" );
+        this.buffer = acquireBuffer();
+    }
+
+    /**
+     * Tells whether an encoding is handled by this writer.
+     *
+     * @param encoding an encoding name, may be null.
+     * @return <code>true</code> if the encoding is an alias of <code>UTF-8</code>.
+     */
+    public static boolean isUtf8( String encoding )
+    {
+        if ( encoding == null )
+        {
+            return false;
+        }
+
+        if ( "UTF-8".equalsIgnoreCase( encoding ) || "UTF8".equalsIgnoreCase( encoding ) )
+        {
+            return true;
+        }
+
+        try
+        {
+            return StandardCharsets.UTF_8.equals( Charset.forName( encoding ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            return false;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write( int c )
+        throws IOException
+    {
+        ensureOpen();
+
+        if ( c < 0x80 && pendingHighSurrogate == 0 )
+        {
+            if ( count == buffer.length )
+            {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) c;
+        }
+        else
+        {
+            encode( (char) c );
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write( char[] cbuf, int off, int len )
+        throws IOException
+    {
+        ensureOpen();
+
+        if ( off < 0 || len < 0 || off > cbuf.length - len )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final byte[] bytes = buffer;
+        final int end = off + len;
+        int i = off;
+
+        while ( i < end )
+        {
+            char c = cbuf[i];
+
+            if ( c < 0x80 && pendingHighSurrogate == 0 )
+            {
+                // fast path: copy a run of ASCII chars, as much as the buffer can take
+                if ( count == bytes.length )
+                {
+                    flushBuffer();
+                }
+
+                int stop = Math.min( end, i + bytes.length - count );
+                int n = count;
+
+                while ( i < stop && ( c = cbuf[i] ) < 0x80 )
+                {
+                    bytes[n++] = (byte) c;
+                    i++;
+                }
+
+                count = n;
+            }
+            else
+            {
+                encode( c );
+                i++;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write( String str, int off, int len )
+        throws IOException
+    {
+        ensureOpen();
+
+        if ( off < 0 || len < 0 || off > str.length() - len )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if ( chunk == null )
+        {
+            chunk = new char[CHUNK_SIZE];
+        }
+
+        int end = off + len;
+
+        while ( off < end )
+        {
+            int n = Math.min( CHUNK_SIZE, end - off );
+            str.getChars( off, off + n, chunk, 0 );
+            write( chunk, 0, n );
+            off += n;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Writer append( CharSequence csq )
+        throws IOException
+    {
+        String s = String.valueOf( csq );
+        write( s, 0, s.length() );
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush()
+        throws IOException
+    {
+        ensureOpen();
+
+        flushBuffer();
+
+        try
+        {
+            out.flush();
+        }
+        catch ( IOException e )
+        {
+            throw fail( e );
+        }
+    }
+
+    /**
+     * Writes the pending bytes, closes the underlying stream and returns the buffer to the pool.
+     * A trailing unpaired high surrogate is written as <code>'?'</code>.
+     *
+     * @throws IOException if the pending bytes cannot be written or the stream cannot be closed.
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+
+        try
+        {
+            if ( failure == null )
+            {
+                if ( pendingHighSurrogate != 0 )
+                {
+                    pendingHighSurrogate = 0;
+                    ensureCapacity( 1 );
+                    buffer[count++] = '?';
+                }
+                flushBuffer();
+            }
+        }
+        finally
+        {
+            closed = true;
+            releaseBuffer( buffer );
+            buffer = null;
+
+            try
+            {
+                out.close();
+            }
+            catch ( IOException e )
+            {
+                if ( failure == null )
+                {
+                    failure = e;
+                }
+            }
+        }
+
+        if ( failure != null )
+        {
+            throw failure;
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Private methods
+    // ----------------------------------------------------------------------
+
+    /**
+     * Encodes a single char, taking care of a pending high surrogate.
+     */
+    private void encode( char c )
+        throws IOException
+    {
+        // at most an unpaired '?' followed by a 3 bytes char
+        ensureCapacity( 4 );
+
+        final byte[] bytes = buffer;
+
+        if ( pendingHighSurrogate != 0 )
+        {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+
+            if ( Character.isLowSurrogate( c ) )
+            {
+                int cp = Character.toCodePoint( high, c );
+                bytes[count++] = (byte) ( 0xF0 | ( cp >> 18 ) );
+                bytes[count++] = (byte) ( 0x80 | ( ( cp >> 12 ) & 0x3F ) );
+                bytes[count++] = (byte) ( 0x80 | ( ( cp >> 6 ) & 0x3F ) );
+                bytes[count++] = (byte) ( 0x80 | ( cp & 0x3F ) );
+                return;
+            }
+
+            bytes[count++] = '?';
+        }
+
+        if ( c < 0x80 )
+        {
+            bytes[count++] = (byte) c;
+        }
+        else if ( c < 0x800 )
+        {
+            bytes[count++] = (byte) ( 0xC0 | ( c >> 6 ) );
+            bytes[count++] = (byte) ( 0x80 | ( c & 0x3F ) );
+        }
+        else if ( Character.isHighSurrogate( c ) )
+        {
+            pendingHighSurrogate = c;
+        }
+        else if ( Character.isLowSurrogate( c ) )
+        {
+            bytes[count++] = '?';
+        }
+        else
+        {
+            bytes[count++] = (byte) ( 0xE0 | ( c >> 12 ) );
+            bytes[count++] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+            bytes[count++] = (byte) ( 0x80 | ( c & 0x3F ) );
+        }
+    }
+
+    private void ensureCapacity( int n )
+        throws IOException
+    {
+        if ( count + n > buffer.length )
+        {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer()
+        throws IOException
+    {
+        if ( count > 0 )
+        {
+            try
+            {
+                out.write( buffer, 0, count );
+            }
+            catch ( IOException e )
+            {
+                throw fail( e );
+            }
+            finally
+            {
+                count = 0;
+            }
+        }
+    }
+
+    private IOException fail( IOException e )
+    {
+        if ( failure == null )
+        {
+            failure = e;
+        }
+        return e;
+    }
+
+    private void ensureOpen()
+        throws IOException
+    {
+        if ( failure != null )
+        {
+            throw failure;
+        }
+
+        if ( closed )
+        {
+            throw new IOException( "Writer closed" );
+        }
+    }
+
+    private static byte[] acquireBuffer()
+    {
+        byte[] b = POOL.poll();
+        return ( b != null ) ? b : new byte[BUFFER_SIZE];
+    }
+
+    private static void releaseBuffer( byte[] b )
+    {
+        if ( b != null )
+        {
+            POOL.offer( b );
+        }
+    }
+}
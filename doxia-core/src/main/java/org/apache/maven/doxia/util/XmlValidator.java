@@ -32,6 +32,7 @@ import org.apache.maven.doxia.parser.AbstractXmlParser.CachedFileEntityResolver;
 import org.apache.maven.doxia.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
@@ -60,6 +61,25 @@ public class XmlValidator
     /** lazy xmlReader to validate xml content*/
     private XMLReader xmlReader;
 
+    private final EntityResolver entityResolver;
+
+    /**
+     * Constructs a validator resolving the entities with a {@link CachedFileEntityResolver}.
+     */
+    public XmlValidator()
+    {
+        this( new CachedFileEntityResolver() );
+    }
+
+    /**
+     * @param entityResolver the resolver of the entities, not null.
+     * @since 2.0.0
+     */
+    public XmlValidator( EntityResolver entityResolver )
+    {
+        this.entityResolver = entityResolver;
+    }
+
     /**
      * Validate an XML content with SAX.
      *
@@ -117,7 +137,7 @@ public class XmlValidator
             xmlReader.setFeature( "http://xml.org/sax/features/validation", true );
             xmlReader.setFeature( "http://apache.org/xml/features/validation/schema", true );
             xmlReader.setErrorHandler( errorHandler );
-            xmlReader.setEntityResolver( new CachedFileEntityResolver() );
+            xmlReader.setEntityResolver( entityResolver );
         }
 
         ( (MessagesErrorHandler) xmlReader.getErrorHandler() ).setHasDtdAndXsd( hasDtdAndXsd );
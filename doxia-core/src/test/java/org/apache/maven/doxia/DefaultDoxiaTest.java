@@ -19,13 +19,18 @@ package org.apache.maven.doxia;
  * under the License.
  */
 
+import java.io.StringReader;
+
 import javax.inject.Inject;
 
+import org.apache.maven.doxia.parser.Xhtml5BaseParser;
 import org.apache.maven.doxia.parser.manager.ParserNotFoundException;
+import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
 import org.codehaus.plexus.testing.PlexusTest;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -54,4 +59,16 @@ public class DefaultDoxiaTest
         assertEquals( "Cannot find parser with id = " + parserId, e.getMessage() );
     }
 
+    @Test
+    public void testParseHeadRestoresParser() throws Exception
+    {
+        final Xhtml5BaseParser parser = new Xhtml5BaseParser();
+        final DefaultDoxia defaultDoxia = new DefaultDoxia( id -> parser );
+
+        defaultDoxia.parseHead( new StringReader( "<div><p>text</p></div>" ), "xhtml5", new SinkEventTestingSink(),
+                                null );
+
+        assertFalse( parser.isHeadOnly() );
+    }
+
 }
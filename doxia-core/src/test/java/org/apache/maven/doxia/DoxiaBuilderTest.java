@@ -0,0 +1,138 @@
+package org.apache.maven.doxia;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.inject.Named;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.HashMap;
+
+import org.apache.maven.doxia.macro.EchoMacro;
+import org.apache.maven.doxia.macro.MacroExecutionException;
+import org.apache.maven.doxia.macro.MacroRequest;
+import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
+import org.apache.maven.doxia.parser.AbstractTextParser;
+import org.apache.maven.doxia.parser.ParseException;
+import org.apache.maven.doxia.parser.manager.ParserNotFoundException;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkFactory;
+import org.apache.maven.doxia.sink.impl.AbstractTextSinkFactory;
+import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
+import org.apache.maven.doxia.sink.impl.TextSink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the wiring of Doxia without container.
+ */
+public class DoxiaBuilderTest
+{
+    private static final String INDEX = "org/apache/maven/doxia/doxia-builder.index";
+
+    @Test
+    public void testExplicitComponents()
+        throws Exception
+    {
+        SinkFactory sinkFactory = new AbstractTextSinkFactory()
+        {
+            protected Sink createSink( Writer writer, String encoding )
+            {
+                return new TextSink( writer );
+            }
+        };
+
+        StandaloneDoxia doxia = Doxia.builder()
+            .parser( "test", EchoParser::new )
+            .macro( "echo", new EchoMacro() )
+            .sinkFactory( "text", sinkFactory )
+            .build();
+
+        assertSame( sinkFactory, doxia.getSinkFactory( "text" ) );
+        assertThrows( IllegalArgumentException.class, () -> doxia.getSinkFactory( "xhtml5" ) );
+        assertThrows( ParserNotFoundException.class, () -> doxia.getParser( "xdoc" ) );
+
+        assertEcho( doxia, "test" );
+    }
+
+    @Test
+    public void testIndex()
+        throws Exception
+    {
+        StandaloneDoxia doxia = Doxia.builder().index( getClass().getClassLoader(), INDEX ).build();
+
+        assertNotSame( doxia.getParser( "echo-test" ), doxia.getParser( "echo-test" ) );
+        assertTrue( doxia.getMacroManager().getMacro( "echo" ) instanceof EchoMacro );
+        assertSame( doxia.getMacroManager().getMacro( "echo" ), doxia.getMacroManager().getMacro( "echo" ) );
+
+        assertEcho( doxia, "echo-test" );
+    }
+
+    @Test
+    public void testExplicitOverridesIndex()
+        throws Exception
+    {
+        EchoMacro macro = new EchoMacro();
+
+        StandaloneDoxia doxia = Doxia.builder()
+            .macro( "echo", macro )
+            .index( getClass().getClassLoader(), INDEX )
+            .build();
+
+        assertSame( macro, doxia.getMacroManager().getMacro( "echo" ) );
+    }
+
+    private static void assertEcho( Doxia doxia, String parserId )
+        throws Exception
+    {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        doxia.parse( new StringReader( "" ), parserId, sink );
+
+        assertEquals( "verbatim", sink.getEventList().get( 0 ).getName() );
+        assertEquals( "text", sink.getEventList().get( 1 ).getName() );
+        assertEquals( "verbatim_", sink.getEventList().get( 2 ).getName() );
+    }
+
+    /**
+     * Executes the echo macro, looked up from the macro manager given by the builder.
+     */
+    @Named( "echo-test" )
+    public static class EchoParser
+        extends AbstractTextParser
+    {
+        @Override
+        public void parse( Reader source, Sink sink, String reference )
+            throws ParseException
+        {
+            try
+            {
+                executeMacro( "echo", new MacroRequest( null, this, new HashMap<>(), new File( "." ) ), sink );
+            }
+            catch ( MacroExecutionException | MacroNotFoundException e )
+            {
+                throw new ParseException( "Macro execution failed", e );
+            }
+        }
+    }
+}
@@ -19,6 +19,9 @@ package org.apache.maven.doxia.index;
  * under the License.
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -62,6 +65,15 @@ public class IndexEntryTest
 
         chapter2.setTitle( "Title 2" );
         assertTrue( chapter2.toString().contains( "Title 2" ) );
+
+        // -----------------------------------------------------------------------
+        // Reordered children
+        // -----------------------------------------------------------------------
+
+        root.setChildEntries( new ArrayList<>( Arrays.asList( chapter2, chapter1 ) ) );
+
+        assertIndexEntry( chapter2, root, 0, null, chapter1 );
+        assertIndexEntry( chapter1, root, 0, chapter2, null );
     }
 
     private void assertIndexEntry( IndexEntry entry, IndexEntry parent, int childCount,
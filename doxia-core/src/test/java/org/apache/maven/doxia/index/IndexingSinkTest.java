@@ -0,0 +1,76 @@
+package org.apache.maven.doxia.index;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test IndexingSink.
+ */
+public class IndexingSinkTest
+{
+    @Test
+    public void testSectionTitleAccumulation()
+    {
+        IndexEntry root = new IndexEntry( "index" );
+        IndexingSink sink = new IndexingSink( root );
+
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text( "Section " );
+        sink.text( "One\r\n" );
+        sink.text( " continued" );
+        sink.sectionTitle1_();
+        sink.section2();
+        sink.sectionTitle2();
+        sink.text( "Sub" );
+        sink.sectionTitle2_();
+        sink.section2_();
+        sink.section1_();
+
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text( "Section One continued" );
+        sink.sectionTitle1_();
+        sink.section1_();
+        sink.close();
+
+        assertEquals( 2, root.getChildEntries().size() );
+
+        IndexEntry first = root.getFirstEntry();
+        assertEquals( "Section One continued", first.getTitle() );
+        assertEquals( "Section_One_continued", first.getId() );
+        assertEquals( "Sub", first.getFirstEntry().getTitle() );
+
+        IndexEntry second = first.getNextEntry();
+        assertSame( root.getLastEntry(), second );
+        assertSame( first, second.getPrevEntry() );
+        assertNull( second.getNextEntry() );
+
+        // first entry wins for duplicate ids
+        assertSame( first, sink.getEntryById( "Section_One_continued" ) );
+        assertSame( first.getFirstEntry(), sink.getEntryById( "Sub" ) );
+        assertNull( sink.getEntryById( "unknown" ) );
+    }
+}
@@ -0,0 +1,232 @@
+package org.apache.maven.doxia.macro;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.doxia.macro.manager.MacroManager;
+import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
+import org.apache.maven.doxia.parser.AbstractTextParser;
+import org.apache.maven.doxia.parser.ParseException;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkFactory;
+import org.apache.maven.doxia.sink.impl.AbstractXmlSinkFactory;
+import org.apache.maven.doxia.sink.impl.RandomAccessSink;
+import org.apache.maven.doxia.sink.impl.TextSink;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the execution of asynchronous macros by the parsers.
+ */
+public class AsyncMacroTest
+{
+    private final SinkFactory factory = new AbstractXmlSinkFactory()
+    {
+        protected Sink createSink( Writer writer, String encoding, String languageId )
+        {
+            return new TextSink( writer );
+        }
+
+        protected Sink createSink( Writer writer, String encoding )
+        {
+            return new TextSink( writer );
+        }
+    };
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /** Counted down by the second macro, awaited by the first one. */
+    private final CountDownLatch secondStarted = new CountDownLatch( 1 );
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The first macro completes only once the second one has started: the parser must not wait for it
+     * before going on with the document, and its output must stay at its position.
+     */
+    @Test
+    public void testConcurrentMacros()
+        throws Exception
+    {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Sink flatSink = factory.createSink( expected, "UTF-8" );
+        emitDocument( flatSink, "first", "second" );
+        flatSink.flush();
+        flatSink.close();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        RandomAccessSink randomAccessSink = new RandomAccessSink( factory, actual, "UTF-8" );
+        new MacroParser().parse( new StringReader( "" ), randomAccessSink );
+        randomAccessSink.flush();
+        randomAccessSink.close();
+
+        assertEquals( expected.toString( "UTF-8" ), actual.toString( "UTF-8" ) );
+    }
+
+    @Test
+    public void testFailure()
+    {
+        MacroParser parser = new MacroParser()
+        {
+            @Override
+            protected MacroManager getMacroManager()
+            {
+                return id -> new AsyncTextMacro( id )
+                {
+                    @Override
+                    protected void render( Sink sink )
+                        throws MacroExecutionException
+                    {
+                        throw new MacroExecutionException( "failed " + id );
+                    }
+                };
+            }
+        };
+
+        ParseException e = assertThrows( ParseException.class,
+            () -> parser.parse( new StringReader( "" ), new RandomAccessSink( factory, new ByteArrayOutputStream() ) ) );
+        assertEquals( "failed first", e.getCause().getMessage() );
+    }
+
+    private static void emitDocument( Sink sink, String first, String second )
+    {
+        sink.paragraph();
+        sink.text( "before" );
+        sink.text( first );
+        sink.text( "middle" );
+        sink.text( second );
+        sink.text( "after" );
+        sink.paragraph_();
+    }
+
+    /**
+     * Emits the document of {@link #emitDocument(Sink, String, String)}, with the text of the macros
+     * executed in between.
+     */
+    private class MacroParser
+        extends AbstractTextParser
+    {
+        @Override
+        protected MacroManager getMacroManager()
+        {
+            return AsyncTextMacro::new;
+        }
+
+        @Override
+        public void parse( Reader source, Sink sink, String reference )
+            throws ParseException
+        {
+            try
+            {
+                Sink target = startDocument( sink );
+
+                target.paragraph();
+                target.text( "before" );
+                executeMacro( "first", createRequest(), target );
+                target.text( "middle" );
+                executeMacro( "second", createRequest(), target );
+                target.text( "after" );
+                target.paragraph_();
+
+                awaitMacros();
+            }
+            catch ( MacroExecutionException | MacroNotFoundException e )
+            {
+                throw new ParseException( "Macro execution failed", e );
+            }
+            finally
+            {
+                init();
+            }
+        }
+
+        private MacroRequest createRequest()
+        {
+            return new MacroRequest( null, this, new HashMap<>(), new File( "." ) );
+        }
+    }
+
+    /**
+     * Emits its id as text in the background, the first macro waiting for the second one to start.
+     */
+    private class AsyncTextMacro
+        implements AsyncMacro
+    {
+        private final String id;
+
+        AsyncTextMacro( String id )
+        {
+            this.id = id;
+        }
+
+        @Override
+        public CompletableFuture<Void> executeAsync( Sink sink, MacroRequest request )
+        {
+            if ( "second".equals( id ) )
+            {
+                secondStarted.countDown();
+            }
+
+            CompletableFuture<Void> execution = new CompletableFuture<>();
+            executor.execute( () ->
+            {
+                try
+                {
+                    if ( "first".equals( id ) && !secondStarted.await( 10, TimeUnit.SECONDS ) )
+                    {
+                        throw new MacroExecutionException( "the second macro was not started" );
+                    }
+                    render( sink );
+                    execution.complete( null );
+                }
+                catch ( Exception e )
+                {
+                    execution.completeExceptionally( e );
+                }
+            } );
+            return execution;
+        }
+
+        protected void render( Sink sink )
+            throws MacroExecutionException
+        {
+            sink.text( id );
+        }
+    }
+}
@@ -22,10 +22,14 @@ package org.apache.maven.doxia.macro.snippet;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
+import org.apache.maven.doxia.parser.Dependency;
+import org.apache.maven.doxia.parser.DependencyRecorder;
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.Xhtml5BaseParser;
 import org.apache.maven.doxia.sink.impl.SinkEventElement;
 import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
@@ -37,6 +41,7 @@ import static org.codehaus.plexus.testing.PlexusExtension.getBasedir;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -157,6 +162,27 @@ public class SnippetMacroTest
         assertThat( snippet, CoreMatchers.containsString( "Error during retrieving content" ) );
     }
 
+    @Test
+    public void testRecordDependencies()
+        throws Exception
+    {
+        Map<String, Object> macroParameters = new HashMap<>();
+        macroParameters.put( "file", "src/test/resources/macro/snippet/testSnippet.txt" );
+        macroParameters.put( "encoding", "UTF-8" );
+        macroParameters.put( "id", "firstId" );
+
+        DependencyRecorder recorder = new DependencyRecorder();
+        ParseContext context = new ParseContext( new File( getBasedir() ) ).withDependencyRecorder( recorder );
+        MacroRequest request = new MacroRequest( null, new Xhtml5BaseParser(), macroParameters, context );
+        new SnippetMacro().execute( new SinkEventTestingSink(), request );
+
+        List<Dependency> dependencies = recorder.getDependencies();
+        assertEquals( 1, dependencies.size() );
+        assertEquals( new File( getBasedir(), "src/test/resources/macro/snippet/testSnippet.txt" ).toURI().toURL()
+                          .toString(), dependencies.get( 0 ).getLocation() );
+        assertNotNull( dependencies.get( 0 ).getFingerprint() );
+    }
+
     private SinkEventTestingSink executeSnippetMacro( Map<String, Object> macroParameters )
         throws MacroExecutionException
     {
@@ -0,0 +1,399 @@
+package org.apache.maven.doxia.module;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.doxia.AbstractModuleTest;
+import org.apache.maven.doxia.parser.ParseException;
+import org.apache.maven.doxia.parser.Parser;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.SinkEventDiff;
+import org.apache.maven.doxia.sink.impl.SinkEventElement;
+import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
+import org.apache.maven.doxia.sink.impl.SinkTestDocument;
+import org.apache.maven.doxia.xsd.AbstractXmlValidatorTest;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.SelectorUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * If a module provides both Parser and Sink, this class checks that every test document
+ * survives a round trip: the events emitted by parsing a document are compared with the events
+ * emitted by parsing the output of the module Sink for that same document.
+ * <p>
+ * Contrary to {@link AbstractIdentityTest}, the comparison is done at the event level with
+ * {@link SinkEventDiff}, so that a failure points to the first differing event, and the documents are
+ * processed in parallel. Besides the test resources of the module, the documents of the
+ * <code>doxia-test-docs</code> artifact matching {@link #getCorpusIncludes()} are checked too.
+ * <p>
+ * The time spent in each phase is written to <code>roundtrip-timings.txt</code>, and a document whose round trip
+ * takes longer than {@link #getMaxRoundTripMillis()} fails the test.
+ *
+ * @since 2.0.0
+ */
+public abstract class AbstractRoundTripTest
+    extends AbstractModuleTest
+{
+    /**
+     * Set to false if the differences should only be written to <code>roundtrip-diff.txt</code>, but not asserted.
+     */
+    private boolean assertRoundTrip = true;
+
+    /**
+     * The system property to override the default of {@link #getMaxRoundTripMillis()}.
+     */
+    protected static final String MAX_MILLIS_PROPERTY = "doxia.roundtrip.maxMillis";
+
+    /**
+     * Create a new instance of the parser to test. Called once per document and phase,
+     * the returned parser is not shared between threads.
+     *
+     * @return the parser to test.
+     */
+    protected abstract Parser createParser();
+
+    /**
+     * Return a new instance of the sink that is being tested.
+     *
+     * @param writer The writer for the sink.
+     * @return A new sink.
+     */
+    protected abstract Sink createSink( Writer writer );
+
+    /**
+     * The names of the test resources, without the {@link #outputExtension()}, to check besides the model
+     * generated by {@link SinkTestDocument}. Empty by default.
+     *
+     * @return the resource names.
+     */
+    protected String[] getRoundTripResources()
+    {
+        return new String[0];
+    }
+
+    /**
+     * The patterns of the <code>doxia-test-docs</code> documents to check, matched against the path of the
+     * documents in lower case, e.g. <code>**&#47;xdoc/*.xml</code>. A document is included if it matches any
+     * pattern. Null by default, i.e. the corpus is not used.
+     *
+     * @return the include patterns, or null.
+     */
+    protected String[] getCorpusIncludes()
+    {
+        return null;
+    }
+
+    /**
+     * The patterns of the <code>doxia-test-docs</code> documents, among the ones included by
+     * {@link #getCorpusIncludes()}, that are not checked because the Sink rewrites them by design.
+     * Empty by default.
+     *
+     * @return the exclude patterns.
+     */
+    protected String[] getCorpusExcludes()
+    {
+        return new String[0];
+    }
+
+    /**
+     * Emits the model which is rendered by the Sink to obtain the first document to check.
+     * By default, this is {@link SinkTestDocument}.
+     *
+     * @param sink the sink to receive the events.
+     */
+    protected void generateModel( Sink sink )
+    {
+        SinkTestDocument.generate( sink );
+    }
+
+    /**
+     * The maximum time, in milliseconds, that the parse, render and reparse of a single document may take together.
+     * Defaults to the <code>doxia.roundtrip.maxMillis</code> system property, or 10 seconds. This is a guard against
+     * pathological slowdowns, not a benchmark: it is deliberately generous to not fail on a loaded build machine.
+     *
+     * @return the maximum time of the round trip of one document.
+     */
+    protected long getMaxRoundTripMillis()
+    {
+        return Long.getLong( MAX_MILLIS_PROPERTY, 10000L );
+    }
+
+    /**
+     * The names of the attributes added by the Sink, that are ignored when comparing the events.
+     * Empty by default.
+     *
+     * @return the ignored attribute names.
+     */
+    protected Set<String> getIgnoredAttributes()
+    {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Checks the round trip of all the documents, and fails with the first difference of every failing document.
+     * The differences are always written to <code>roundtrip-diff.txt</code>.
+     *
+     * @throws Exception if a document cannot be read or parsed.
+     */
+    @Test
+    public void testRoundTrip()
+        throws Exception
+    {
+        Map<String, String> documents = getDocuments();
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min( documents.size(), Runtime.getRuntime().availableProcessors() ) );
+
+        Map<String, Future<Result>> results = new LinkedHashMap<>();
+        try
+        {
+            for ( Map.Entry<String, String> document : documents.entrySet() )
+            {
+                results.put( document.getKey(), executor.submit( () -> roundTrip( document.getValue() ) ) );
+            }
+
+            StringBuilder failures = new StringBuilder();
+            StringBuilder slowDocuments = new StringBuilder();
+            long maxMillis = getMaxRoundTripMillis();
+            try ( Writer timings = getTestWriter( "roundtrip-timings", "txt" ) )
+            {
+                timings.write( "document\tparse (ms)\trender (ms)\treparse (ms)" + EOL );
+
+                for ( Map.Entry<String, Future<Result>> entry : results.entrySet() )
+                {
+                    Result result;
+                    try
+                    {
+                        result = get( entry.getValue() );
+                    }
+                    catch ( ParseException e )
+                    {
+                        failures.append( entry.getKey() ).append( ": " ).append( e.getMessage() ).append( EOL );
+                        continue;
+                    }
+
+                    timings.write( entry.getKey() + '\t' + result.parseMillis() + '\t' + result.renderMillis()
+                        + '\t' + result.reparseMillis() + EOL );
+
+                    if ( result.diff != null )
+                    {
+                        failures.append( entry.getKey() ).append( ": " ).append( result.diff ).append( EOL );
+                    }
+
+                    if ( result.totalMillis() > maxMillis )
+                    {
+                        slowDocuments.append( entry.getKey() ).append( ": " ).append( result.totalMillis() )
+                            .append( " ms" ).append( EOL );
+                    }
+                }
+            }
+
+            try ( Writer diff = getTestWriter( "roundtrip-diff", "txt" ) )
+            {
+                diff.write( failures.toString() );
+            }
+
+            if ( assertRoundTrip && failures.length() > 0 )
+            {
+                fail( "Round trip failed!" + EOL + failures );
+            }
+
+            if ( slowDocuments.length() > 0 )
+            {
+                fail( "Round trip took longer than " + maxMillis + " ms!" + EOL + slowDocuments );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            executor.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    /**
+     * Set to false if the differences should only be written to <code>roundtrip-diff.txt</code>, but not asserted.
+     * This should be called during setUp().
+     *
+     * @param doAssert True to fail the test on differences, the default.
+     */
+    protected void assertRoundTrip( boolean doAssert )
+    {
+        this.assertRoundTrip = doAssert;
+    }
+
+    /** {@inheritDoc} */
+    protected String getOutputDir()
+    {
+        return "roundtrip/";
+    }
+
+    private Map<String, String> getDocuments()
+        throws IOException
+    {
+        Map<String, String> documents = new LinkedHashMap<>();
+
+        StringWriter writer = new StringWriter();
+        Sink sink = createSink( writer );
+        generateModel( sink );
+        sink.close();
+        documents.put( "SinkTestDocument", writer.toString() );
+
+        for ( String name : getRoundTripResources() )
+        {
+            try ( Reader reader = getTestReader( name ) )
+            {
+                documents.put( name + '.' + outputExtension(), IOUtil.toString( reader ) );
+            }
+        }
+
+        String[] includes = getCorpusIncludes();
+        if ( includes != null )
+        {
+            for ( Map.Entry<String, String> entry
+                : new TreeMap<>( AbstractXmlValidatorTest.getAllTestDocuments() ).entrySet() )
+            {
+                String path = entry.getKey().toLowerCase( Locale.ENGLISH );
+
+                if ( matchPath( includes, path ) && !matchPath( getCorpusExcludes(), path ) )
+                {
+                    // jar:file:/.../doxia-test-docs-XXX.jar!/path/to/resource
+                    documents.put( entry.getKey().substring( entry.getKey().lastIndexOf( '!' ) + 1 ),
+                                   entry.getValue() );
+                }
+            }
+        }
+
+        return documents;
+    }
+
+    private static boolean matchPath( String[] patterns, String path )
+    {
+        for ( String pattern : patterns )
+        {
+            if ( SelectorUtils.matchPath( pattern, path ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Result roundTrip( String source )
+        throws ParseException
+    {
+        Result result = new Result();
+
+        long start = System.nanoTime();
+        List<SinkEventElement> expected = parse( source );
+        result.parse = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        StringWriter writer = new StringWriter();
+        Sink sink = createSink( writer );
+        createParser().parse( new StringReader( source ), sink );
+        sink.close();
+        result.render = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<SinkEventElement> actual = parse( writer.toString() );
+        result.reparse = System.nanoTime() - start;
+
+        result.diff = SinkEventDiff.diff( expected, actual, getIgnoredAttributes() );
+
+        return result;
+    }
+
+    private List<SinkEventElement> parse( String source )
+        throws ParseException
+    {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        createParser().parse( new StringReader( source ), sink );
+        return new ArrayList<>( sink.getEventList() );
+    }
+
+    private static Result get( Future<Result> future )
+        throws Exception
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof Exception )
+            {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /** The outcome of the round trip of one document. */
+    private static class Result
+    {
+        private long parse;
+
+        private long render;
+
+        private long reparse;
+
+        private String diff;
+
+        long parseMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis( parse );
+        }
+
+        long renderMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis( render );
+        }
+
+        long reparseMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis( reparse );
+        }
+
+        long totalMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis( parse + render + reparse );
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for DependencyGraph and DependencyRecorder.
+ */
+public class DependencyGraphTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRecorder()
+    {
+        DependencyRecorder recorder = new DependencyRecorder();
+        recorder.record( "b.txt", "b".getBytes( StandardCharsets.UTF_8 ) );
+        recorder.record( "a.txt", null );
+        recorder.record( "b.txt", "b2".getBytes( StandardCharsets.UTF_8 ) );
+
+        assertEquals( Arrays.asList( new Dependency( "b.txt", fingerprint( "b2" ) ), new Dependency( "a.txt", null ) ),
+                      recorder.getDependencies() );
+        assertEquals( "ca978112ca1bbdcafac231b39a23dc4da786eff8147c4e72b9807785afee48bb", fingerprint( "a" ) );
+    }
+
+    @Test
+    public void testStaleOutputs()
+    {
+        DependencyGraph graph = createGraph();
+
+        assertEquals( Collections.singleton( "index.html" ),
+                      graph.getStaleOutputs( Collections.singleton( "index.apt" ) ) );
+        assertEquals( new TreeSet<>( Arrays.asList( "index.html", "usage.html" ) ),
+                      graph.getStaleOutputs( Collections.singleton( "snippet.java" ) ) );
+        assertTrue( graph.getStaleOutputs( Collections.singleton( "other.apt" ) ).isEmpty() );
+
+        Map<String, String> fingerprints = new HashMap<>();
+        fingerprints.put( "snippet.java", fingerprint( "snippet" ) );
+        fingerprints.put( "usage.md", fingerprint( "usage changed" ) );
+        assertEquals( Collections.singleton( "usage.html" ), graph.getStaleOutputs( fingerprints ) );
+    }
+
+    @Test
+    public void testSaveAndLoad()
+        throws Exception
+    {
+        DependencyGraph graph = createGraph();
+        graph.put( "empty.html", Collections.emptyList() );
+
+        Path file = tempDir.resolve( "dependencies.txt" );
+        graph.save( file );
+
+        DependencyGraph loaded = DependencyGraph.load( file );
+        assertEquals( graph.getOutputs(), loaded.getOutputs() );
+        for ( String output : graph.getOutputs() )
+        {
+            assertEquals( graph.get( output ), loaded.get( output ) );
+        }
+
+        assertTrue( DependencyGraph.load( tempDir.resolve( "missing.txt" ) ).getOutputs().isEmpty() );
+    }
+
+    private static DependencyGraph createGraph()
+    {
+        DependencyGraph graph = new DependencyGraph();
+        graph.put( "index.html", Arrays.asList( new Dependency( "index.apt", fingerprint( "index" ) ),
+                                                new Dependency( "snippet.java", fingerprint( "snippet" ) ) ) );
+        graph.put( "usage.html", Arrays.asList( new Dependency( "usage.md", fingerprint( "usage" ) ),
+                                                new Dependency( "snippet.java", null ) ) );
+        return graph;
+    }
+
+    private static String fingerprint( String content )
+    {
+        return DependencyRecorder.fingerprint( content.getBytes( StandardCharsets.UTF_8 ) );
+    }
+}
@@ -0,0 +1,62 @@
+package org.apache.maven.doxia.parser;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.charset.StandardCharsets;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for EntityCatalog.
+ */
+public class EntityCatalogTest
+{
+    private static final String TEST_ENTITY = "http://doxia.test/test.ent";
+
+    @Test
+    public void testLoad()
+        throws Exception
+    {
+        EntityCatalog catalog = EntityCatalog.load( getClass().getClassLoader() );
+
+        byte[] content = catalog.get( TEST_ENTITY );
+        assertNotNull( content );
+        assertTrue( new String( content, StandardCharsets.UTF_8 ).contains( "<!ENTITY doxia \"Doxia\">" ) );
+
+        assertNull( catalog.get( "http://doxia.test/unknown.ent" ) );
+    }
+
+    @Test
+    public void testResolveFromCatalog()
+        throws Exception
+    {
+        AbstractXmlParser.CachedFileEntityResolver resolver = new AbstractXmlParser.CachedFileEntityResolver();
+
+        InputSource source = resolver.resolveEntity( "-//Doxia//Test", TEST_ENTITY );
+
+        assertEquals( TEST_ENTITY, source.getSystemId() );
+        assertEquals( "-//Doxia//Test", source.getPublicId() );
+        assertArrayEquals( EntityCatalog.getDefault().get( TEST_ENTITY ), IOUtil.toByteArray( source.getByteStream() ) );
+    }
+}
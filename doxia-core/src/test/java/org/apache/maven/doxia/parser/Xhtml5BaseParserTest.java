@@ -21,9 +21,11 @@ package org.apache.maven.doxia.parser;
 
 import java.util.Iterator;
 
+import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.impl.SinkEventElement;
 import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
+import org.codehaus.plexus.util.xml.pull.MXParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -338,6 +340,37 @@ public class Xhtml5BaseParserTest
         SinkEventElement event = it.next();
         assertEquals( "paragraph", event.getName() );
 
+        event = it.next();
+        assertEquals( "text", event.getName() );
+        assertEquals( "\u0159\u00A0\u0161\uD835\uDFED",  (String) event.getArgs()[0] );
+
+        event = it.next();
+        assertEquals( "paragraph_", event.getName() );
+    }
+
+    @Test
+    public void testDoxia250WithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        StringBuilder sb = new StringBuilder();
+        sb.append( "<!DOCTYPE test [" ).append( Xhtml5BaseParser.EOL );
+        sb.append( "<!ENTITY foo \"&#x159;\">" ).append( Xhtml5BaseParser.EOL );
+        sb.append( "<!ENTITY foo1 \"&nbsp;\">" ).append( Xhtml5BaseParser.EOL );
+        sb.append( "<!ENTITY foo2 \"&#x161;\">" ).append( Xhtml5BaseParser.EOL );
+        sb.append( "<!ENTITY tritPos \"&#x1d7ed;\">" ).append( Xhtml5BaseParser.EOL );
+        sb.append( "]>" ).append( Xhtml5BaseParser.EOL );
+        sb.append( "<p>&foo;&foo1;&foo2;&tritPos;</p>" );
+
+        parser.setValidate( false );
+        parser.parse( sb.toString(), sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        SinkEventElement event = it.next();
+        assertEquals( "paragraph", event.getName() );
+
         event = it.next();
         assertEquals( "text", event.getName() );
         assertEquals( "\u0159",  (String) event.getArgs()[0] );
@@ -358,6 +391,35 @@ public class Xhtml5BaseParserTest
         assertEquals( "paragraph_", event.getName() );
     }
 
+    @Test
+    public void testPullParserReuse()
+        throws Exception
+    {
+        XmlPullParserPool pool = XmlPullParserPool.forParser( parser );
+        MXParser pullParser = pool.borrow( parser );
+        pool.release( pullParser );
+        assertSame( pullParser, pool.borrow( parser ) );
+        pool.release( pullParser );
+
+        // entities of a local doctype must not leak into the next documents
+        parser.parse( "<!DOCTYPE test [<!ENTITY foo \"&#x159;\">]><p>&foo;</p>", sink );
+        assertEquals( "\u0159", sink.getEventList().get( 1 ).getArgs()[0] );
+
+        sink.reset();
+        parser.parse( "<p>&foo;</p>", sink );
+        assertNull( sink.getEventList().get( 1 ).getArgs()[0] );
+
+        sink.reset();
+        assertThrows( ParseException.class, () -> parser.parse( "<p></b>", sink ) );
+
+        // a pull parser which failed is not reused
+        assertNotSame( pullParser, pool.borrow( parser ) );
+
+        sink.reset();
+        parser.parse( "<p>&amp;</p>", sink );
+        assertEquals( "&", sink.getEventList().get( 1 ).getArgs()[0] );
+    }
+
     @Test
     public void testEntities()
         throws Exception
@@ -373,6 +435,41 @@ public class Xhtml5BaseParserTest
         assertEquals( "section1", it.next().getName() );
         assertEquals( "sectionTitle1", it.next().getName() );
 
+        SinkEventElement textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "&\u0159\u0159\uD835\uDFED\uD835\uDFED", textEvt.getArgs()[0] );
+
+        assertEquals( "sectionTitle1_", it.next().getName() );
+        assertEquals( "paragraph", it.next().getName() );
+
+        textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "&\u0159\u0159\uD835\uDFED\uD835\uDFEDA", textEvt.getArgs()[0] );
+
+        assertEquals( "paragraph_", it.next().getName() );
+// FIXME
+//        assertEquals( "section1_", it.next().getName() );
+
+        assertFalse( it.hasNext() );
+    }
+
+    @Test
+    public void testEntitiesWithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        final String text = "<!DOCTYPE test [<!ENTITY flo \"&#x159;\"><!ENTITY tritPos \"&#x1d7ed;\"><!ENTITY fo \"&#65;\"><!ENTITY myCustom \"&fo;\">]>"
+                + "<body><h1>&amp;&flo;&#x159;&tritPos;&#x1d7ed;</h1><p>&amp;&flo;&#x159;&tritPos;&#x1d7ed;&myCustom;</p></body>";
+
+        parser.setValidate( false );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "section1", it.next().getName() );
+        assertEquals( "sectionTitle1", it.next().getName() );
+
         SinkEventElement textEvt = it.next();
         assertEquals( "text", textEvt.getName() );
         assertEquals( "&", textEvt.getArgs()[0] );
@@ -427,6 +524,36 @@ public class Xhtml5BaseParserTest
         assertFalse( it.hasNext() );
     }
 
+    @Test
+    public void testCoalescedText()
+        throws Exception
+    {
+        final String text = "<body><h1>&quot;&amp;</h1><p>a &apos;&lt;&gt; b<b>c</b></p></body>";
+
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "section1", it.next().getName() );
+        assertEquals( "sectionTitle1", it.next().getName() );
+
+        SinkEventElement textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "\"&", textEvt.getArgs()[0] );
+
+        assertEquals( "sectionTitle1_", it.next().getName() );
+        assertEquals( "paragraph", it.next().getName() );
+
+        textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "a \'<> b", textEvt.getArgs()[0] );
+
+        assertEquals( "inline", it.next().getName() );
+        assertEquals( "c", it.next().getArgs()[0] );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "paragraph_", it.next().getName() );
+    }
+
     @Test
     public void testXhtmlEntities()
         throws Exception
@@ -440,6 +567,37 @@ public class Xhtml5BaseParserTest
         assertEquals( "section1", it.next().getName() );
         assertEquals( "sectionTitle1", it.next().getName() );
 
+        SinkEventElement textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "\"&", textEvt.getArgs()[0] );
+
+        assertEquals( "sectionTitle1_", it.next().getName() );
+        assertEquals( "paragraph", it.next().getName() );
+
+        textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "\'<>", textEvt.getArgs()[0] );
+
+        assertEquals( "paragraph_", it.next().getName() );
+
+        assertFalse( it.hasNext() );
+    }
+
+    @Test
+    public void testXhtmlEntitiesWithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        final String text = "<body><h1>&quot;&amp;</h1><p>&apos;&lt;&gt;</p></body>";
+
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "section1", it.next().getName() );
+        assertEquals( "sectionTitle1", it.next().getName() );
+
         SinkEventElement textEvt = it.next();
         assertEquals( "text", textEvt.getName() );
         assertEquals( "\"", textEvt.getArgs()[0] );
@@ -634,6 +792,163 @@ public class Xhtml5BaseParserTest
         assertEquals( "inline", event.getName() );
         assertEquals( "semantics=delete",  event.getArgs()[0].toString().trim() );
 
+        event = it.next();
+        assertEquals( "text", event.getName() );
+        assertEquals( "a text & \u00c6", event.getArgs()[0] );
+
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+
+    }
+
+    @Test
+    public void testSemanticTagsWithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        String text = "<em><strong><small><s><cite><q><dfn><abbr><i><b><code><var><samp><kbd><sup><sub><u><mark><ruby><rb><rt><rtc><rp><bdi><bdo><span><ins><del>a text &amp; &#xc6;</del></ins></span></bdo></bdi></rp></rtc></rt></rb></ruby></mark></u></sub></sup></kbd></samp></var></code></b></i></abbr></dfn></q></cite></s></small></strong></em>";
+        parser.parse( text, sink );
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        SinkEventElement event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=emphasis",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=strong",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=small",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=line-through",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=citation",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=quote",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=definition",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=abbreviation",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=italic",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=bold",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=code",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=variable",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=sample",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=keyboard",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=superscript",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=subscript",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=annotation",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=highlight",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=ruby",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=rubyBase",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=rubyText",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=rubyTextContainer",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=rubyParentheses",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=bidirectionalIsolation",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=bidirectionalOverride",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=phrase",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=insert",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=delete",  event.getArgs()[0].toString().trim() );
+
         assertEquals( "text", it.next().getName() );
         assertEquals( "text", it.next().getName() );
         assertEquals( "text", it.next().getName() );
@@ -848,4 +1163,112 @@ public class Xhtml5BaseParserTest
                           "definitionListItem_", "definitionListItem", "definedTerm", "text", "definedTerm_",
                           "definitionListItem_", "definitionList_" );
     }
+
+    @Test
+    public void testWhitespaceNormalization() throws Exception
+    {
+        Xhtml5BaseParser normalizingParser = new Xhtml5BaseParser()
+        {
+            {
+                setTrimmableWhitespace( true );
+                setCollapsibleWhitespace( true );
+                setIgnorableWhitespace( true );
+            }
+        };
+
+        String text = "<body>\n<p> \n a \r\n\n b\tc  </p><p> \t\n </p><p>d<b> e\n</b></p></body>";
+
+        normalizingParser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        assertEquals( "paragraph", it.next().getName() );
+        SinkEventElement event = it.next();
+        assertEquals( "text", event.getName() );
+        assertEquals( "a b\tc", event.getArgs()[0] );
+        assertSinkStartsWith( it, "paragraph_", "paragraph", "paragraph_", "paragraph" );
+        event = it.next();
+        assertEquals( "d", event.getArgs()[0] );
+        assertEquals( "inline", it.next().getName() );
+        event = it.next();
+        assertEquals( "e", event.getArgs()[0] );
+        assertSinkEquals( it, "inline_", "paragraph_" );
+    }
+
+    @Test
+    public void testBudgetMaxDepth()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxDepth( 3 );
+        parser.setBudget( budget );
+
+        ParseException e = assertThrows( ParseException.class,
+            () -> parser.parse( "<div><div><div><div><p>deep</p></div></div></div></div>", sink ) );
+
+        assertTrue( e.getMessage().contains( "Parse budget exceeded: events nested deeper than 3 levels" ),
+                    e.getMessage() );
+    }
+
+    @Test
+    public void testBudgetMaxEvents()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxEvents( 10 );
+        parser.setBudget( budget );
+
+        StringBuilder text = new StringBuilder();
+        for ( int i = 0; i < 10; i++ )
+        {
+            text.append( "<p>paragraph</p>" );
+        }
+
+        ParseException e = assertThrows( ParseException.class, () -> parser.parse( "<div>" + text + "</div>", sink ) );
+
+        assertTrue( e.getMessage().contains( "Parse budget exceeded: more than 10 Sink events" ), e.getMessage() );
+        assertEquals( 10, sink.getEventList().size() );
+    }
+
+    @Test
+    public void testBudgetMaxOutputSize()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxOutputSize( 8 );
+        parser.setBudget( budget );
+
+        ParseException e = assertThrows( ParseException.class,
+            () -> parser.parse( "<div><p>short</p><p>\u00E9t\u00E9</p></div>", sink ) );
+
+        assertTrue( e.getMessage().contains( "Parse budget exceeded: more than 8 bytes of text" ), e.getMessage() );
+    }
+
+    @Test
+    public void testBudgetMaxTime()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxTime( 1 );
+        parser.setBudget( budget );
+
+        SinkEventTestingSink slowSink = new SinkEventTestingSink()
+        {
+            @Override
+            public void paragraph( SinkEventAttributes attributes )
+            {
+                try
+                {
+                    Thread.sleep( 5 );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                super.paragraph( attributes );
+            }
+        };
+
+        ParseException e = assertThrows( ParseException.class,
+            () -> parser.parse( "<div><p>a</p><p>b</p><p>c</p></div>", slowSink ) );
+
+        assertTrue( e.getMessage().contains( "Parse budget exceeded: parsing took more than 1 ms" ), e.getMessage() );
+        // the events following the first slow paragraph are discarded
+        assertEquals( 2, slowSink.getEventList().size() );
+    }
 }
@@ -350,6 +350,38 @@ public class XhtmlBaseParserTest
         SinkEventElement event = it.next();
         assertEquals( "inline", event.getName() );
 
+        event = it.next();
+        assertEquals( "text", event.getName() );
+        assertEquals( "\u0159\u00A0\u0161\uD835\uDFED",  (String) event.getArgs()[0] );
+
+        event = it.next();
+        assertEquals( "inline_", event.getName() );
+    }
+
+    /** @throws Exception  */
+    @Test
+    public void testDoxia250WithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        StringBuilder sb = new StringBuilder();
+        sb.append( "<!DOCTYPE test [" ).append( XhtmlBaseParser.EOL );
+        sb.append( "<!ENTITY foo \"&#x159;\">" ).append( XhtmlBaseParser.EOL );
+        sb.append( "<!ENTITY foo1 \"&nbsp;\">" ).append( XhtmlBaseParser.EOL );
+        sb.append( "<!ENTITY foo2 \"&#x161;\">" ).append( XhtmlBaseParser.EOL );
+        sb.append( "<!ENTITY tritPos \"&#x1d7ed;\">" ).append( XhtmlBaseParser.EOL );
+        sb.append( "]>" ).append( XhtmlBaseParser.EOL );
+        sb.append( "<b>&foo;&foo1;&foo2;&tritPos;</b>" );
+
+        parser.setValidate( false );
+        parser.parse( sb.toString(), sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        SinkEventElement event = it.next();
+        assertEquals( "inline", event.getName() );
+
         event = it.next();
         assertEquals( "text", event.getName() );
         assertEquals( "\u0159",  (String) event.getArgs()[0] );
@@ -386,6 +418,40 @@ public class XhtmlBaseParserTest
         assertEquals( "section1", it.next().getName() );
         assertEquals( "sectionTitle1", it.next().getName() );
 
+        SinkEventElement textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "&\u0159\u0159\uD835\uDFED\uD835\uDFED", textEvt.getArgs()[0] );
+
+        assertEquals( "sectionTitle1_", it.next().getName() );
+        assertEquals( "paragraph", it.next().getName() );
+
+        textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "&\u0159\u0159\uD835\uDFED\uD835\uDFEDA", textEvt.getArgs()[0] );
+
+        assertEquals( "paragraph_", it.next().getName() );
+
+        assertFalse( it.hasNext() );
+    }
+
+    /** @throws Exception  */
+    @Test
+    public void testEntitiesWithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        final String text = "<!DOCTYPE test [<!ENTITY flo \"&#x159;\"><!ENTITY tritPos \"&#x1d7ed;\"><!ENTITY fo \"&#65;\"><!ENTITY myCustom \"&fo;\">]>"
+                + "<body><h1>&amp;&flo;&#x159;&tritPos;&#x1d7ed;</h1><p>&amp;&flo;&#x159;&tritPos;&#x1d7ed;&myCustom;</p></body>";
+
+        parser.setValidate( false );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "section1", it.next().getName() );
+        assertEquals( "sectionTitle1", it.next().getName() );
+
         SinkEventElement textEvt = it.next();
         assertEquals( "text", textEvt.getName() );
         assertEquals( "&", textEvt.getArgs()[0] );
@@ -455,6 +521,47 @@ public class XhtmlBaseParserTest
         // Couple symbols from Latin-1:
         // http://www.w3.org/TR/xhtml1/dtds.html#a_dtd_Latin-1_characters
 
+        SinkEventElement textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "\u00AB\u00AE", textEvt.getArgs()[0] );
+
+        assertEquals( "sectionTitle1_", it.next().getName() );
+        assertEquals( "paragraph", it.next().getName() );
+
+        // Couple symbols from Special characters:
+        // http://www.w3.org/TR/xhtml1/dtds.html#a_dtd_Special_characters
+
+        // and from Symbols:
+        // http://www.w3.org/TR/xhtml1/dtds.html#a_dtd_Symbols
+
+        textEvt = it.next();
+        assertEquals( "text", textEvt.getName() );
+        assertEquals( "\u201C\u2019\u03A6\u2190", textEvt.getArgs()[0] );
+
+        assertEquals( "paragraph_", it.next().getName() );
+
+        assertFalse( it.hasNext() );
+    }
+
+    /** @throws Exception  */
+    @Test
+    public void testXhtmlEntitiesWithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        final String text = "<body><h1>&laquo;&reg;</h1><p>&ldquo;&rsquo;&Phi;&larr;</p></body>";
+
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "section1", it.next().getName() );
+        assertEquals( "sectionTitle1", it.next().getName() );
+
+        // Couple symbols from Latin-1:
+        // http://www.w3.org/TR/xhtml1/dtds.html#a_dtd_Latin-1_characters
+
         SinkEventElement textEvt = it.next();
         assertEquals( "text", textEvt.getName() );
         assertEquals( "\u00AB", textEvt.getArgs()[0] );
@@ -577,6 +684,64 @@ public class XhtmlBaseParserTest
         assertEquals( "inline", event.getName() );
         assertEquals( "semantics=annotation",  event.getArgs()[0].toString().trim() );
 
+        event = it.next();
+        assertEquals( "text", event.getName() );
+        assertEquals( "a text & \u00c6", event.getArgs()[0] );
+
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+        assertEquals( "inline_", it.next().getName() );
+
+    }
+
+    /** @throws Exception  */
+    @Test
+    public void testSemanticTagsWithoutCoalescing()
+        throws Exception
+    {
+        parser.setCoalesceText( false );
+
+        String text = "<s><i><b><code><samp><sup><sub><u>a text &amp; &#xc6;</u></sub></sup></samp></code></b></i></s>";
+        parser.parse( text, sink );
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        SinkEventElement event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=line-through",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=italic",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=bold",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=code",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=code",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=superscript",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=subscript",  event.getArgs()[0].toString().trim() );
+
+        event = it.next();
+        assertEquals( "inline", event.getName() );
+        assertEquals( "semantics=annotation",  event.getArgs()[0].toString().trim() );
+
         assertEquals( "text", it.next().getName() );
         assertEquals( "text", it.next().getName() );
         assertEquals( "text", it.next().getName() );
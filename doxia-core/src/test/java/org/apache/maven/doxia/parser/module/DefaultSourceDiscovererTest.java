@@ -0,0 +1,117 @@
+package org.apache.maven.doxia.parser.module;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for DefaultSourceDiscoverer.
+ */
+public class DefaultSourceDiscovererTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDiscover()
+        throws Exception
+    {
+        Path first = tempDir.resolve( "first/src/site" );
+        Path second = tempDir.resolve( "second/src/site" );
+        touch( first.resolve( "apt/index.apt" ) );
+        touch( first.resolve( "apt/guides/deep/usage.APT" ) );
+        touch( first.resolve( "apt/notes.txt" ) );
+        touch( first.resolve( "markdown/index.md" ) );
+        touch( first.resolve( "markdown/faq.markdown" ) );
+        touch( second.resolve( "markdown/about.md" ) );
+        touch( second.resolve( "resources/image.md" ) );
+
+        ParserModuleManager manager = new ParserModuleManager()
+        {
+            @Override
+            public Collection<ParserModule> getParserModules()
+            {
+                return Arrays.asList( new AbstractParserModule( "apt" ) { },
+                                      new AbstractParserModule( "markdown", "markdown", "md", "markdown" ) { } );
+            }
+
+            @Override
+            public ParserModule getParserModule( String id )
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        Set<String> found = ConcurrentHashMap.newKeySet();
+        new DefaultSourceDiscoverer( manager ).discover( Arrays.asList( first, second, tempDir.resolve( "missing" ) ),
+            source -> found.add( tempDir.relativize( source.getSourceDirectory() ).toString().replace( '\\', '/' )
+                + " " + source.getReference() + " " + source.getParserId() ), 4 );
+
+        assertEquals( new TreeSet<>( Arrays.asList( "first/src/site/apt index.apt apt",
+                                                    "first/src/site/apt guides/deep/usage.APT apt",
+                                                    "first/src/site/markdown index.md markdown",
+                                                    "first/src/site/markdown faq.markdown markdown",
+                                                    "second/src/site/markdown about.md markdown" ) ),
+                      new TreeSet<>( found ) );
+    }
+
+    @Test
+    public void testNoSources()
+        throws Exception
+    {
+        ParserModuleManager manager = new ParserModuleManager()
+        {
+            @Override
+            public Collection<ParserModule> getParserModules()
+            {
+                return Collections.singletonList( new AbstractParserModule( "apt" ) { } );
+            }
+
+            @Override
+            public ParserModule getParserModule( String id )
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        new DefaultSourceDiscoverer( manager ).discover( Collections.singletonList( tempDir ),
+            source -> fail( "unexpected " + source ), 2 );
+    }
+
+    private static void touch( Path file )
+        throws IOException
+    {
+        Files.createDirectories( file.getParent() );
+        Files.createFile( file );
+    }
+}
@@ -0,0 +1,172 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.apache.maven.doxia.index.IndexEntry;
+import org.apache.maven.doxia.index.IndexingSink;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for AsyncSink.
+ */
+public class AsyncSinkTest
+{
+    /**
+     * The rendered output must not depend on the thread rendering it.
+     */
+    @Test
+    public void testSameOutput()
+    {
+        StringWriter expected = new StringWriter();
+        emitDocument( new Xhtml5BaseSink( expected ) );
+
+        StringWriter actual = new StringWriter();
+        // a tiny capacity to exercise back-pressure
+        emitDocument( AsyncSink.newInstance( new Xhtml5BaseSink( actual ), 1 ) );
+
+        assertEquals( expected.toString(), actual.toString() );
+    }
+
+    @Test
+    public void testConsumedEvents()
+    {
+        Sink sink = AsyncSink.newInstance( new IndexingSink( new IndexEntry( "index" ) ) );
+        assertEquals( Sink.EVENTS_STRUCTURE, sink.getConsumedEvents() );
+        sink.close();
+
+        Sink pipeline = PipelineSink.newInstance( Arrays.<Sink>asList( new IndexingSink( new IndexEntry( "index" ) ),
+                                                                       new SinkEventTestingSink() ) );
+        assertEquals( Sink.EVENTS_ALL, pipeline.getConsumedEvents() );
+    }
+
+    private static void emitDocument( Sink sink )
+    {
+        sink.body();
+
+        for ( int i = 0; i < 2000; i++ )
+        {
+            sink.section1();
+            sink.sectionTitle1();
+            sink.text( "Section " + i );
+            sink.sectionTitle1_();
+            sink.paragraph( SinkEventAttributeSet.CENTER );
+            sink.text( "a <b> & c " + i );
+            sink.paragraph_();
+            sink.table();
+            sink.tableRows( new int[] { Sink.JUSTIFY_LEFT }, false );
+            sink.tableRow();
+            sink.tableCell();
+            sink.rawText( new StringBuilder( "<i>cell</i>" ) );
+            sink.tableCell_();
+            sink.tableRow_();
+            sink.tableRows_();
+            sink.table_();
+            sink.section1_();
+        }
+
+        sink.body_();
+        sink.flush();
+        sink.close();
+    }
+
+    /**
+     * Arguments reused by the emitter must be copied.
+     */
+    @Test
+    public void testArgumentsCopied()
+    {
+        SinkEventTestingSink testingSink = new SinkEventTestingSink();
+        Sink sink = AsyncSink.newInstance( testingSink );
+
+        char[] buf = "first".toCharArray();
+        StringBuilder raw = new StringBuilder( "raw" );
+        SinkEventAttributeSet attributes = new SinkEventAttributeSet( "id", "a" );
+
+        sink.paragraph( attributes );
+        sink.text( buf, 0, buf.length );
+        sink.rawText( raw );
+        "other".getChars( 0, 5, buf, 0 );
+        raw.setLength( 0 );
+        attributes.addAttribute( "id", "b" );
+        sink.paragraph_();
+        sink.close();
+
+        Iterator<SinkEventElement> it = testingSink.getEventList().iterator();
+        SinkEventElement event = it.next();
+        assertEquals( "paragraph", event.getName() );
+        assertEquals( "a", ( (SinkEventAttributes) event.getArgs()[0] ).getAttribute( "id" ) );
+        event = it.next();
+        assertEquals( "text", event.getName() );
+        assertEquals( "first", event.getArgs()[0] );
+        event = it.next();
+        assertEquals( "rawText", event.getName() );
+        assertEquals( "raw", event.getArgs()[0] );
+        assertEquals( "paragraph_", it.next().getName() );
+        assertEquals( "close", it.next().getName() );
+        assertFalse( it.hasNext() );
+    }
+
+    /**
+     * A failure of the wrapped sink must reach the emitter.
+     */
+    @Test
+    public void testFailurePropagation()
+    {
+        final IllegalArgumentException failure = new IllegalArgumentException( "failed" );
+        final boolean[] closed = new boolean[1];
+
+        Sink sink = AsyncSink.newInstance( new SinkAdapter()
+        {
+            @Override
+            public void text( String text )
+            {
+                throw failure;
+            }
+
+            @Override
+            public void close()
+            {
+                closed[0] = true;
+            }
+        } );
+
+        sink.paragraph();
+        sink.text( "boom" );
+        sink.paragraph_();
+
+        assertSame( failure, assertThrows( IllegalArgumentException.class, sink::flush ) );
+
+        // reported once, subsequent events are discarded
+        sink.text( "ignored" );
+        sink.close();
+        sink.close();
+
+        assertTrue( closed[0] );
+        assertThrows( IllegalStateException.class, sink::paragraph );
+    }
+}
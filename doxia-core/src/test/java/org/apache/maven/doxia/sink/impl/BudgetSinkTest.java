@@ -0,0 +1,116 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.doxia.parser.ParseBudget;
+import org.apache.maven.doxia.sink.Sink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for BudgetSink.
+ */
+public class BudgetSinkTest
+{
+    @Test
+    public void testWithinBudget()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxDepth( 2 );
+        budget.setMaxEvents( 5 );
+        budget.setMaxOutputSize( 3 );
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        BudgetSink budgetSink = new BudgetSink( sink, budget );
+        Sink target = budgetSink.asSink();
+
+        target.body();
+        target.paragraph();
+        target.text( "ab" );
+        target.text( new char[] { 'x', 'c', 'x' }, 1, 1 );
+        target.paragraph_();
+
+        assertNull( budgetSink.getViolation() );
+        assertEquals( 5, sink.getEventList().size() );
+    }
+
+    @Test
+    public void testMaxDepth()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxDepth( 2 );
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        BudgetSink budgetSink = new BudgetSink( sink, budget );
+        Sink target = budgetSink.asSink();
+
+        target.body();
+        target.list();
+        target.listItem();
+        target.text( "discarded" );
+        target.close();
+
+        assertEquals( "Parse budget exceeded: events nested deeper than 2 levels", budgetSink.getViolation() );
+        assertEquals( "body", sink.getEventList().get( 0 ).getName() );
+        assertEquals( "list", sink.getEventList().get( 1 ).getName() );
+        assertEquals( "close", sink.getEventList().get( 2 ).getName() );
+        assertEquals( 3, sink.getEventList().size() );
+    }
+
+    @Test
+    public void testMaxEvents()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxEvents( 2 );
+
+        BudgetSink budgetSink = new BudgetSink( new SinkEventTestingSink(), budget );
+        Sink target = budgetSink.asSink();
+
+        target.body();
+        target.body_();
+        assertNull( budgetSink.getViolation() );
+
+        target.flush();
+        assertNull( budgetSink.getViolation() );
+
+        target.lineBreak();
+        assertEquals( "Parse budget exceeded: more than 2 Sink events", budgetSink.getViolation() );
+    }
+
+    @Test
+    public void testMaxOutputSize()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxOutputSize( 4 );
+
+        BudgetSink budgetSink = new BudgetSink( new SinkEventTestingSink(), budget );
+        Sink target = budgetSink.asSink();
+
+        // two bytes in UTF-8
+        target.text( "a\u00E9" );
+        target.text( new char[] { 'x', 'b', 'x' }, 1, 1 );
+        assertNull( budgetSink.getViolation() );
+
+        target.text( new char[] { 'c' }, 0, 1 );
+        assertEquals( "Parse budget exceeded: more than 4 bytes of text", budgetSink.getViolation() );
+    }
+}
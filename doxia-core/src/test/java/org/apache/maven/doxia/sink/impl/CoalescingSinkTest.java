@@ -0,0 +1,126 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.StringWriter;
+import java.util.Iterator;
+
+import org.apache.maven.doxia.sink.Sink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for CoalescingSink.
+ */
+public class CoalescingSinkTest
+{
+    @Test
+    public void testMergeAdjacentText()
+    {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        CoalescingSink coalescing = new CoalescingSink( sink );
+
+        coalescing.paragraph();
+        coalescing.text( "a " );
+        coalescing.text( "&" );
+        coalescing.text( new char[] { 'x', ' ', 'b', 'x' }, 1, 2 );
+        coalescing.paragraph_();
+        coalescing.text( "c" );
+        coalescing.flushText();
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        assertEquals( "paragraph", it.next().getName() );
+        assertText( "a & b", null, it.next() );
+        assertEquals( "paragraph_", it.next().getName() );
+        assertText( "c", null, it.next() );
+        assertFalse( it.hasNext() );
+    }
+
+    @Test
+    public void testSplitOnAttributes()
+    {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        CoalescingSink coalescing = new CoalescingSink( sink );
+
+        coalescing.text( "a" );
+        coalescing.text( "b", SinkEventAttributeSet.Semantics.BOLD );
+        coalescing.text( "c", new SinkEventAttributeSet( SinkEventAttributeSet.Semantics.BOLD ) );
+        coalescing.text( "d" );
+        coalescing.close();
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        assertText( "a", null, it.next() );
+        assertText( "bc", SinkEventAttributeSet.Semantics.BOLD, it.next() );
+        assertText( "d", null, it.next() );
+        assertEquals( "close", it.next().getName() );
+        assertFalse( it.hasNext() );
+    }
+
+    /**
+     * Merging must not change the rendered output.
+     */
+    @Test
+    public void testSameOutput()
+    {
+        StringWriter expected = new StringWriter();
+        emitDocument( new Xhtml5BaseSink( expected ) );
+
+        StringWriter actual = new StringWriter();
+        emitDocument( new CoalescingSink( new Xhtml5BaseSink( actual ) ) );
+
+        assertEquals( expected.toString(), actual.toString() );
+    }
+
+    private static void emitDocument( Sink sink )
+    {
+        sink.body();
+        sink.paragraph();
+        sink.text( "a" );
+        sink.text( " <b> " );
+        sink.text( "&" );
+        sink.text( "" );
+        sink.text( " \u00e9" );
+        sink.bold();
+        sink.text( "c" );
+        sink.bold_();
+        sink.text( "d", SinkEventAttributeSet.Semantics.ITALIC );
+        sink.text( "e", SinkEventAttributeSet.Semantics.ITALIC );
+        sink.paragraph_();
+        sink.body_();
+        sink.flush();
+        sink.close();
+    }
+
+    private static void assertText( String text, Object attributes, SinkEventElement event )
+    {
+        assertEquals( "text", event.getName() );
+        assertEquals( text, event.getArgs()[0] );
+        if ( attributes == null )
+        {
+            assertTrue( event.getArgs().length == 1 || event.getArgs()[1] == null );
+        }
+        else
+        {
+            assertEquals( attributes, event.getArgs()[1] );
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.maven.doxia.sink.impl;
  */
 
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.text.AttributeSet;
 
@@ -297,4 +299,75 @@ public class SinkEventAttributeSetTest
         expected = " decoration=boxed align=center";
         assertEquals( expected, sinkEventAttributeSet.toString() );
     }
+
+    /**
+     * Test of unmodifiable method, of class SinkEventAttributeSet.
+     */
+    @Test
+    public void testUnmodifiable()
+    {
+        SinkEventAttributeSet atts = new SinkEventAttributeSet( "a", "1" ).unmodifiable();
+
+        assertThrows( UnsupportedOperationException.class, () -> atts.addAttribute( "b", "2" ) );
+        assertThrows( UnsupportedOperationException.class, () -> atts.removeAttribute( "a" ) );
+        assertThrows( UnsupportedOperationException.class, () -> atts.removeAttributes( atts ) );
+        assertThrows( UnsupportedOperationException.class,
+                      () -> ( (SinkEventAttributeSet) SinkEventAttributeSet.EMPTY ).addAttribute( "a", "1" ) );
+
+        // adding nothing is tolerated, as is setting a resolve parent
+        atts.addAttributes( SinkEventAttributeSet.EMPTY );
+        atts.setResolveParent( SinkEventAttributeSet.BOLD );
+        assertEquals( "bold", atts.getAttribute( SinkEventAttributes.STYLE ) );
+
+        // copies are modifiable again
+        SinkEventAttributeSet copy = (SinkEventAttributeSet) atts.copyAttributes();
+        copy.addAttribute( "b", "2" );
+        assertEquals( 2, copy.getAttributeCount() );
+        assertEquals( 1, atts.getAttributeCount() );
+        assertTrue( SinkEventAttributeSet.EMPTY.isEqual( new SinkEventAttributeSet( 0 ) ) );
+    }
+
+    /**
+     * Test growing and shrinking beyond the initial size, keeping insertion order.
+     */
+    @Test
+    public void testInsertionOrder()
+    {
+        SinkEventAttributeSet atts = new SinkEventAttributeSet( 0 );
+        Map<String, Object> expected = new LinkedHashMap<>();
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            atts.addAttribute( "key" + i, "value" + i );
+            expected.put( "key" + i, "value" + i );
+        }
+
+        atts.addAttribute( "key3", "changed" );
+        expected.put( "key3", "changed" );
+        atts.removeAttribute( "key0" );
+        expected.remove( "key0" );
+        atts.removeAttribute( "key10" );
+        expected.remove( "key10" );
+        atts.removeAttribute( "missing" );
+        atts.addAttribute( "key0", null );
+        expected.put( "key0", null );
+
+        assertEquals( expected.size(), atts.getAttributeCount() );
+        assertEquals( expected.hashCode(), atts.hashCode() );
+
+        Enumeration<String> names = atts.getAttributeNames();
+
+        for ( String key : expected.keySet() )
+        {
+            assertEquals( key, names.nextElement() );
+            assertEquals( expected.get( key ), atts.getAttribute( key ) );
+        }
+
+        assertFalse( names.hasMoreElements() );
+        assertTrue( atts.isDefined( "key0" ) );
+        assertFalse( atts.isDefined( "key10" ) );
+
+        atts.removeAttributes( atts );
+        assertTrue( atts.isEmpty() );
+    }
 }
@@ -0,0 +1,283 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.swing.text.AttributeSet;
+import javax.swing.text.MutableAttributeSet;
+
+import org.apache.maven.doxia.sink.Sink;
+
+/**
+ * Compares two lists of sink events structurally, and describes the first difference.
+ * <p>
+ * Before the comparison, adjacent text events are merged, whitespace only text events are dropped,
+ * and trailing null or empty arguments are ignored, so that differences in how the same content is
+ * split into events do not count.
+ *
+ * @since 2.0.0
+ */
+public class SinkEventDiff
+{
+    /** The number of events shown before the first difference. */
+    private static final int CONTEXT = 3;
+
+    private static final String EOL = System.lineSeparator();
+
+    /** The names of the events opening a structure, ie those having a closing <code>name_</code> event. */
+    private static final Set<String> OPENING_EVENTS = new HashSet<>();
+
+    static
+    {
+        Set<String> names = new HashSet<>();
+        for ( Method method : Sink.class.getMethods() )
+        {
+            names.add( method.getName() );
+        }
+        for ( String name : names )
+        {
+            if ( names.contains( name + '_' ) )
+            {
+                OPENING_EVENTS.add( name );
+            }
+        }
+    }
+
+    private SinkEventDiff()
+    {
+        // utility class
+    }
+
+    /**
+     * Compares two lists of events.
+     *
+     * @param expected the expected events.
+     * @param actual the actual events.
+     * @return null if the events are the same, otherwise a description of the first difference
+     * with the path of structural events leading to it.
+     */
+    public static String diff( List<SinkEventElement> expected, List<SinkEventElement> actual )
+    {
+        return diff( expected, actual, Collections.<String>emptySet() );
+    }
+
+    /**
+     * Compares two lists of events, ignoring some attributes.
+     *
+     * @param expected the expected events.
+     * @param actual the actual events.
+     * @param ignoredAttributes the names of the attributes to remove from all events before the comparison,
+     * typically those added by a Sink for styling.
+     * @return null if the events are the same, otherwise a description of the first difference
+     * with the path of structural events leading to it.
+     */
+    public static String diff( List<SinkEventElement> expected, List<SinkEventElement> actual,
+                               Set<String> ignoredAttributes )
+    {
+        List<SinkEventElement> left = normalize( expected, ignoredAttributes );
+        List<SinkEventElement> right = normalize( actual, ignoredAttributes );
+
+        Deque<String> path = new ArrayDeque<>();
+        int size = Math.min( left.size(), right.size() );
+
+        for ( int i = 0; i < size; i++ )
+        {
+            SinkEventElement e = left.get( i );
+            SinkEventElement a = right.get( i );
+
+            if ( !sameEvent( e, a ) )
+            {
+                return describe( i, path, left, toString( e ), toString( a ) );
+            }
+
+            updatePath( path, e.getName() );
+        }
+
+        if ( left.size() != right.size() )
+        {
+            String e = left.size() > size ? toString( left.get( size ) ) : "<end of events>";
+            String a = right.size() > size ? toString( right.get( size ) ) : "<end of events>";
+            return describe( size, path, left, e, a );
+        }
+
+        return null;
+    }
+
+    private static String describe( int index, Deque<String> path, List<SinkEventElement> events,
+                                    String expected, String actual )
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "First difference at event #" ).append( index );
+        sb.append( ", path /" ).append( String.join( "/", (Iterable<String>) path::descendingIterator ) );
+        sb.append( EOL ).append( "  expected: " ).append( expected );
+        sb.append( EOL ).append( "  actual:   " ).append( actual );
+        sb.append( EOL ).append( "  after:" );
+        for ( int i = Math.max( 0, index - CONTEXT ); i < index; i++ )
+        {
+            sb.append( EOL ).append( "    " ).append( toString( events.get( i ) ) );
+        }
+        return sb.toString();
+    }
+
+    private static void updatePath( Deque<String> path, String name )
+    {
+        if ( OPENING_EVENTS.contains( name ) )
+        {
+            path.push( name );
+        }
+        else if ( name.endsWith( "_" ) && !path.isEmpty()
+            && path.peek().equals( name.substring( 0, name.length() - 1 ) ) )
+        {
+            path.pop();
+        }
+    }
+
+    private static List<SinkEventElement> normalize( List<SinkEventElement> events, Set<String> ignoredAttributes )
+    {
+        List<SinkEventElement> result = new ArrayList<>( events.size() );
+        StringBuilder text = null;
+
+        for ( Iterator<SinkEventElement> it = events.iterator(); it.hasNext(); )
+        {
+            SinkEventElement event = it.next();
+            Object[] args = trimArgs( removeAttributes( event.getArgs(), ignoredAttributes ) );
+
+            if ( "text".equals( event.getName() ) && args.length == 1 )
+            {
+                if ( text == null )
+                {
+                    text = new StringBuilder();
+                }
+                text.append( args[0] );
+                continue;
+            }
+
+            addText( result, text );
+            text = null;
+
+            result.add( new SinkEventElement( event.getName(), args ) );
+        }
+
+        addText( result, text );
+
+        return result;
+    }
+
+    private static void addText( List<SinkEventElement> events, StringBuilder text )
+    {
+        if ( text != null && !text.toString().trim().isEmpty() )
+        {
+            events.add( new SinkEventElement( "text", new Object[] {text.toString()} ) );
+        }
+    }
+
+    private static Object[] removeAttributes( Object[] args, Set<String> ignoredAttributes )
+    {
+        if ( args == null || ignoredAttributes.isEmpty() )
+        {
+            return args;
+        }
+
+        Object[] result = args.clone();
+        for ( int i = 0; i < result.length; i++ )
+        {
+            if ( result[i] instanceof AttributeSet )
+            {
+                MutableAttributeSet attributes = new SinkEventAttributeSet( (AttributeSet) result[i] );
+                for ( String name : ignoredAttributes )
+                {
+                    attributes.removeAttribute( name );
+                }
+                result[i] = attributes;
+            }
+        }
+        return result;
+    }
+
+    private static Object[] trimArgs( Object[] args )
+    {
+        if ( args == null )
+        {
+            return new Object[0];
+        }
+
+        int length = args.length;
+        while ( length > 0 && isEmpty( args[length - 1] ) )
+        {
+            length--;
+        }
+        return Arrays.copyOf( args, length );
+    }
+
+    private static boolean isEmpty( Object arg )
+    {
+        return arg == null || ( arg instanceof AttributeSet && ( (AttributeSet) arg ).getAttributeCount() == 0 );
+    }
+
+    private static boolean sameEvent( SinkEventElement expected, SinkEventElement actual )
+    {
+        if ( !expected.getName().equals( actual.getName() ) )
+        {
+            return false;
+        }
+
+        Object[] e = expected.getArgs();
+        Object[] a = actual.getArgs();
+
+        if ( e.length != a.length )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < e.length; i++ )
+        {
+            if ( e[i] instanceof AttributeSet && a[i] instanceof AttributeSet )
+            {
+                if ( !( (AttributeSet) e[i] ).isEqual( (AttributeSet) a[i] ) )
+                {
+                    return false;
+                }
+            }
+            else if ( !Objects.deepEquals( e[i], a[i] ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String toString( SinkEventElement event )
+    {
+        Object[] args = event.getArgs();
+        return args.length == 0 ? event.getName() : event.getName() + Arrays.deepToString( args );
+    }
+}
@@ -0,0 +1,99 @@
+package org.apache.maven.doxia.sink.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link SinkEventDiff}.
+ */
+public class SinkEventDiffTest
+{
+    @Test
+    public void testNormalizedEventsAreEqual()
+    {
+        SinkEventTestingSink expected = new SinkEventTestingSink();
+        expected.paragraph();
+        expected.text( "Hello " );
+        expected.text( "world" );
+        expected.paragraph_();
+
+        SinkEventTestingSink actual = new SinkEventTestingSink();
+        actual.text( "\n  " );
+        actual.paragraph( new SinkEventAttributeSet() );
+        actual.text( "Hello world" );
+        actual.paragraph_();
+
+        assertNull( SinkEventDiff.diff( expected.getEventList(), actual.getEventList() ) );
+    }
+
+    @Test
+    public void testFirstDifference()
+    {
+        SinkEventTestingSink expected = new SinkEventTestingSink();
+        expected.section1();
+        expected.list();
+        expected.listItem();
+        expected.text( "item" );
+        expected.listItem_();
+        expected.list_();
+        expected.section1_();
+
+        SinkEventTestingSink actual = new SinkEventTestingSink();
+        actual.section1();
+        actual.list();
+        actual.listItem();
+        actual.bold();
+        actual.text( "item" );
+        actual.bold_();
+        actual.listItem_();
+        actual.list_();
+        actual.section1_();
+
+        String diff = SinkEventDiff.diff( expected.getEventList(), actual.getEventList() );
+        assertNotNull( diff );
+        assertTrue( diff.contains( "event #3, path /section1/list/listItem" ), diff );
+        assertTrue( diff.contains( "expected: text[item]" ), diff );
+        assertTrue( diff.contains( "actual:   bold" ), diff );
+    }
+
+    @Test
+    public void testIgnoredAttributes()
+    {
+        SinkEventTestingSink expected = new SinkEventTestingSink();
+        expected.tableRow();
+
+        SinkEventTestingSink actual = new SinkEventTestingSink();
+        actual.tableRow( new SinkEventAttributeSet( "class", "a" ) );
+
+        List<SinkEventElement> left = expected.getEventList();
+        List<SinkEventElement> right = actual.getEventList();
+
+        assertNotNull( SinkEventDiff.diff( left, right ) );
+        assertNull( SinkEventDiff.diff( left, right, Collections.singleton( "class" ) ) );
+    }
+}
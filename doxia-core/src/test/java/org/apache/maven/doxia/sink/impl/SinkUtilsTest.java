@@ -27,7 +27,11 @@ import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  *
@@ -87,4 +91,43 @@ public class SinkUtilsTest
         result = SinkUtils.filterAttributes( SinkEventAttributeSet.CENTER, SinkUtils.SINK_BASE_ATTRIBUTES );
         assertEquals( 0, result.getAttributeCount() );
     }
+
+    /**
+     * Test of the precomputed attribute whitelists.
+     */
+    @Test
+    public void testWhitelist()
+    {
+        AttributeWhitelist whitelist = SinkUtils.getWhitelist( SinkUtils.SINK_BASE_ATTRIBUTES );
+        assertSame( whitelist, SinkUtils.getWhitelist( SinkUtils.SINK_BASE_ATTRIBUTES ) );
+        assertTrue( whitelist.allows( SinkEventAttributes.CLASS ) );
+        assertFalse( whitelist.allows( SinkEventAttributes.ALIGN ) );
+        assertFalse( whitelist.allows( "unknown" ) );
+
+        SinkEventAttributeSet conforming = new SinkEventAttributeSet( SinkEventAttributes.ID, "a",
+            SinkEventAttributes.CLASS, "b" );
+        assertTrue( whitelist.conforms( conforming ) );
+        assertSame( conforming, whitelist.filter( conforming ) );
+        assertNull( whitelist.filter( null ) );
+        assertSame( SinkEventAttributeSet.EMPTY, whitelist.filter( SinkEventAttributeSet.CENTER ) );
+
+        SinkEventAttributeSet mixed = new SinkEventAttributeSet( SinkEventAttributes.ID, "a",
+            SinkEventAttributes.ALIGN, "center" );
+        assertFalse( whitelist.conforms( mixed ) );
+        MutableAttributeSet filtered = whitelist.filter( mixed );
+        assertEquals( 1, filtered.getAttributeCount() );
+        assertEquals( "a", filtered.getAttribute( SinkEventAttributes.ID ) );
+        assertEquals( 2, mixed.getAttributeCount() );
+
+        // the copy may be modified
+        MutableAttributeSet copy = SinkUtils.filterAttributes( conforming, SinkUtils.SINK_BASE_ATTRIBUTES );
+        assertNotSame( conforming, copy );
+        copy.addAttribute( SinkEventAttributes.STYLE, "color: red" );
+        assertEquals( 2, conforming.getAttributeCount() );
+
+        // unsorted arrays are supported by whitelists
+        whitelist = SinkUtils.getWhitelist( new String[] {"z", "a"} );
+        assertTrue( whitelist.allows( "z" ) );
+        assertTrue( whitelist.allows( "a" ) );
+    }
 }
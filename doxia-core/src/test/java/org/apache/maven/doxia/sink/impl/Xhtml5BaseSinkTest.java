@@ -1511,6 +1511,49 @@ public class Xhtml5BaseSinkTest
         assertEquals( "raw text", writer.toString() );
     }
 
+    /**
+     * Test of the character range text and CharSequence rawText methods, of class Xhtml5BaseSink.
+     */
+    @Test
+    public void testCharacterRangeText()
+    {
+        String text = "<a> & \"b\" &#38;\r\n\u00c6\ud83d\ude00\rc\nd";
+        char[] buf = ( "xx" + text + "yy" ).toCharArray();
+
+        StringWriter expected = new StringWriter();
+        Xhtml5BaseSink stringSink = new Xhtml5BaseSink( expected );
+        stringSink.text( text );
+        stringSink.verbatim( null );
+        stringSink.text( text );
+        stringSink.verbatim_();
+        stringSink.rawText( text );
+        stringSink.close();
+
+        try
+        {
+            sink = new Xhtml5BaseSink( writer );
+            sink.text( buf, 2, text.length() );
+            sink.verbatim( null );
+            sink.text( buf, 2, text.length() );
+            sink.verbatim_();
+            sink.rawText( new StringBuilder( text ) );
+        }
+        finally
+        {
+            sink.close();
+        }
+
+        assertEquals( expected.toString(), writer.toString() );
+
+        // sinks only implementing the String based events receive them through the default methods
+        SinkEventTestingSink stringOnlySink = new SinkEventTestingSink();
+        stringOnlySink.text( buf, 2, 3 );
+        stringOnlySink.rawText( new StringBuilder( "raw" ) );
+
+        assertEquals( "<a>", stringOnlySink.getEventList().get( 0 ).getArgs()[0] );
+        assertEquals( "raw", stringOnlySink.getEventList().get( 1 ).getArgs()[0] );
+    }
+
     /**
      * Test of comment method, of class Xhtml5BaseSink.
      */
@@ -149,6 +149,11 @@ public class DoxiaUtilsTest
         assertEquals( DoxiaUtils.encodeId( "H\u00E5kon", true ), "Hkon" );
         assertEquals( DoxiaUtils.encodeId( "Theu\u00DFl" ), "Theu.C3.9Fl" );
         assertEquals( DoxiaUtils.encodeId( "Theu\u00DFl", true ), "Theul" );
+        assertEquals( DoxiaUtils.encodeId( "\u0417\u0430\u0433\u043E\u043B\u043E\u0432\u043E\u043A" ),
+                      "a.D0.97.D0.B0.D0.B3.D0.BE.D0.BB.D0.BE.D0.B2.D0.BE.D0.BA" );
+        assertEquals( DoxiaUtils.encodeId( "\u6982\u8981 1" ), "a.E6.A6.82.E8.A6.81_1" );
+        // chars are encoded one by one, surrogates are replaced like String.getBytes() does
+        assertEquals( DoxiaUtils.encodeId( "a\uD808\uDF45" ), "a.3F.3F" );
     }
 
     /**
@@ -0,0 +1,110 @@
+package org.apache.maven.doxia.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Random;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test case for <code>EntityUnescaper</code>.
+ */
+public class EntityUnescaperTest
+{
+    /**
+     * Verify named and numeric references.
+     */
+    @Test
+    public void testUnescape()
+    {
+        EntityUnescaper html = EntityUnescaper.HTML4;
+
+        assertNull( html.unescape( null ) );
+        String plain = "no reference";
+        assertSame( plain, html.unescape( plain ) );
+
+        assertEquals( "<Fran\u00E7ais>", html.unescape( "&lt;Fran&ccedil;ais&gt;" ) );
+        assertEquals( "\u03D1\u2665", html.unescape( "&thetasym;&hearts;" ) );
+        assertEquals( "&apos;", html.unescape( "&apos;" ) );
+        assertEquals( "'", EntityUnescaper.XML.unescape( "&apos;" ) );
+        assertEquals( "&ccedil;", EntityUnescaper.XML.unescape( "&ccedil;" ) );
+
+        assertEquals( "\u00E5\u0159\uD835\uDFED", html.unescape( "&#229;&#x159;&#X1D7ED;" ) );
+        assertEquals( "&#x110000;", html.unescape( "&#x110000;" ) );
+        assertEquals( "&#99999999999;", html.unescape( "&#99999999999;" ) );
+        assertEquals( "&#x; &#; &#xQWER;", html.unescape( "&#x; &#; &#xQWER;" ) );
+        assertEquals( "&lt &amp", html.unescape( "&lt &amp" ) );
+        assertEquals( "&&<", html.unescape( "&&&lt;" ) );
+        assertEquals( "&amp;", html.unescape( "&amp;amp;" ) );
+    }
+
+    /**
+     * Verify the reuse of a buffer on a range of characters.
+     */
+    @Test
+    public void testUnescapeRange()
+    {
+        StringBuilder out = new StringBuilder( "> " );
+        EntityUnescaper.HTML4.unescape( "x&lt;a&gt;x", 1, 10, out );
+        assertEquals( "> <a>", out.toString() );
+    }
+
+    /**
+     * Verify that the results are the ones of commons-text on random input.
+     * Unlike commons-text, references to code points out of range are kept as is.
+     */
+    @Test
+    public void testSameAsStringEscapeUtils()
+    {
+        String[] parts =
+        {
+            "&", ";", "#", "x", "lt", "amp", "nbsp", "eacute", "Eacute", "apos", "1", "22", "x41", "#x", "#9",
+            "#x1d7ed", "#65536", "a", " ", "\uD835\uDFED"
+        };
+
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 10000; i++ )
+        {
+            StringBuilder sb = new StringBuilder();
+            for ( int j = random.nextInt( 12 ); j > 0; j-- )
+            {
+                sb.append( parts[random.nextInt( parts.length )] );
+            }
+            String text = sb.toString();
+
+            String expected;
+            try
+            {
+                expected = StringEscapeUtils.unescapeHtml4( text );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // commons-text fails on code points out of range, they are kept as is
+                continue;
+            }
+
+            assertEquals( expected, EntityUnescaper.HTML4.unescape( text ), text );
+            assertEquals( StringEscapeUtils.unescapeXml( text ), EntityUnescaper.XML.unescape( text ), text );
+        }
+    }
+}
@@ -134,6 +134,10 @@ public class HtmlToolsTest
 
         String url = "\uD808\uDF45";
         assertEquals( HtmlTools.encodeURL( url ), URLEncoder.encode( url, "UTF-8" ) );
+
+        url = "\u00E9\u6982\u8981\u0417";
+        assertEquals( HtmlTools.encodeURL( url ), URLEncoder.encode( url, "UTF-8" ) );
+        assertEquals( HtmlTools.encodeURL( "a\uDF45" ), "a%3F" );
     }
 
     /**
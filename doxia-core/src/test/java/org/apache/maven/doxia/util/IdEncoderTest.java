@@ -0,0 +1,65 @@
+package org.apache.maven.doxia.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test case for <code>IdEncoder</code>.
+ */
+public class IdEncoderTest
+{
+    /**
+     * Verify that ids are the same as DoxiaUtils ones.
+     */
+    @Test
+    public void testEncodeId()
+    {
+        IdEncoder encoder = new IdEncoder();
+
+        assertNull( encoder.encodeId( null ) );
+        assertEquals( "a_b-c123", encoder.encodeId( "a b-c123 " ) );
+        assertEquals( "H.C3.A5kon", encoder.encodeId( "H\u00E5kon" ) );
+        assertSame( encoder.encodeId( "H\u00E5kon" ), encoder.encodeId( "H\u00E5kon" ) );
+
+        assertEquals( "Hkon", new IdEncoder( true ).encodeId( "H\u00E5kon" ) );
+    }
+
+    /**
+     * Verify that duplicate names get distinct valid ids.
+     */
+    @Test
+    public void testUniqueId()
+    {
+        IdEncoder encoder = new IdEncoder();
+
+        assertEquals( "Overview", encoder.uniqueId( "Overview" ) );
+        assertEquals( "Overview_2", encoder.uniqueId( "Overview" ) );
+        assertEquals( "Overview_3", encoder.uniqueId( " Overview " ) );
+        assertEquals( "Overview_2_2", encoder.uniqueId( "Overview_2" ) );
+        assertTrue( DoxiaUtils.isValidId( encoder.uniqueId( "Overview" ) ) );
+
+        encoder.reset();
+
+        assertEquals( "Overview", encoder.uniqueId( "Overview" ) );
+    }
+}
@@ -0,0 +1,153 @@
+package org.apache.maven.doxia.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test case for <code>Utf8Writer</code>.
+ */
+public class Utf8WriterTest
+{
+    /**
+     * Verify that the output matches the JDK encoder, whatever the write method used.
+     *
+     * @throws IOException if something goes wrong.
+     */
+    @Test
+    public void testEncoding()
+        throws IOException
+    {
+        String text = "<p>ASCII, café € 中文 😀 &amp; more</p>\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( Writer writer = new Utf8Writer( out ) )
+        {
+            writer.write( text );
+            writer.write( text.toCharArray(), 0, text.length() );
+            for ( int i = 0; i < text.length(); i++ )
+            {
+                writer.write( text.charAt( i ) );
+            }
+            writer.append( text, 3, 20 );
+        }
+
+        String expected = text + text + text + text.substring( 3, 20 );
+        assertArrayEquals( expected.getBytes( StandardCharsets.UTF_8 ), out.toByteArray() );
+    }
+
+    /**
+     * Verify that large outputs spanning several buffers and split surrogate pairs are encoded correctly.
+     *
+     * @throws IOException if something goes wrong.
+     */
+    @Test
+    public void testBufferBoundaries()
+        throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        while ( sb.length() < 3 * Utf8Writer.BUFFER_SIZE )
+        {
+            sb.append( "abcdefgé😀€" );
+        }
+        String text = sb.toString();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( Writer writer = new Utf8Writer( out ) )
+        {
+            // odd sized chunks split surrogate pairs between calls
+            for ( int i = 0; i < text.length(); i += 9 )
+            {
+                writer.write( text, i, Math.min( 9, text.length() - i ) );
+            }
+        }
+
+        assertArrayEquals( text.getBytes( StandardCharsets.UTF_8 ), out.toByteArray() );
+    }
+
+    /**
+     * Verify that unpaired surrogates are replaced like the JDK encoder does.
+     *
+     * @throws IOException if something goes wrong.
+     */
+    @Test
+    public void testUnpairedSurrogates()
+        throws IOException
+    {
+        String text = "a\ud83db\ude00c\ud83d";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( Writer writer = new Utf8Writer( out ) )
+        {
+            writer.write( text );
+        }
+
+        assertArrayEquals( text.getBytes( StandardCharsets.UTF_8 ), out.toByteArray() );
+    }
+
+    /**
+     * Verify that errors of the underlying stream are reported, and reported again on later calls.
+     *
+     * @throws IOException if something goes wrong.
+     */
+    @Test
+    public void testWriteError()
+        throws IOException
+    {
+        OutputStream failing = new OutputStream()
+        {
+            @Override
+            public void write( int b )
+                throws IOException
+            {
+                throw new IOException( "disk full" );
+            }
+        };
+
+        Writer writer = new Utf8Writer( failing );
+        writer.write( "buffered" );
+
+        IOException e = assertThrows( IOException.class, writer::flush );
+        assertEquals( "disk full", e.getMessage() );
+        assertThrows( IOException.class, () -> writer.write( "more" ) );
+        assertThrows( IOException.class, writer::close );
+    }
+
+    /**
+     * Verify the encoding names handled.
+     */
+    @Test
+    public void testIsUtf8()
+    {
+        assertTrue( Utf8Writer.isUtf8( "UTF-8" ) );
+        assertTrue( Utf8Writer.isUtf8( "utf8" ) );
+        assertFalse( Utf8Writer.isUtf8( "ISO-8859-1" ) );
+        assertFalse( Utf8Writer.isUtf8( "unknown-encoding" ) );
+        assertFalse( Utf8Writer.isUtf8( null ) );
+    }
+}
@@ -125,7 +125,7 @@ public abstract class AbstractXmlValidatorTest
      * </ul>
      * @throws IOException if any
      */
-    protected static Map<String,String> getAllTestDocuments()
+    public static Map<String,String> getAllTestDocuments()
         throws IOException
     {
         if ( CACHE_DOXIA_TEST_DOCUMENTS != null && !CACHE_DOXIA_TEST_DOCUMENTS.isEmpty() )
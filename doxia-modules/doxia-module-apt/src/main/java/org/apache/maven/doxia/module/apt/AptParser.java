@@ -20,7 +20,6 @@ package org.apache.maven.doxia.module.apt;
  */
 
 import javax.inject.Named;
-import javax.inject.Singleton;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
@@ -29,6 +28,7 @@ import org.apache.maven.doxia.parser.AbstractTextParser;
 import org.apache.maven.doxia.parser.ParseException;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.apache.maven.doxia.sink.impl.CoalescingSink;
 import org.apache.maven.doxia.sink.impl.SinkAdapter;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.util.DoxiaUtils;
@@ -42,6 +42,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
@@ -53,7 +54,6 @@ import java.util.StringTokenizer;
  *
  * @since 1.0
  */
-@Singleton
 @Named( "apt" )
 public class AptParser
     extends AbstractTextParser
@@ -167,6 +167,12 @@ public class AptParser
     /** a line of AptSource. */
     protected String line;
 
+    /** the text being traversed, reused across the calls to {@link #doTraverseText(String, int, int, Sink)}. */
+    private char[] traversed = new char[256];
+
+    /** the number of characters in {@link #traversed}. */
+    private int traversedLength;
+
     private static final int NUMBER_OF_SPACES = 85;
 
     static
@@ -179,6 +185,14 @@ public class AptParser
         }
     }
 
+    /**
+     * Text events are merged by default, as the text of a paragraph is emitted in runs.
+     */
+    public AptParser()
+    {
+        setCoalesceText( true );
+    }
+
     // ----------------------------------------------------------------------
     // Public methods
     // ----------------------------------------------------------------------
@@ -213,7 +227,8 @@ public class AptParser
         {
             this.source = new AptReaderSource( new StringReader( sourceContent ), reference );
 
-            this.sink = sink;
+            Sink target = startDocument( sink );
+            this.sink = isCoalesceText() ? new CoalescingSink( target ) : target;
 
             blockFileName = null;
 
@@ -234,12 +249,33 @@ public class AptParser
 
             traverseHead();
 
-            traverseBody();
+            if ( !isHeadParsed() )
+            {
+                traverseBody();
+            }
+
+            if ( this.sink instanceof CoalescingSink )
+            {
+                ( (CoalescingSink) this.sink ).flushText();
+            }
+
+            awaitMacros();
+
+            String violation = getBudgetViolation();
+            if ( violation != null )
+            {
+                // exceeded by the last events of the document
+                throw new AptParseException( violation );
+            }
         }
         catch ( AptParseException ape )
         {
             // TODO handle column number
-            throw new AptParseException( null, ape, getSourceName(), getSourceLineNumber(), -1 );
+            throw new AptParseException( ape.getMessage(), ape, getSourceName(), getSourceLineNumber(), -1 );
+        }
+        catch ( MacroExecutionException e )
+        {
+            throw new AptParseException( "Unable to execute macro in the APT document", e );
         }
         finally
         {
@@ -302,7 +338,8 @@ public class AptParser
         boolean italic = false;
         boolean bold = false;
         boolean monospaced = false;
-        StringBuilder buffer = new StringBuilder( end - begin );
+        // nested traversals, eg of link anchors, start after the pending text of the enclosing one
+        int mark = traversedLength;
 
         for ( int i = begin; i < end; ++i )
         {
@@ -317,7 +354,7 @@ public class AptParser
                         {
                             case SPACE:
                                 ++i;
-                                flushTraversed( buffer, sink );
+                                flushTraversed( mark, sink );
                                 sink.nonBreakingSpace();
                                 break;
                             case '\r':
@@ -328,7 +365,7 @@ public class AptParser
                                 {
                                     ++i;
                                 }
-                                flushTraversed( buffer, sink );
+                                flushTraversed( mark, sink );
                                 sink.lineBreak();
                                 break;
                             case BACKSLASH:
@@ -345,7 +382,7 @@ public class AptParser
                             case LEFT_CURLY_BRACKET:
                             case RIGHT_CURLY_BRACKET:
                                 ++i;
-                                buffer.append( escaped );
+                                appendTraversed( escaped );
                                 break;
                             case 'x':
                                 if ( i + 3 < end && isHexChar( text.charAt( i + 2 ) )
@@ -362,11 +399,11 @@ public class AptParser
                                     }
 
                                     i += 3;
-                                    buffer.append( (char) value );
+                                    appendTraversed( (char) value );
                                 }
                                 else
                                 {
-                                    buffer.append( BACKSLASH );
+                                    appendTraversed( BACKSLASH );
                                 }
                                 break;
                             case 'u':
@@ -385,11 +422,11 @@ public class AptParser
                                     }
 
                                     i += 5;
-                                    buffer.append( (char) value );
+                                    appendTraversed( (char) value );
                                 }
                                 else
                                 {
-                                    buffer.append( BACKSLASH );
+                                    appendTraversed( BACKSLASH );
                                 }
                                 break;
                             default:
@@ -415,17 +452,17 @@ public class AptParser
                                     }
 
                                     i += octalChars;
-                                    buffer.append( (char) value );
+                                    appendTraversed( (char) value );
                                 }
                                 else
                                 {
-                                    buffer.append( BACKSLASH );
+                                    appendTraversed( BACKSLASH );
                                 }
                         }
                     }
                     else
                     {
-                        buffer.append( BACKSLASH );
+                        appendTraversed( BACKSLASH );
                     }
                     break;
 
@@ -436,7 +473,7 @@ public class AptParser
                         {
                             ++i;
                             link = true;
-                            flushTraversed( buffer, sink );
+                            flushTraversed( mark, sink );
 
                             String linkAnchor = null;
 
@@ -490,7 +527,7 @@ public class AptParser
                         else
                         {
                             anchor = true;
-                            flushTraversed( buffer, sink );
+                            flushTraversed( mark, sink );
 
                             String linkAnchor = getTraversedAnchor( text, i + 1, end );
 
@@ -501,7 +538,7 @@ public class AptParser
                     }
                     else
                     {
-                        buffer.append( c );
+                        appendTraversed( c );
                     }
                     break;
 
@@ -510,18 +547,18 @@ public class AptParser
                     {
                         ++i;
                         link = false;
-                        flushTraversed( buffer, sink );
+                        flushTraversed( mark, sink );
                         sink.link_();
                     }
                     else if ( anchor )
                     {
                         anchor = false;
-                        flushTraversed( buffer, sink );
+                        flushTraversed( mark, sink );
                         sink.anchor_();
                     }
                     else
                     {
-                        buffer.append( c );
+                        appendTraversed( c );
                     }
                     break;
 
@@ -534,27 +571,27 @@ public class AptParser
                             {
                                 i += 2;
                                 monospaced = true;
-                                flushTraversed( buffer, sink );
+                                flushTraversed( mark, sink );
                                 sink.monospaced();
                             }
                             else
                             {
                                 ++i;
                                 bold = true;
-                                flushTraversed( buffer, sink );
+                                flushTraversed( mark, sink );
                                 sink.bold();
                             }
                         }
                         else
                         {
                             italic = true;
-                            flushTraversed( buffer, sink );
+                            flushTraversed( mark, sink );
                             sink.italic();
                         }
                     }
                     else
                     {
-                        buffer.append( c );
+                        appendTraversed( c );
                     }
                     break;
 
@@ -564,32 +601,32 @@ public class AptParser
                     {
                         i += 2;
                         monospaced = false;
-                        flushTraversed( buffer, sink );
+                        flushTraversed( mark, sink );
                         sink.monospaced_();
                     }
                     else if ( bold && i + 1 < end && text.charAt( i + 1 ) == GREATER_THAN )
                     {
                         ++i;
                         bold = false;
-                        flushTraversed( buffer, sink );
+                        flushTraversed( mark, sink );
                         sink.bold_();
                     }
                     else if ( italic )
                     {
                         italic = false;
-                        flushTraversed( buffer, sink );
+                        flushTraversed( mark, sink );
                         sink.italic_();
                     }
                     else
                     {
-                        buffer.append( c );
+                        appendTraversed( c );
                     }
                     break;
 
                 default:
                     if ( Character.isWhitespace( c ) )
                     {
-                        buffer.append( SPACE );
+                        appendTraversed( SPACE );
 
                         // Skip to the last char of a sequence of white spaces.
                         while ( i + 1 < end && Character.isWhitespace( text.charAt( i + 1 ) ) )
@@ -599,7 +636,7 @@ public class AptParser
                     }
                     else
                     {
-                        buffer.append( c );
+                        appendTraversed( c );
                     }
             }
         }
@@ -625,7 +662,7 @@ public class AptParser
             throw new AptParseException( "missing '" + ANCHOR_END_MARKUP + "'" );
         }
 
-        flushTraversed( buffer, sink );
+        flushTraversed( mark, sink );
     }
 
     // -----------------------------------------------------------------------
@@ -713,6 +750,7 @@ public class AptParser
         this.blockFileName = null;
         this.blockLineNumber = 0;
         this.line = null;
+        this.traversedLength = 0;
     }
 
     // ----------------------------------------------------------------------
@@ -1197,6 +1235,12 @@ public class AptParser
     private void nextBlock( boolean firstBlock )
         throws AptParseException
     {
+        String violation = getBudgetViolation();
+        if ( violation != null )
+        {
+            throw new AptParseException( violation );
+        }
+
         // Skip open lines.
         int length, indent, i;
 
@@ -1423,18 +1467,34 @@ public class AptParser
     }
 
     /**
-     * Emits the text so far parsed into the given sink.
+     * Appends a character to the text being traversed.
+     *
+     * @param c the character.
+     */
+    private void appendTraversed( char c )
+    {
+        if ( traversedLength == traversed.length )
+        {
+            traversed = Arrays.copyOf( traversed, traversedLength * 2 );
+        }
+
+        traversed[traversedLength++] = c;
+    }
+
+    /**
+     * Emits the text so far traversed into the given sink, straight from the reused buffer.
      *
-     * @param buffer A StringBuilder that contains the text to be flushed.
+     * @param mark The offset of the text to emit in the buffer.
      * @param sink The sink to receive the text.
      */
-    private static void flushTraversed( StringBuilder buffer, Sink sink )
+    private void flushTraversed( int mark, Sink sink )
     {
-        if ( buffer.length() > 0 )
+        if ( traversedLength > mark )
         {
-            sink.text( buffer.toString() );
-            buffer.setLength( 0 );
+            sink.text( traversed, mark, traversedLength - mark );
         }
+
+        traversedLength = mark;
     }
 
     /**
@@ -2139,6 +2199,11 @@ public class AptParser
         public void traverse()
             throws AptParseException
         {
+            if ( !isConsumed( AptParser.this.sink, Sink.EVENTS_TEXT ) )
+            {
+                return;
+            }
+
             AptParser.this.sink.paragraph();
             traverseText( skipSpaceFrom( 0 ) );
             AptParser.this.sink.paragraph_();
@@ -2257,6 +2322,11 @@ public class AptParser
         public void traverse()
             throws AptParseException
         {
+            if ( !isConsumed( AptParser.this.sink, Sink.EVENTS_TEXT ) )
+            {
+                return;
+            }
+
             AptParser.this.sink.verbatim( boxed ? SinkEventAttributeSet.BOXED : null );
             AptParser.this.sink.text( text );
             AptParser.this.sink.verbatim_();
@@ -2284,6 +2354,11 @@ public class AptParser
         public void traverse()
             throws AptParseException
         {
+            if ( !isConsumed( AptParser.this.sink, Sink.EVENTS_TEXT ) )
+            {
+                return;
+            }
+
             AptParser.this.sink.figure();
 
             int i = skipFromLeftToRightBracket( 0 );
@@ -2332,6 +2407,12 @@ public class AptParser
             boolean[] headers = null;
             boolean grid;
 
+            if ( !isConsumed( AptParser.this.sink, Sink.EVENTS_TABLES ) )
+            {
+                // spare the layout of the cells
+                return;
+            }
+
             AptParser.this.sink.table();
 
             while ( nextLineIndex < textLength )
@@ -2630,7 +2711,10 @@ public class AptParser
         public void traverse()
             throws AptParseException
         {
-            traverseText( skipLeadingBullets() );
+            if ( isConsumed( AptParser.this.sink, Sink.EVENTS_TEXT ) )
+            {
+                traverseText( skipLeadingBullets() );
+            }
         }
     }
 
@@ -2670,7 +2754,10 @@ public class AptParser
         public void traverse()
             throws AptParseException
         {
-            traverseText( skipItemNumber() );
+            if ( isConsumed( AptParser.this.sink, Sink.EVENTS_TEXT ) )
+            {
+                traverseText( skipItemNumber() );
+            }
         }
 
         /**
@@ -2727,9 +2814,13 @@ public class AptParser
         {
             int i = skipSpaceFrom( 0 );
             int j = skipFromLeftToRightBracket( i );
+            boolean consumed = isConsumed( AptParser.this.sink, Sink.EVENTS_TEXT );
 
             AptParser.this.sink.definedTerm();
-            traverseText( i + 1, j );
+            if ( consumed )
+            {
+                traverseText( i + 1, j );
+            }
             AptParser.this.sink.definedTerm_();
 
             j = skipSpaceFrom( j + 1 );
@@ -2740,7 +2831,10 @@ public class AptParser
             }
 
             AptParser.this.sink.definition();
-            traverseText( j );
+            if ( consumed )
+            {
+                traverseText( j );
+            }
         }
     }
 
@@ -2817,7 +2911,7 @@ public class AptParser
         public void traverse()
             throws AptParseException
         {
-            if ( isSecondParsing() )
+            if ( isSecondParsing() || !isConsumed( sink, Sink.EVENTS_MACROS ) )
             {
                 return;
             }
@@ -2850,9 +2944,7 @@ public class AptParser
                 parameters.put( key, value );
             }
 
-            // getBasedir() does not work in multi-module builds, see DOXIA-373
-            // the basedir should be injected from here, see DOXIA-224
-            MacroRequest request = new MacroRequest( sourceContent, new AptParser(), parameters, getBasedir() );
+            MacroRequest request = createMacroRequest( sourceContent, new AptParser(), parameters );
             try
             {
                 AptParser.this.executeMacro( macroId, request, sink );
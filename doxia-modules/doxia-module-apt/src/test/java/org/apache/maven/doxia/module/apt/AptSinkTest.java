@@ -19,6 +19,7 @@ package org.apache.maven.doxia.module.apt;
  * under the License.
  */
 
+import java.io.StringWriter;
 import java.io.Writer;
 
 import org.apache.maven.doxia.markup.Markup;
@@ -474,4 +475,31 @@ public class AptSinkTest extends AbstractSinkTest
 
         assertEquals( expected, getSinkContent(), "Wrong justification in table cells" );
     }
+
+    /**
+     * Character range text must give the same output as String text.
+     */
+    @Test
+    public void testCharacterRangeText()
+    {
+        String text = "~=-+*[]<>{}\\ text\r\nnext\rline";
+        char[] buf = ( "--" + text + "--" ).toCharArray();
+
+        StringWriter expected = new StringWriter();
+        Sink stringSink = createSink( expected );
+        stringSink.paragraph();
+        stringSink.text( text );
+        stringSink.paragraph_();
+        stringSink.rawText( text );
+        stringSink.close();
+
+        final Sink sink = getSink();
+        sink.paragraph();
+        sink.text( buf, 2, text.length() );
+        sink.paragraph_();
+        sink.rawText( new StringBuilder( text ) );
+        sink.close();
+
+        assertEquals( expected.toString(), getSinkContent() );
+    }
 }
@@ -0,0 +1,101 @@
+package org.apache.maven.doxia.module.apt;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.doxia.index.IndexEntry;
+import org.apache.maven.doxia.index.IndexSource;
+import org.apache.maven.doxia.index.SiteIndex;
+import org.apache.maven.doxia.index.SiteIndexer;
+import org.apache.maven.doxia.parser.ParseContext;
+import org.codehaus.plexus.testing.PlexusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test the site indexer with APT documents.
+ */
+@PlexusTest
+public class AptSiteIndexerTest
+{
+    @Inject
+    private SiteIndexer siteIndexer;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testIndex()
+        throws Exception
+    {
+        List<IndexSource> sources = new ArrayList<>();
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            String content = " -----" + System.lineSeparator() + " Page " + i + System.lineSeparator() + " -----"
+                + System.lineSeparator() + System.lineSeparator() + "Section " + i + System.lineSeparator()
+                + System.lineSeparator() + " Text." + System.lineSeparator() + System.lineSeparator()
+                + "* Sub Section" + System.lineSeparator() + System.lineSeparator() + " More text."
+                + System.lineSeparator();
+
+            sources.add( new IndexSource( "page" + i + ".html", writeFile( "page" + i + ".apt", content ), "apt" ) );
+        }
+
+        SiteIndex index = siteIndexer.index( sources, new ParseContext( tempDir.toFile() ), 4 );
+
+        assertEquals( 20, index.getDocuments().size() );
+        assertEquals( "page0.html", index.getDocuments().iterator().next() );
+
+        IndexEntry section = index.resolve( "Section_7" );
+        assertEquals( "Section 7", section.getTitle() );
+        assertEquals( "page7.html", index.getDocumentReference( section ) );
+        assertSame( index.getDocumentIndex( "page7.html" ).getFirstEntry(), section );
+
+        // anchor used by all documents
+        assertEquals( 20, index.getEntries( "Sub_Section" ).size() );
+        assertEquals( "page0.html", index.getDocumentReference( index.resolve( "Sub_Section" ) ) );
+        assertSame( section.getFirstEntry(), index.resolve( "page7.html", "Sub_Section" ) );
+
+        assertNull( index.resolve( "unknown" ) );
+        assertNull( index.resolve( "page7.html", "Section_8" ) );
+        assertEquals( 21, index.getAnchorCount() );
+    }
+
+    private File writeFile( String name, String content )
+        throws IOException
+    {
+        Path file = tempDir.resolve( name );
+        Files.write( file, content.getBytes( StandardCharsets.UTF_8 ) );
+        return file.toFile();
+    }
+}
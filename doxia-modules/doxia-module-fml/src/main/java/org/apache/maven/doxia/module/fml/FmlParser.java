@@ -28,7 +28,6 @@ import java.util.Iterator;
 import java.util.Map;
 
 import javax.inject.Named;
-import javax.inject.Singleton;
 import javax.swing.text.html.HTML.Attribute;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
@@ -58,7 +57,6 @@ import org.slf4j.LoggerFactory;
  * @author ltheussl
  * @since 1.0
  */
-@Singleton
 @Named( "fml" )
 public class FmlParser
     extends AbstractXmlParser
@@ -87,6 +85,9 @@ public class FmlParser
     /** The macro parameters. */
     private Map<String, Object> macroParameters = new HashMap<>();
 
+    /** In head-only mode, whether the root element holding the title has been parsed. */
+    private boolean headParsed;
+
     /** {@inheritDoc} */
     public void parse( Reader source, Sink sink, String reference )
         throws ParseException
@@ -143,6 +144,8 @@ public class FmlParser
                 faqs.setTitle( title );
             }
 
+            headParsed = isHeadOnly();
+
             String toplink = parser.getAttributeValue( null, "toplink" );
 
             if ( toplink != null )
@@ -431,6 +434,18 @@ public class FmlParser
         this.buffer = null;
         this.macroName = null;
         this.macroParameters = null;
+        this.headParsed = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The events are only emitted once the whole document is parsed, the head consists of the title
+     * attribute of the root element.
+     */
+    protected boolean isHeadParsed()
+    {
+        return headParsed;
     }
 
     /**
@@ -472,8 +487,7 @@ public class FmlParser
         {
             if ( StringUtils.isNotEmpty( macroName ) )
             {
-                MacroRequest request =
-                    new MacroRequest( sourceContent, new FmlParser(), macroParameters, getBasedir() );
+                MacroRequest request = createMacroRequest( sourceContent, new FmlParser(), macroParameters );
 
                 try
                 {
@@ -540,6 +554,10 @@ public class FmlParser
         throws ParseException
     {
         FmlContentParser xdocParser = new FmlContentParser();
+        xdocParser.setCoalesceText( isCoalesceText() );
+
+        // only the part titles are structure, the rest is not re-parsed if the sink ignores it
+        boolean parseText = isConsumed( sink, Sink.EVENTS_TEXT );
 
         sink.head();
         sink.title();
@@ -547,6 +565,11 @@ public class FmlParser
         sink.title_();
         sink.head_();
 
+        if ( isHeadOnly() )
+        {
+            return;
+        }
+
         sink.body();
         sink.section1();
         sink.sectionTitle1();
@@ -565,7 +588,10 @@ public class FmlParser
             {
                 sink.paragraph();
                 sink.inline( SinkEventAttributeSet.Semantics.BOLD );
-                xdocParser.parse( part.getTitle(), sink );
+                if ( parseText )
+                {
+                    xdocParser.parse( part.getTitle(), sink );
+                }
                 sink.inline_();
                 sink.paragraph_();
             }
@@ -577,13 +603,13 @@ public class FmlParser
                 sink.numberedListItem();
                 sink.link( "#" + faq.getId() );
 
-                if ( StringUtils.isNotEmpty( faq.getQuestion() ) )
+                if ( StringUtils.isEmpty( faq.getQuestion() ) )
                 {
-                    xdocParser.parse( faq.getQuestion(), sink );
+                    throw new ParseException( "Missing <question> for FAQ '" + faq.getId() + "'" );
                 }
-                else
+                else if ( parseText )
                 {
-                    throw new ParseException( "Missing <question> for FAQ '" + faq.getId() + "'" );
+                    xdocParser.parse( faq.getQuestion(), sink );
                 }
 
                 sink.link_();
@@ -619,13 +645,13 @@ public class FmlParser
                 sink.definedTerm();
                 sink.anchor( faq.getId() );
 
-                if ( StringUtils.isNotEmpty( faq.getQuestion() ) )
+                if ( StringUtils.isEmpty( faq.getQuestion() ) )
                 {
-                    xdocParser.parse( faq.getQuestion(), sink );
+                    throw new ParseException( "Missing <question> for FAQ '" + faq.getId() + "'" );
                 }
-                else
+                else if ( parseText )
                 {
-                    throw new ParseException( "Missing <question> for FAQ '" + faq.getId() + "'" );
+                    xdocParser.parse( faq.getQuestion(), sink );
                 }
 
                 sink.anchor_();
@@ -633,13 +659,13 @@ public class FmlParser
 
                 sink.definition();
 
-                if ( StringUtils.isNotEmpty( faq.getAnswer() ) )
+                if ( StringUtils.isEmpty( faq.getAnswer() ) )
                 {
-                    xdocParser.parse( faq.getAnswer(), sink );
+                    throw new ParseException( "Missing <answer> for FAQ '" + faq.getId() + "'" );
                 }
-                else
+                else if ( parseText )
                 {
-                    throw new ParseException( "Missing <answer> for FAQ '" + faq.getId() + "'" );
+                    xdocParser.parse( faq.getAnswer(), sink );
                 }
 
                 if ( faqs.isToplink() )
@@ -159,6 +159,30 @@ public class FmlParserTest
         assertFalse( it.hasNext() );
     }
 
+    /** @throws Exception */
+    @Test
+    public void testHeadOnly()
+        throws Exception
+    {
+        // the malformed part is never read
+        final String text = "<faqs title=\"Frequently Asked Questions\"><part id=\"General\"><title>General</faqs>";
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+
+        parser.setValidate( false );
+        parser.setHeadOnly( true );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "head", ( it.next() ).getName() );
+        assertEquals( "title", ( it.next() ).getName() );
+        assertTextEvent( it.next(), "Frequently Asked Questions" );
+        assertEquals( "title_", ( it.next() ).getName() );
+        assertEquals( "head_", ( it.next() ).getName() );
+        assertFalse( it.hasNext() );
+    }
+
     /** @throws Exception */
     @Test
     public void testEntities()
@@ -198,6 +222,101 @@ public class FmlParserTest
         assertEquals( "paragraph", ( it.next() ).getName() );
         assertEquals( "inline", ( it.next() ).getName() );
 
+        // part title in TOC
+        assertTextEvent( it.next(), "<\u0391" );
+
+        assertEquals( "inline_", ( it.next() ).getName() );
+        assertEquals( "paragraph_", ( it.next() ).getName() );
+        assertEquals( "numberedList", ( it.next() ).getName() );
+        assertEquals( "numberedListItem", ( it.next() ).getName() );
+        assertEquals( "link", ( it.next() ).getName() );
+
+        // question in TOC
+        assertTextEvent( it.next(), ">\u0391" );
+
+        assertEquals( "link_", ( it.next() ).getName() );
+        assertEquals( "numberedListItem_", ( it.next() ).getName() );
+        assertEquals( "numberedList_", ( it.next() ).getName() );
+        assertEquals( "section1_", ( it.next() ).getName() );
+        assertEquals( "section1", ( it.next() ).getName() );
+        assertEquals( "sectionTitle1", ( it.next() ).getName() );
+
+        // part title
+        assertTextEvent( it.next(), "<\u0391" );
+
+        assertEquals( "sectionTitle1_", ( it.next() ).getName() );
+        assertEquals( "definitionList", ( it.next() ).getName() );
+        assertEquals( "definedTerm", ( it.next() ).getName() );
+        assertEquals( "anchor", ( it.next() ).getName() );
+
+        // question
+        assertTextEvent( it.next(), ">\u0391" );
+
+        assertEquals( "anchor_", ( it.next() ).getName() );
+        assertEquals( "definedTerm_", ( it.next() ).getName() );
+        assertEquals( "definition", ( it.next() ).getName() );
+        assertEquals( "paragraph", ( it.next() ).getName() );
+
+        // answer
+        assertEquals( "inline", ( it.next() ).getName() );
+        assertTextEvent( it.next(), "<img>" );
+        assertEquals( "inline_", ( it.next() ).getName() );
+        assertTextEvent( it.next(), "\"\u0391" );
+
+        assertEquals( "paragraph_", ( it.next() ).getName() );
+        assertEquals( "paragraph", ( it.next() ).getName() );
+        assertEquals( "link", ( it.next() ).getName() );
+        assertEquals( "text", ( it.next() ).getName() );
+        assertEquals( "link_", ( it.next() ).getName() );
+        assertEquals( "paragraph_", ( it.next() ).getName() );
+        assertEquals( "definition_", ( it.next() ).getName() );
+        assertEquals( "definitionList_", ( it.next() ).getName() );
+        assertEquals( "section1_", ( it.next() ).getName() );
+        assertEquals( "body_", ( it.next() ).getName() );
+
+        assertFalse( it.hasNext() );
+    }
+
+    /** @throws Exception */
+    @Test
+    public void testEntitiesWithoutCoalescing()
+        throws Exception
+    {
+        final String text = "<!DOCTYPE test [<!ENTITY Alpha \"&#913;\">]>"
+                + "<faqs title=\"&amp;&Alpha;\"><part id=\"General\"><title>&lt;&Alpha;</title>"
+                + "<faq id=\"id\"><question>&gt;&Alpha;</question>"
+                + "<answer><p><code>&lt;img&gt;</code>&quot;&Alpha;</p></answer>"
+                + "</faq></part></faqs>";
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+
+        parser.setCoalesceText( false );
+        parser.setValidate( false );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "head", ( it.next() ).getName() );
+        assertEquals( "title", ( it.next() ).getName() );
+
+        // head title TODO: should be two events
+        assertTextEvent( it.next(), "&&#913;" );
+
+        assertEquals( "title_", ( it.next() ).getName() );
+        assertEquals( "head_", ( it.next() ).getName() );
+        assertEquals( "body", ( it.next() ).getName() );
+        assertEquals( "section1", ( it.next() ).getName() );
+        assertEquals( "sectionTitle1", ( it.next() ).getName() );
+        assertEquals( "anchor", ( it.next() ).getName() );
+
+        // faq title TODO: should be two events
+        assertTextEvent( it.next(), "&&#913;" );
+
+        assertEquals( "anchor_", ( it.next() ).getName() );
+        assertEquals( "sectionTitle1_", ( it.next() ).getName() );
+        assertEquals( "paragraph", ( it.next() ).getName() );
+        assertEquals( "inline", ( it.next() ).getName() );
+
         // part title in TOC
         assertTextEvent( it.next(), "<" );
         assertTextEvent( it.next(), "\u0391" );
@@ -0,0 +1,190 @@
+package org.apache.maven.doxia.module.markdown;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.vladsch.flexmark.ext.abbreviation.AbbreviationExtension;
+import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
+import com.vladsch.flexmark.ext.definition.DefinitionExtension;
+import com.vladsch.flexmark.ext.escaped.character.EscapedCharacterExtension;
+import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
+import com.vladsch.flexmark.ext.tables.TablesExtension;
+import com.vladsch.flexmark.ext.typographic.TypographicExtension;
+import com.vladsch.flexmark.ext.wikilink.WikiLinkExtension;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+
+/**
+ * The sets of Flexmark extensions the {@link MarkdownParser} can be configured with.
+ * <p>
+ * Every extension adds block or inline processors that run on each document, whether it uses the
+ * corresponding syntax or not: sites that only need plain CommonMark, or GitHub flavored Markdown,
+ * can choose a smaller profile than the default Pegdown compatible one.
+ * The Flexmark parser and renderer of a profile are built the first time it is used, then shared
+ * by all documents.
+ *
+ * @since 2.0.0
+ */
+public enum FlexmarkProfile
+{
+    /**
+     * Plain CommonMark, without any extension.
+     */
+    MINIMAL
+    {
+        @Override
+        void configure( MutableDataSet options )
+        {
+            // CommonMark core only
+        }
+    },
+
+    /**
+     * The extensions we used to have with Pegdown, before 1.8: this is the default profile.
+     */
+    PEGDOWN
+    {
+        @Override
+        void configure( MutableDataSet options )
+        {
+            options.set( Parser.EXTENSIONS, Arrays.asList(
+                    EscapedCharacterExtension.create(),
+                    AbbreviationExtension.create(),
+                    AutolinkExtension.create(),
+                    DefinitionExtension.create(),
+                    TypographicExtension.create(),
+                    TablesExtension.create(),
+                    WikiLinkExtension.create(),
+                    StrikethroughExtension.create()
+            ) );
+
+            // Disable wrong apostrophe replacement
+            options.set( TypographicExtension.SINGLE_QUOTE_UNMATCHED, "&apos;" );
+        }
+    },
+
+    /**
+     * GitHub flavored Markdown: tables, strikethrough and autolinks.
+     */
+    GFM
+    {
+        @Override
+        void configure( MutableDataSet options )
+        {
+            options.set( Parser.EXTENSIONS, Arrays.asList(
+                    EscapedCharacterExtension.create(),
+                    AutolinkExtension.create(),
+                    TablesExtension.create(),
+                    StrikethroughExtension.create()
+            ) );
+
+            // GitHub table rules
+            options.set( TablesExtension.COLUMN_SPANS, false );
+            options.set( TablesExtension.APPEND_MISSING_COLUMNS, true );
+            options.set( TablesExtension.DISCARD_EXTRA_COLUMNS, true );
+            options.set( TablesExtension.HEADER_SEPARATOR_COLUMN_MATCH, true );
+        }
+    };
+
+    /** Flexmark's Markdown parser for this profile, built on first use. */
+    private volatile Parser parser;
+
+    /** Flexmark's HTML renderer for this profile, built on first use. */
+    private volatile HtmlRenderer renderer;
+
+    /**
+     * Adds the extensions of this profile, and their options, to the Flexmark options.
+     *
+     * @param options the Flexmark options.
+     */
+    abstract void configure( MutableDataSet options );
+
+    /**
+     * @return the Flexmark Markdown parser of this profile, shared by all documents.
+     */
+    Parser getParser()
+    {
+        if ( parser == null )
+        {
+            build();
+        }
+        return parser;
+    }
+
+    /**
+     * @return the Flexmark HTML renderer of this profile, shared by all documents.
+     */
+    HtmlRenderer getRenderer()
+    {
+        if ( renderer == null )
+        {
+            build();
+        }
+        return renderer;
+    }
+
+    private synchronized void build()
+    {
+        if ( parser != null )
+        {
+            return;
+        }
+
+        MutableDataSet options = new MutableDataSet();
+
+        configure( options );
+
+        // Additional options on the HTML rendering
+        options.set( HtmlRenderer.HTML_BLOCK_OPEN_TAG_EOL, false );
+        options.set( HtmlRenderer.HTML_BLOCK_CLOSE_TAG_EOL, false );
+        options.set( HtmlRenderer.MAX_TRAILING_BLANK_LINES, -1 );
+
+        // renderer first: a non null parser means both are built
+        renderer = HtmlRenderer.builder( options )
+                .linkResolverFactory( new FlexmarkDoxiaLinkResolver.Factory() )
+                .build();
+
+        parser = Parser.builder( options ).build();
+    }
+
+    /**
+     * Returns the profile with the given name, ignoring case: <code>minimal</code>, <code>pegdown</code>
+     * or <code>gfm</code>.
+     *
+     * @param name the name of the profile, not null.
+     * @return the profile with the given name.
+     * @throws IllegalArgumentException if there is no profile with that name.
+     */
+    public static FlexmarkProfile forName( String name )
+    {
+        try
+        {
+            return valueOf( name.trim().toUpperCase( Locale.ENGLISH ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new IllegalArgumentException( "Unknown Markdown profile '" + name + "', expected one of "
+                + Arrays.toString( values() ).toLowerCase( Locale.ENGLISH ), e );
+        }
+    }
+}
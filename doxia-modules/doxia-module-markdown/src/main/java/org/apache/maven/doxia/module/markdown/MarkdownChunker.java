@@ -0,0 +1,202 @@
+package org.apache.maven.doxia.module.markdown;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a Markdown document into chunks of top-level blocks, so that a very large document can be
+ * converted one chunk at a time.
+ * <p>
+ * A chunk ends once it has reached the chunk size, before an ATX heading or before a paragraph starting
+ * after a blank line, and never inside a fenced code block. Lines that could continue a list, a block quote,
+ * an indented code block or a table never start a chunk.
+ */
+class MarkdownChunker
+{
+    /** The default minimal size of a chunk, in chars. */
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /** An ATX heading. */
+    private static final Pattern ATX_HEADING = Pattern.compile( "#{1,6}(?:[ \\t].*)?" );
+
+    /** A reference link or abbreviation definition, on a single line. */
+    private static final Pattern DEFINITION = Pattern.compile( " {0,3}\\*?\\[[^\\]]+\\]:.*" );
+
+    private final BufferedReader in;
+
+    private final int chunkSize;
+
+    /** The fence tracking of the chunked lines. */
+    private final Fence fence = new Fence();
+
+    /** The first line of the next chunk, already read. */
+    private String pending;
+
+    /**
+     * @param in the Markdown source.
+     * @param chunkSize the minimal size of a chunk, in chars.
+     */
+    MarkdownChunker( BufferedReader in, int chunkSize )
+    {
+        this.in = in;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Copies the Markdown source, and collects the reference link and abbreviation definitions
+     * found outside of fenced code blocks.
+     *
+     * @param source the Markdown source.
+     * @param out the writer to copy the source to.
+     * @return the definitions, one per line.
+     * @throws IOException if the source cannot be read or copied.
+     */
+    static String spool( Reader source, Writer out )
+        throws IOException
+    {
+        StringBuilder definitions = new StringBuilder();
+        Fence fence = new Fence();
+
+        BufferedReader reader = new BufferedReader( source );
+        String line;
+
+        while ( ( line = reader.readLine() ) != null )
+        {
+            out.write( line );
+            out.write( '\n' );
+
+            if ( !fence.update( line ) && DEFINITION.matcher( line ).matches() )
+            {
+                definitions.append( line ).append( '\n' );
+            }
+        }
+
+        return definitions.toString();
+    }
+
+    /**
+     * @return the next chunk, its lines terminated by <code>'\n'</code>, or null at the end of the document.
+     * @throws IOException if the source cannot be read.
+     */
+    String nextChunk()
+        throws IOException
+    {
+        StringBuilder chunk = new StringBuilder();
+        boolean previousBlank = false;
+        String line;
+
+        while ( ( line = ( pending != null ) ? pending : in.readLine() ) != null )
+        {
+            pending = null;
+
+            if ( chunk.length() >= chunkSize && !fence.isOpen() && isChunkStart( line, previousBlank ) )
+            {
+                pending = line;
+                break;
+            }
+
+            chunk.append( line ).append( '\n' );
+            fence.update( line );
+            previousBlank = line.trim().isEmpty();
+        }
+
+        return ( chunk.length() == 0 ) ? null : chunk.toString();
+    }
+
+    private static boolean isChunkStart( String line, boolean previousBlank )
+    {
+        if ( line.isEmpty() )
+        {
+            return false;
+        }
+
+        if ( ATX_HEADING.matcher( line ).matches() )
+        {
+            return true;
+        }
+
+        // a paragraph after a blank line, not indented: it ends any list, quote or indented code
+        return previousBlank && Character.isLetter( line.charAt( 0 ) );
+    }
+
+    /**
+     * Tracks fenced code blocks, opened and closed by <code>```</code> or <code>~~~</code>.
+     */
+    private static class Fence
+    {
+        private char marker;
+
+        private int length;
+
+        boolean isOpen()
+        {
+            return length > 0;
+        }
+
+        /**
+         * @param line the next line.
+         * @return <code>true</code> if the line is part of a fenced code block, fences included.
+         */
+        boolean update( String line )
+        {
+            int i = 0;
+            while ( i < line.length() && i < 3 && line.charAt( i ) == ' ' )
+            {
+                i++;
+            }
+
+            int start = i;
+            char c = ( i < line.length() ) ? line.charAt( i ) : 0;
+
+            if ( c == '`' || c == '~' )
+            {
+                while ( i < line.length() && line.charAt( i ) == c )
+                {
+                    i++;
+                }
+            }
+
+            int n = i - start;
+
+            if ( length == 0 )
+            {
+                if ( n >= 3 )
+                {
+                    marker = c;
+                    length = n;
+                    return true;
+                }
+                return false;
+            }
+
+            if ( c == marker && n >= length && line.substring( i ).trim().isEmpty() )
+            {
+                length = 0;
+            }
+
+            return true;
+        }
+    }
+}
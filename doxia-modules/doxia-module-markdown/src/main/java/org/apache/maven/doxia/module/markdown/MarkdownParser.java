@@ -21,36 +21,35 @@ package org.apache.maven.doxia.module.markdown;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import javax.inject.Singleton;
 
 import com.vladsch.flexmark.ast.Heading;
 import com.vladsch.flexmark.ast.HtmlCommentBlock;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.ast.util.TextCollectingVisitor;
-import com.vladsch.flexmark.html.HtmlRenderer;
-import com.vladsch.flexmark.ext.escaped.character.EscapedCharacterExtension;
-import com.vladsch.flexmark.ext.abbreviation.AbbreviationExtension;
-import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
-import com.vladsch.flexmark.ext.definition.DefinitionExtension;
-import com.vladsch.flexmark.ext.typographic.TypographicExtension;
-import com.vladsch.flexmark.ext.tables.TablesExtension;
-import com.vladsch.flexmark.ext.wikilink.WikiLinkExtension;
-import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
-import com.vladsch.flexmark.util.data.MutableDataSet;
 
+import org.apache.maven.doxia.macro.manager.MacroManager;
 import org.apache.maven.doxia.markup.HtmlMarkup;
 import org.apache.maven.doxia.markup.TextMarkup;
 import org.apache.maven.doxia.module.xhtml5.Xhtml5Parser;
 import org.apache.maven.doxia.parser.AbstractTextParser;
+import org.apache.maven.doxia.parser.ParseBudget;
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.ParseException;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.util.HtmlTools;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.pull.XmlPullParser;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Arrays;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -68,7 +67,6 @@ import java.util.regex.Pattern;
  * @author Julien Nicoulaud
  * @since 1.3
  */
-@Singleton
 @Named( "markdown" )
 public class MarkdownParser
     extends AbstractTextParser
@@ -98,54 +96,100 @@ public class MarkdownParser
 
     /**
      * The parser of the HTML produced by Flexmark, that we will
-     * use to convert this HTML to Sink events
+     * use to convert this HTML to Sink events, replaced by the injected one in a container
      */
     @Inject
-    private MarkdownHtmlParser parser;
+    private MarkdownHtmlParser parser = new MarkdownHtmlParser();
 
     /**
-     * Flexmark's Markdown parser (one static instance fits all)
+     * The Flexmark extensions to use.
      */
-    private static final com.vladsch.flexmark.parser.Parser FLEXMARK_PARSER;
+    private FlexmarkProfile profile = FlexmarkProfile.PEGDOWN;
 
     /**
-     * Flexmark's HTML renderer (its output will be re-parsed and converted to Sink events)
+     * Whether the document is converted one chunk at a time.
      */
-    private static final HtmlRenderer FLEXMARK_HTML_RENDERER;
+    private boolean streaming;
 
-    // Initialize the Flexmark parser and renderer, once and for all
-    static
+    /**
+     * The maximum time to parse the current document, in milliseconds, zero or less for no limit.
+     */
+    private long maxTime;
+
+    /**
+     * When the parse of the current document started, see {@link System#nanoTime()}.
+     */
+    private long start;
+
+    /**
+     * Sets the Flexmark extensions to use.
+     *
+     * @param profile the extension profile, not null.
+     * @since 2.0.0
+     */
+    public void setProfile( FlexmarkProfile profile )
     {
-        MutableDataSet flexmarkOptions = new MutableDataSet();
-
-        // Enable the extensions that we used to have in Pegdown
-        flexmarkOptions.set( com.vladsch.flexmark.parser.Parser.EXTENSIONS, Arrays.asList(
-                EscapedCharacterExtension.create(),
-                AbbreviationExtension.create(),
-                AutolinkExtension.create(),
-                DefinitionExtension.create(),
-                TypographicExtension.create(),
-                TablesExtension.create(),
-                WikiLinkExtension.create(),
-                StrikethroughExtension.create()
-        ) );
-
-        // Disable wrong apostrophe replacement
-        flexmarkOptions.set( TypographicExtension.SINGLE_QUOTE_UNMATCHED, "&apos;" );
-
-        // Additional options on the HTML rendering
-        flexmarkOptions.set( HtmlRenderer.HTML_BLOCK_OPEN_TAG_EOL, false );
-        flexmarkOptions.set( HtmlRenderer.HTML_BLOCK_CLOSE_TAG_EOL, false );
-        flexmarkOptions.set( HtmlRenderer.MAX_TRAILING_BLANK_LINES, -1 );
-
-        // Build the Markdown parser
-        FLEXMARK_PARSER = com.vladsch.flexmark.parser.Parser.builder( flexmarkOptions ).build();
-
-        // Build the HTML renderer
-        FLEXMARK_HTML_RENDERER = HtmlRenderer.builder( flexmarkOptions )
-                .linkResolverFactory( new FlexmarkDoxiaLinkResolver.Factory() )
-                .build();
+        this.profile = Objects.requireNonNull( profile, "profile cannot be null" );
+    }
+
+    /**
+     * Sets the Flexmark extensions to use, by name: <code>minimal</code>, <code>pegdown</code>
+     * (the default) or <code>gfm</code>.
+     *
+     * @param name the name of the extension profile.
+     * @throws IllegalArgumentException if there is no profile with that name.
+     * @since 2.0.0
+     * @see FlexmarkProfile#forName(String)
+     */
+    public void setProfile( String name )
+    {
+        setProfile( FlexmarkProfile.forName( name ) );
+    }
 
+    /**
+     * @return the Flexmark extensions used.
+     * @since 2.0.0
+     */
+    public FlexmarkProfile getProfile()
+    {
+        return profile;
+    }
+
+    /**
+     * Enables the streaming mode, for very large documents: the source is converted one chunk of
+     * top-level blocks at a time, and Sink events are emitted as the chunks are converted, instead of
+     * building the HTML of the whole document first. Reference link and abbreviation definitions are
+     * collected beforehand, so that they apply to all the chunks.
+     * <p>
+     * In this mode, macros that need the whole document, like <code>toc</code>, see an empty document.
+     *
+     * @param streaming <code>true</code> to enable the streaming mode.
+     * @since 2.0.0
+     */
+    public void setStreaming( boolean streaming )
+    {
+        this.streaming = streaming;
+    }
+
+    /**
+     * @return <code>true</code> if the streaming mode is enabled.
+     * @since 2.0.0
+     */
+    public boolean isStreaming()
+    {
+        return streaming;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The macros are executed by the parser of the HTML produced by Flexmark, which gets the macro manager too.
+     */
+    @Override
+    public void setMacroManager( MacroManager macroManager )
+    {
+        super.setMacroManager( macroManager );
+        parser.setMacroManager( macroManager );
     }
 
     /** {@inheritDoc} */
@@ -153,18 +197,140 @@ public class MarkdownParser
     public void parse( Reader source, Sink sink, String reference )
         throws ParseException
     {
+        parser.setHeadOnly( isHeadOnly() );
+
+        ParseBudget budget = getBudget();
+        maxTime = budget == null ? 0 : budget.getMaxTime();
+        start = System.nanoTime();
+
+        try
+        {
+            parse( source, sink, reference, budget );
+        }
+        finally
+        {
+            maxTime = 0;
+        }
+    }
+
+    /**
+     * Converts the source to HTML, then passes it to the HTML parser.
+     *
+     * @param source the Markdown source
+     * @param sink the sink to receive the events
+     * @param reference the reference of the document
+     * @param budget the budget of the document, null for no limit
+     * @throws ParseException if the source cannot be read or converted, or exceeds its budget
+     */
+    private void parse( Reader source, Sink sink, String reference, ParseBudget budget )
+        throws ParseException
+    {
+        // the HTML parser runs the macros, which resolve their files against the context
+        ParseContext context = getParseContext();
+        if ( reference != null && !reference.equals( context.getReference() ) )
+        {
+            context = context.forReference( reference );
+        }
+
+        if ( isHeadOnly() )
+        {
+            parseHead( source, sink, context, budget );
+            return;
+        }
+
+        if ( streaming )
+        {
+            // the chunks are converted as the HTML parser pulls them, within its time budget
+            parser.setBudget( getRemainingBudget( budget ) );
+            parseStreaming( source, sink, context );
+            return;
+        }
+
         try
         {
             // Markdown to HTML (using flexmark-java library)
+            checkTime();
             String html = toHtml( source );
+            checkTime();
+
+            // then HTML to Sink API, with the time left
+            parser.setBudget( getRemainingBudget( budget ) );
+            parser.parse( new StringReader( html ), sink, context );
+        }
+        catch ( IOException e )
+        {
+            throw new ParseException( "Failed reading Markdown source document", e );
+        }
+    }
+
+    /**
+     * Emits the head of the document only, see {@link #toHeadHtml(String)}.
+     *
+     * @param source the Markdown source
+     * @param sink the sink to receive the events
+     * @param context the context of the document
+     * @param budget the budget of the document, null for no limit
+     * @throws ParseException if the source cannot be read or converted, or exceeds its budget
+     */
+    private void parseHead( Reader source, Sink sink, ParseContext context, ParseBudget budget )
+        throws ParseException
+    {
+        try
+        {
+            String html = toHeadHtml( IOUtil.toString( source ) );
+
+            parser.setBudget( getRemainingBudget( budget ) );
+            parser.parse( new StringReader( html ), sink, context );
+        }
+        catch ( IOException e )
+        {
+            throw new ParseException( "Failed reading Markdown source document", e );
+        }
+    }
+
+    /**
+     * Converts the source one chunk at a time, see {@link #setStreaming(boolean)}.
+     *
+     * @param source the Markdown source
+     * @param sink the sink to receive the events
+     * @param context the context of the document
+     * @throws ParseException if the source cannot be read or converted
+     */
+    private void parseStreaming( Reader source, Sink sink, ParseContext context )
+        throws ParseException
+    {
+        Path spool = null;
+
+        try
+        {
+            // First pass: keep the source in a temporary file, and collect the definitions on the way
+            spool = Files.createTempFile( "doxia-markdown-", ".md" );
+
+            String definitions;
+            try ( Writer out = Files.newBufferedWriter( spool, StandardCharsets.UTF_8 ) )
+            {
+                definitions = MarkdownChunker.spool( source, out );
+            }
+
+            // Second pass: the HTML parser pulls the HTML of the chunks as it goes
+            try ( BufferedReader in = Files.newBufferedReader( spool, StandardCharsets.UTF_8 ) )
+            {
+                MarkdownChunker chunker = new MarkdownChunker( in, MarkdownChunker.DEFAULT_CHUNK_SIZE );
 
-            // then HTML to Sink API
-            parser.parse( html, sink );
+                parser.parseStream( new HtmlChunkReader( chunker, definitions ), sink, context );
+            }
         }
         catch ( IOException e )
         {
             throw new ParseException( "Failed reading Markdown source document", e );
         }
+        finally
+        {
+            if ( spool != null )
+            {
+                spool.toFile().delete();
+            }
+        }
     }
 
     /**
@@ -173,9 +339,10 @@ public class MarkdownParser
      * @param source the Markdown source
      * @return HTML content generated by flexmark-java
      * @throws IOException passed through
+     * @throws ParseException if the conversion exceeds the time budget of the document
      */
     String toHtml( Reader source )
-        throws IOException
+        throws IOException, ParseException
     {
         // Read the source
         String text = IOUtil.toString( source );
@@ -185,73 +352,210 @@ public class MarkdownParser
         html.append( "<html>" );
         html.append( "<head>" );
 
-        // First, we interpret the "metadata" section of the document and add the corresponding HTML headers
+        Node documentRoot = parseWithHead( text, html );
+
+        html.append( "</head>" );
+        html.append( "<body>" );
+
+        // Convert our Markdown document to HTML and append it to our HTML
+        checkTime();
+        profile.getRenderer().render( documentRoot, html );
+
+        html.append( "</body>" );
+        html.append( "</html>" );
+
+        return html.toString();
+    }
+
+    /**
+     * Builds the HTML head of the Markdown text, without converting the whole document: the title
+     * is taken from the metadata section or, as in {@link #toHtml(Reader)}, from the first heading.
+     * To find it, the top-level blocks are converted one at a time until one is not a comment.
+     * Reference links in that heading are not resolved, as their definitions may be anywhere in the document.
+     *
+     * @param text the Markdown text, starting with the optional metadata section
+     * @return the HTML document, without a body
+     * @throws IOException never, the text is in memory
+     * @throws ParseException if the conversion exceeds the time budget of the document
+     */
+    String toHeadHtml( String text )
+        throws IOException, ParseException
+    {
+        StringBuilder html = new StringBuilder( 256 );
+        html.append( "<html>" );
+        html.append( "<head>" );
+
+        checkTime();
         Matcher metadataMatcher = METADATA_SECTION_PATTERN.matcher( text );
         boolean haveTitle = false;
+        int start = 0;
         if ( metadataMatcher.find() )
         {
-            Matcher entryMatcher = METADATA_ENTRY_PATTERN.matcher( metadataMatcher.group( 0 ) );
-            while ( entryMatcher.find() )
+            haveTitle = appendMetadata( metadataMatcher.group( 0 ), html );
+            start = metadataMatcher.end( 0 );
+        }
+        checkTime();
+
+        if ( !haveTitle )
+        {
+            MarkdownChunker chunker =
+                new MarkdownChunker( new BufferedReader( new StringReader( text.substring( start ) ) ), 1 );
+
+            String chunk = chunker.nextChunk();
+            while ( chunk != null && !appendTitle( profile.getParser().parse( chunk ), html ) )
             {
-                String key = entryMatcher.group( 1 );
-                String value = entryMatcher.group( 2 );
-                if ( "title".equalsIgnoreCase( key ) )
-                {
-                    haveTitle = true;
-                    html.append( "<title>" );
-                    html.append( HtmlTools.escapeHTML( value, false ) );
-                    html.append( "</title>" );
-                }
-                else
-                {
-                    html.append( "<meta name='" );
-                    html.append( HtmlTools.escapeHTML( key ) );
-                    html.append( "' content='" );
-                    html.append( HtmlTools.escapeHTML( value ) );
-                    html.append( "' />" );
-                }
+                checkTime();
+                chunk = chunker.nextChunk();
             }
+        }
+
+        html.append( "</head>" );
+        html.append( "</html>" );
+
+        return html.toString();
+    }
+
+    /**
+     * Parses the Markdown text, and appends the HTML headers for its metadata and title.
+     *
+     * @param source the Markdown text, starting with the optional metadata section
+     * @param html the HTML to append the headers to
+     * @return the Flexmark document, without the metadata section
+     * @throws ParseException if the conversion exceeds the time budget of the document
+     */
+    private Node parseWithHead( String source, StringBuilder html )
+        throws ParseException
+    {
+        String text = source;
+
+        // First, we interpret the "metadata" section of the document and add the corresponding HTML headers
+        // The pattern may backtrack on a pathological section, so the time is checked around it
+        checkTime();
+        Matcher metadataMatcher = METADATA_SECTION_PATTERN.matcher( text );
+        boolean haveTitle = false;
+        if ( metadataMatcher.find() )
+        {
+            haveTitle = appendMetadata( metadataMatcher.group( 0 ), html );
 
             // Trim the metadata from the source
             text = text.substring( metadataMatcher.end( 0 ) );
 
         }
+        checkTime();
 
         // Now is the time to parse the Markdown document
         // (after we've trimmed out the metadatas, and before we check for its headings)
-        Node documentRoot = FLEXMARK_PARSER.parse( text );
+        Node documentRoot = profile.getParser().parse( text );
 
         // Special trick: if there is no title specified as a metadata in the header, we will use the first
         // heading as the document title
-        if ( !haveTitle && documentRoot.hasChildren() )
+        if ( !haveTitle )
         {
-            // Skip the comment nodes
-            Node firstNode = documentRoot.getFirstChild();
-            while ( firstNode != null && firstNode instanceof HtmlCommentBlock )
-            {
-                firstNode = firstNode.getNext();
-            }
+            appendTitle( documentRoot, html );
+        }
+        return documentRoot;
+    }
+
+    /**
+     * Fails if the current document exceeded the time of its budget. Flexmark cannot be interrupted,
+     * so the time is checked between the steps of the conversion.
+     *
+     * @throws ParseException if the time budget is exceeded
+     */
+    private void checkTime()
+        throws ParseException
+    {
+        if ( maxTime > 0 && System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos( maxTime ) )
+        {
+            throw new ParseException( "Parse budget exceeded: parsing took more than " + maxTime + " ms" );
+        }
+    }
+
+    /**
+     * @param budget the budget of the document, null for no limit
+     * @return the budget left to the HTML parser, once the Markdown source is converted
+     */
+    private ParseBudget getRemainingBudget( ParseBudget budget )
+    {
+        if ( budget == null || budget.getMaxTime() <= 0 )
+        {
+            return budget;
+        }
 
-            // If this first non-comment node is a heading, we use it as the document title
-            if ( firstNode != null && firstNode instanceof Heading )
+        ParseBudget remaining = new ParseBudget( budget );
+        long elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+        remaining.setMaxTime( Math.max( 1, budget.getMaxTime() - elapsed ) );
+        return remaining;
+    }
+
+    /**
+     * Appends the HTML headers for the entries of the metadata section.
+     *
+     * @param metadata the metadata section
+     * @param html the HTML to append the headers to
+     * @return <code>true</code> if the metadata contains a title
+     */
+    private static boolean appendMetadata( String metadata, StringBuilder html )
+    {
+        boolean haveTitle = false;
+
+        Matcher entryMatcher = METADATA_ENTRY_PATTERN.matcher( metadata );
+        while ( entryMatcher.find() )
+        {
+            String key = entryMatcher.group( 1 );
+            String value = entryMatcher.group( 2 );
+            if ( "title".equalsIgnoreCase( key ) )
             {
+                haveTitle = true;
                 html.append( "<title>" );
-                TextCollectingVisitor collectingVisitor = new TextCollectingVisitor();
-                String headingText = collectingVisitor.collectAndGetText( firstNode );
-                html.append( HtmlTools.escapeHTML( headingText, false ) );
+                html.append( HtmlTools.escapeHTML( value, false ) );
                 html.append( "</title>" );
             }
+            else
+            {
+                html.append( "<meta name='" );
+                html.append( HtmlTools.escapeHTML( key ) );
+                html.append( "' content='" );
+                html.append( HtmlTools.escapeHTML( value ) );
+                html.append( "' />" );
+            }
         }
-        html.append( "</head>" );
-        html.append( "<body>" );
 
-        // Convert our Markdown document to HTML and append it to our HTML
-        FLEXMARK_HTML_RENDERER.render( documentRoot, html );
+        return haveTitle;
+    }
 
-        html.append( "</body>" );
-        html.append( "</html>" );
+    /**
+     * Appends the HTML title header if the first node of the document, comments excepted, is a heading.
+     *
+     * @param documentRoot the Flexmark document
+     * @param html the HTML to append the header to
+     * @return <code>true</code> if the document has a node which is not a comment
+     */
+    private static boolean appendTitle( Node documentRoot, StringBuilder html )
+    {
+        // Skip the comment nodes
+        Node firstNode = documentRoot.getFirstChild();
+        while ( firstNode != null && firstNode instanceof HtmlCommentBlock )
+        {
+            firstNode = firstNode.getNext();
+        }
 
-        return html.toString();
+        if ( firstNode == null )
+        {
+            return false;
+        }
+
+        // If this first non-comment node is a heading, we use it as the document title
+        if ( firstNode instanceof Heading )
+        {
+            html.append( "<title>" );
+            TextCollectingVisitor collectingVisitor = new TextCollectingVisitor();
+            String headingText = collectingVisitor.collectAndGetText( firstNode );
+            html.append( HtmlTools.escapeHTML( headingText, false ) );
+            html.append( "</title>" );
+        }
+
+        return true;
     }
 
     /**
@@ -283,6 +587,45 @@ public class MarkdownParser
             super.boxed = true;
         }
 
+        /** Whether the source being parsed is streamed, see {@link #parseStream(Reader, Sink, ParseContext)}. */
+        private boolean streamSource;
+
+        /**
+         * Parses the HTML as it is read, without keeping a copy of it.
+         *
+         * @param source the HTML source
+         * @param sink the sink to receive the events
+         * @param context the context of the document
+         * @throws ParseException if the HTML cannot be parsed
+         */
+        void parseStream( Reader source, Sink sink, ParseContext context )
+            throws ParseException
+        {
+            streamSource = true;
+            try
+            {
+                parse( source, sink, context );
+            }
+            finally
+            {
+                streamSource = false;
+            }
+        }
+
+        @Override
+        public void parse( Reader source, Sink sink, String reference )
+            throws ParseException
+        {
+            if ( streamSource )
+            {
+                parseWithoutSourceContent( source, sink, reference );
+            }
+            else
+            {
+                super.parse( source, sink, reference );
+            }
+        }
+
         @Override
         protected boolean baseEndTag( XmlPullParser parser, Sink sink )
         {
@@ -314,4 +657,99 @@ public class MarkdownParser
             return visited;
         }
     }
+
+    /**
+     * Serves the HTML of the Markdown chunks, converting the next chunk when the previous one
+     * has been read: only one chunk and its HTML are held in memory at a time.
+     */
+    private class HtmlChunkReader
+        extends Reader
+    {
+        private final MarkdownChunker chunker;
+
+        /** The definitions appended to every chunk. */
+        private final String definitions;
+
+        private final StringBuilder html = new StringBuilder( 4 * MarkdownChunker.DEFAULT_CHUNK_SIZE );
+
+        private int position;
+
+        private boolean started;
+
+        private boolean finished;
+
+        HtmlChunkReader( MarkdownChunker chunker, String definitions )
+        {
+            this.chunker = chunker;
+            this.definitions = definitions.isEmpty() ? "" : "\n" + definitions;
+        }
+
+        @Override
+        public int read( char[] cbuf, int off, int len )
+            throws IOException
+        {
+            while ( position == html.length() )
+            {
+                if ( !convertNextChunk() )
+                {
+                    return -1;
+                }
+            }
+
+            int n = Math.min( len, html.length() - position );
+            html.getChars( position, position + n, cbuf, off );
+            position += n;
+
+            return n;
+        }
+
+        private boolean convertNextChunk()
+            throws IOException
+        {
+            if ( finished )
+            {
+                return false;
+            }
+
+            html.setLength( 0 );
+            position = 0;
+
+            String chunk = chunker.nextChunk();
+
+            if ( !started )
+            {
+                started = true;
+
+                html.append( "<html>" );
+                html.append( "<head>" );
+
+                Node documentRoot = parseWithHead( chunk == null ? "" : chunk + definitions, html );
+
+                html.append( "</head>" );
+                html.append( "<body>" );
+
+                profile.getRenderer().render( documentRoot, html );
+            }
+            else if ( chunk != null )
+            {
+                profile.getRenderer().render( profile.getParser().parse( chunk + definitions ), html );
+            }
+
+            if ( chunk == null )
+            {
+                finished = true;
+
+                html.append( "</body>" );
+                html.append( "</html>" );
+            }
+
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+            // the chunker input is closed by its owner
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package org.apache.maven.doxia.module.markdown;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.doxia.parser.ParseException;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
+
+/**
+ * Measures the effect of text coalescing, see {@link org.apache.maven.doxia.parser.AbstractParser#setCoalesceText},
+ * on the HTML produced by Flexmark: the number of Sink events emitted and the HTML to Sink throughput,
+ * with coalescing on and off.
+ * <p>
+ * This is not a unit test: run it manually, with the test classpath:
+ * </p>
+ * <pre>
+ * java -cp ... org.apache.maven.doxia.module.markdown.CoalescingBenchmark
+ * </pre>
+ */
+public class CoalescingBenchmark
+{
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final int ROUNDS = 10;
+
+    public static void main( String[] args )
+        throws IOException, ParseException
+    {
+        // the Markdown to HTML conversion is the same in both modes, keep it out of the measure
+        MarkdownParser markdownParser = new MarkdownParser();
+        List<String> corpus = new ArrayList<>();
+        long size = 0;
+        for ( String document : generateCorpus( 200 ) )
+        {
+            String html = markdownParser.toHtml( new StringReader( document ) );
+            corpus.add( html );
+            size += html.length();
+        }
+
+        System.out.println( "Corpus: " + corpus.size() + " documents, " + size / 1024 + " KiB of HTML" );
+
+        for ( boolean coalesce : new boolean[] { false, true } )
+        {
+            MarkdownParser.MarkdownHtmlParser parser = new MarkdownParser.MarkdownHtmlParser();
+            parser.setCoalesceText( coalesce );
+
+            long[] events = new long[1];
+            Sink countingSink = (Sink) Proxy.newProxyInstance( Sink.class.getClassLoader(),
+                new Class<?>[] { Sink.class }, ( proxy, method, methodArgs ) ->
+                {
+                    if ( "getConsumedEvents".equals( method.getName() ) )
+                    {
+                        return Sink.EVENTS_ALL;
+                    }
+                    events[0]++;
+                    return null;
+                } );
+            for ( String html : corpus )
+            {
+                parser.parse( html, countingSink );
+            }
+
+            for ( int i = 0; i < WARMUP_ROUNDS; i++ )
+            {
+                render( parser, corpus );
+            }
+
+            long start = System.nanoTime();
+            for ( int i = 0; i < ROUNDS; i++ )
+            {
+                render( parser, corpus );
+            }
+            long elapsed = System.nanoTime() - start;
+
+            double seconds = elapsed / 1e9;
+            System.out.printf( "coalescing %-3s %10d events %8.1f documents/s %8.2f MiB/s%n", coalesce ? "on" : "off",
+                               events[0], ROUNDS * corpus.size() / seconds,
+                               ROUNDS * size / seconds / ( 1024 * 1024 ) );
+        }
+    }
+
+    private static void render( MarkdownParser.MarkdownHtmlParser parser, List<String> corpus )
+        throws ParseException
+    {
+        for ( String html : corpus )
+        {
+            Xhtml5BaseSink sink = new Xhtml5BaseSink( NullWriter.INSTANCE );
+            parser.parse( html, sink );
+            sink.close();
+        }
+    }
+
+    /**
+     * Generates documents whose text nodes are split by entities, as Flexmark escapes the special characters
+     * and renders the typographic quotes as entities.
+     */
+    private static List<String> generateCorpus( int documents )
+    {
+        List<String> corpus = new ArrayList<>( documents );
+
+        for ( int d = 0; d < documents; d++ )
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append( "# Document " ).append( d ).append( "\n\n" );
+
+            for ( int s = 0; s < 10; s++ )
+            {
+                sb.append( "## Section " ).append( s ).append( " & more\n\n" );
+                sb.append( "Tom & Jerry say \"a < b\" and 'c > d' -- it's R&D's job... " );
+                sb.append( "Some *emphasized* text, a [link](other.md) & \"more\" quotes.\n\n" );
+                sb.append( "* item & one\n* item \"two\"\n\n" );
+            }
+
+            corpus.add( sb.toString() );
+        }
+
+        return corpus;
+    }
+
+    /** Discards the output, to measure the parsing and the sink only. */
+    private static class NullWriter
+        extends Writer
+    {
+        static final NullWriter INSTANCE = new NullWriter();
+
+        @Override
+        public void write( char[] cbuf, int off, int len )
+        {
+            // discarded
+        }
+
+        @Override
+        public void flush()
+        {
+            // nop
+        }
+
+        @Override
+        public void close()
+        {
+            // nop
+        }
+    }
+}
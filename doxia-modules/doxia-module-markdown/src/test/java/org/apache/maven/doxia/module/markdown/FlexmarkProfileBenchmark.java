@@ -0,0 +1,144 @@
+package org.apache.maven.doxia.module.markdown;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.doxia.parser.ParseException;
+
+/**
+ * Measures the Markdown to HTML throughput of each {@link FlexmarkProfile}.
+ * <p>
+ * This is not a unit test: run it manually, with the test classpath, either on a generated corpus or on
+ * the <code>.md</code> files found in the directories given as arguments:
+ * </p>
+ * <pre>
+ * java -cp ... org.apache.maven.doxia.module.markdown.FlexmarkProfileBenchmark [dir...]
+ * </pre>
+ */
+public class FlexmarkProfileBenchmark
+{
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final int ROUNDS = 10;
+
+    public static void main( String[] args )
+        throws IOException, ParseException
+    {
+        List<String> corpus = args.length == 0 ? generateCorpus( 200 ) : readCorpus( args );
+
+        long size = 0;
+        for ( String document : corpus )
+        {
+            size += document.length();
+        }
+
+        System.out.println( "Corpus: " + corpus.size() + " documents, " + size / 1024 + " KiB" );
+
+        for ( FlexmarkProfile profile : FlexmarkProfile.values() )
+        {
+            MarkdownParser parser = new MarkdownParser();
+            parser.setProfile( profile );
+
+            for ( int i = 0; i < WARMUP_ROUNDS; i++ )
+            {
+                render( parser, corpus );
+            }
+
+            long start = System.nanoTime();
+            for ( int i = 0; i < ROUNDS; i++ )
+            {
+                render( parser, corpus );
+            }
+            long elapsed = System.nanoTime() - start;
+
+            double seconds = elapsed / 1e9;
+            System.out.printf( "%-8s %8.1f documents/s %8.2f MiB/s%n", profile.name().toLowerCase( Locale.ENGLISH ),
+                               ROUNDS * corpus.size() / seconds, ROUNDS * size / seconds / ( 1024 * 1024 ) );
+        }
+    }
+
+    private static void render( MarkdownParser parser, List<String> corpus )
+        throws IOException, ParseException
+    {
+        for ( String document : corpus )
+        {
+            parser.toHtml( new StringReader( document ) );
+        }
+    }
+
+    private static List<String> readCorpus( String[] dirs )
+        throws IOException
+    {
+        List<String> corpus = new ArrayList<>();
+
+        for ( String dir : dirs )
+        {
+            List<Path> files;
+            try ( Stream<Path> paths = Files.walk( new File( dir ).toPath() ) )
+            {
+                files = paths.filter( p -> p.toString().endsWith( ".md" ) ).collect( Collectors.toList() );
+            }
+
+            for ( Path file : files )
+            {
+                corpus.add( new String( Files.readAllBytes( file ), StandardCharsets.UTF_8 ) );
+            }
+        }
+
+        return corpus;
+    }
+
+    private static List<String> generateCorpus( int documents )
+    {
+        List<String> corpus = new ArrayList<>( documents );
+
+        for ( int d = 0; d < documents; d++ )
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append( "# Document " ).append( d ).append( "\n\n" );
+
+            for ( int s = 0; s < 10; s++ )
+            {
+                sb.append( "## Section " ).append( s ).append( "\n\n" );
+                sb.append( "Some *emphasized* and **strong** text with `code`, a [link](other.md#anchor) " );
+                sb.append( "and a bare URL http://maven.apache.org/doxia/ in a paragraph that isn't short. " );
+                sb.append( "It \"quotes\" things -- and goes on... ~~for a while~~.\n\n" );
+                sb.append( "* item one\n* item two\n  * nested item\n\n" );
+                sb.append( "| Column | Other |\n|--------|-------|\n| cell   | cell  |\n\n" );
+                sb.append( "```java\nclass Foo\n{\n}\n```\n\n" );
+            }
+
+            corpus.add( sb.toString() );
+        }
+
+        return corpus;
+    }
+}
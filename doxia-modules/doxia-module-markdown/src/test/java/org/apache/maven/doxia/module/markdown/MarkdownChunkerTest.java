@@ -0,0 +1,126 @@
+package org.apache.maven.doxia.module.markdown;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MarkdownChunker}.
+ */
+public class MarkdownChunkerTest
+{
+    @Test
+    public void testChunkBoundaries()
+        throws IOException
+    {
+        String markdown = "# Title\n"
+            + "\n"
+            + "First paragraph.\n"
+            + "\n"
+            + "* item\n"
+            + "\n"
+            + "  continued item\n"
+            + "\n"
+            + "```\n"
+            + "# not a heading\n"
+            + "\n"
+            + "code\n"
+            + "```\n"
+            + "Lazy line.\n"
+            + "\n"
+            + "    indented code\n"
+            + "\n"
+            + "Second paragraph.\n"
+            + "## Section\n";
+
+        List<String> chunks = chunk( markdown, 1 );
+
+        assertEquals( markdown, String.join( "", chunks ) );
+        assertEquals( "# Title\n\n", chunks.get( 0 ) );
+        assertEquals( "First paragraph.\n\n* item\n\n  continued item\n\n```\n# not a heading\n\ncode\n```\n"
+                          + "Lazy line.\n\n    indented code\n\n", chunks.get( 1 ) );
+        assertEquals( "Second paragraph.\n", chunks.get( 2 ) );
+        assertEquals( "## Section\n", chunks.get( 3 ) );
+        assertEquals( 4, chunks.size() );
+    }
+
+    @Test
+    public void testChunkSize()
+        throws IOException
+    {
+        StringBuilder markdown = new StringBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            markdown.append( "Paragraph " ).append( i ).append( ".\n\n" );
+        }
+
+        List<String> chunks = chunk( markdown.toString(), 100 );
+
+        assertEquals( markdown.toString(), String.join( "", chunks ) );
+        for ( String chunk : chunks.subList( 0, chunks.size() - 1 ) )
+        {
+            assertTrue( chunk.length() >= 100 && chunk.length() < 120, chunk );
+        }
+    }
+
+    @Test
+    public void testSpool()
+        throws IOException
+    {
+        String markdown = "Text with [a link][ref] and HTML.\n"
+            + "\n"
+            + "```\n"
+            + "[code]: not a definition\n"
+            + "```\n"
+            + "\n"
+            + "[ref]: http://maven.apache.org\n"
+            + "*[HTML]: Hyper Text Markup Language\n";
+
+        StringWriter out = new StringWriter();
+        String definitions = MarkdownChunker.spool( new StringReader( markdown ), out );
+
+        assertEquals( markdown, out.toString() );
+        assertEquals( "[ref]: http://maven.apache.org\n*[HTML]: Hyper Text Markup Language\n", definitions );
+    }
+
+    private static List<String> chunk( String markdown, int chunkSize )
+        throws IOException
+    {
+        MarkdownChunker chunker = new MarkdownChunker( new BufferedReader( new StringReader( markdown ) ), chunkSize );
+
+        List<String> chunks = new ArrayList<>();
+        String chunk;
+        while ( ( chunk = chunker.nextChunk() ) != null )
+        {
+            chunks.add( chunk );
+        }
+        return chunks;
+    }
+}
@@ -23,10 +23,17 @@ import javax.inject.Inject;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 
 import org.apache.maven.doxia.parser.AbstractParserTest;
+import org.apache.maven.doxia.parser.Dependency;
+import org.apache.maven.doxia.parser.DependencyRecorder;
+import org.apache.maven.doxia.parser.ParseContext;
 import org.apache.maven.doxia.parser.ParseException;
 import org.apache.maven.doxia.parser.Parser;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
@@ -35,9 +42,13 @@ import org.apache.maven.doxia.sink.impl.SinkEventElement;
 import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -314,27 +325,25 @@ public class MarkdownParserTest
         List<SinkEventElement> eventList = parseFileToEventTestingSink( "metadata" ).getEventList();
         Iterator<SinkEventElement> it = eventList.iterator();
 
-        assertSinkEquals( it, "head", "title", "text", "text", "text", "title_", "author", "text", "author_", "date",
-                "text", "date_", "unknown", "head_", "body", "section1", "sectionTitle1", "text", "sectionTitle1_",
+        assertSinkEquals( it, "head", "title", "text", "title_", "author", "text", "author_", "date", "text",
+                "date_", "unknown", "head_", "body", "section1", "sectionTitle1", "text", "sectionTitle1_",
                 "paragraph", "text", "paragraph_", "section2", "sectionTitle2", "text", "sectionTitle2_", "paragraph",
                 "text", "paragraph_", "section2_", "section1_", "body_" );
 
         assertFalse( it.hasNext() );
 
         // Title must be "A Title & a Test"
-        assertEquals( "A Title ", eventList.get( 2 ).getArgs()[0]);
-        assertEquals( "&", eventList.get( 3 ).getArgs()[0]);
-        assertEquals( " a 'Test'", eventList.get( 4 ).getArgs()[0]);
+        assertEquals( "A Title & a 'Test'", eventList.get( 2 ).getArgs()[0]);
 
         // Author must be "Somebody <somebody@somewhere.org>"
-        assertEquals( "Somebody 'Nickname' Great <somebody@somewhere.org>", eventList.get( 7 ).getArgs()[0]);
+        assertEquals( "Somebody 'Nickname' Great <somebody@somewhere.org>", eventList.get( 5 ).getArgs()[0]);
 
         // Date must be "2013 © Copyleft"
-        assertEquals( "2013 \u00A9 Copyleft", eventList.get( 10 ).getArgs()[0]);
+        assertEquals( "2013 \u00A9 Copyleft", eventList.get( 8 ).getArgs()[0]);
 
         // * META element must be an "unknown" Sink event that specifies:
         // * name = "keywords" and content = "maven,doxia,markdown"
-        SinkEventElement meta = eventList.get( 12 );
+        SinkEventElement meta = eventList.get( 10 );
         assertEquals( "unknown", meta.getName() );
         assertEquals( "meta", meta.getArgs()[0] );
         SinkEventAttributeSet metaAtts = (SinkEventAttributeSet) meta.getArgs()[2];
@@ -378,6 +387,23 @@ public class MarkdownParserTest
         assertFalse( it.hasNext() );
     }
 
+    /**
+     * Assert only the head events are fired in head-only mode when parsing "first-heading.md".
+     *
+     * @throws Exception if the event list is not correct when parsing the document
+     */
+    @Test
+    public void testHeadOnly()
+        throws Exception
+    {
+        parser.setHeadOnly( true );
+        Iterator<SinkEventElement> it = parseFileToEventTestingSink( "first-heading" ).getEventList().iterator();
+
+        assertSinkEquals( it, "head", "title", "text", "title_", "head_" );
+
+        assertFalse( it.hasNext() );
+    }
+
     /**
      * Assert the first header is passed as title event when parsing "comment-before-heading.md".
      *
@@ -427,6 +453,115 @@ public class MarkdownParserTest
         }
     }
 
+    /**
+     * Assert the extensions used depend on the selected profile.
+     *
+     * @throws Exception if the document parsing failed
+     */
+    @Test
+    public void testProfiles()
+        throws Exception
+    {
+        String markdown = "Some ~~deleted~~ text, see http://maven.apache.org";
+
+        assertEquals( FlexmarkProfile.PEGDOWN, parser.getProfile() );
+        assertTrue( parser.toHtml( new StringReader( markdown ) ).contains( "<del>deleted</del>" ) );
+
+        parser.setProfile( "minimal" );
+        String html = parser.toHtml( new StringReader( markdown ) );
+        assertFalse( html.contains( "<del>" ) );
+        assertFalse( html.contains( "<a href" ) );
+
+        parser.setProfile( FlexmarkProfile.GFM );
+        html = parser.toHtml( new StringReader( markdown ) );
+        assertTrue( html.contains( "<del>deleted</del>" ) );
+        assertTrue( html.contains( "<a href=\"http://maven.apache.org\">" ) );
+
+        assertSame( FlexmarkProfile.GFM.getParser(), FlexmarkProfile.GFM.getParser() );
+        assertSame( FlexmarkProfile.GFM.getRenderer(), FlexmarkProfile.GFM.getRenderer() );
+
+        assertThrows( IllegalArgumentException.class, () -> parser.setProfile( "unknown" ) );
+    }
+
+    /**
+     * Assert the streaming mode emits the same events as the default mode, on a document split into several chunks.
+     *
+     * @throws Exception if the document parsing failed
+     */
+    @Test
+    public void testStreaming()
+        throws Exception
+    {
+        StringBuilder markdown = new StringBuilder( "title: Streaming\n\n" );
+        for ( int i = 0; i < 2000; i++ )
+        {
+            markdown.append( "# Section " ).append( i ).append( "\n\n" );
+            markdown.append( "A paragraph with [a link][ref] and *emphasis*.\n\n" );
+            markdown.append( "* item\n* other item\n\n" );
+            markdown.append( "```\n# code\n\nmore code\n```\n\n" );
+        }
+        markdown.append( "[ref]: http://maven.apache.org\n" );
+
+        SinkEventTestingSink expected = new SinkEventTestingSink();
+        parser.parse( new StringReader( markdown.toString() ), expected );
+
+        parser.setStreaming( true );
+        SinkEventTestingSink actual = new SinkEventTestingSink();
+        parser.parse( new StringReader( markdown.toString() ), actual );
+
+        assertTrue( markdown.length() > 2 * MarkdownChunker.DEFAULT_CHUNK_SIZE );
+        assertEquals( expected.getEventList().toString(), actual.getEventList().toString() );
+    }
+
+    /**
+     * Assert the macros resolve their files against the basedir of the parse context, in both modes.
+     *
+     * @param basedir a basedir other than the default one
+     * @throws Exception if the document parsing failed
+     */
+    @Test
+    public void testSnippetMacroWithParseContext( @TempDir Path basedir )
+        throws Exception
+    {
+        Files.write( basedir.resolve( "context-snippet.txt" ),
+                     "snippet from context".getBytes( StandardCharsets.UTF_8 ) );
+        String markdown = "# Snippet\n\n<!-- MACRO{snippet|file=context-snippet.txt} -->\n";
+        ParseContext context = new ParseContext( basedir.toFile(), "context.md" );
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        parser.parse( new StringReader( markdown ), sink, context );
+        assertTrue( sink.getEventList().toString().contains( "snippet from context" ) );
+
+        parser.setStreaming( true );
+        sink = new SinkEventTestingSink();
+        parser.parse( new StringReader( markdown ), sink, context );
+        assertTrue( sink.getEventList().toString().contains( "snippet from context" ) );
+    }
+
+    /**
+     * Assert the snippets included by a Markdown page are recorded as its dependencies.
+     *
+     * @param basedir the basedir of the page
+     * @throws Exception if the document parsing failed
+     */
+    @Test
+    public void testRecordSnippetDependencies( @TempDir Path basedir )
+        throws Exception
+    {
+        Path snippet = basedir.resolve( "recorded-snippet.txt" );
+        Files.write( snippet, "recorded snippet".getBytes( StandardCharsets.UTF_8 ) );
+        String markdown = "<!-- MACRO{snippet|file=recorded-snippet.txt} -->\n";
+
+        DependencyRecorder recorder = new DependencyRecorder();
+        ParseContext context = new ParseContext( basedir.toFile(), "recorded.md" ).withDependencyRecorder( recorder );
+        parser.parse( new StringReader( markdown ), new SinkEventTestingSink(), context );
+
+        List<Dependency> dependencies = recorder.getDependencies();
+        assertEquals( 1, dependencies.size() );
+        assertEquals( snippet.toFile().toURI().toURL().toString(), dependencies.get( 0 ).getLocation() );
+        assertNotNull( dependencies.get( 0 ).getFingerprint() );
+    }
+
     @Test
     public void testTocMacro()
         throws Exception
@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.inject.Named;
-import javax.inject.Singleton;
 import javax.swing.text.html.HTML.Attribute;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
@@ -51,7 +50,6 @@ import org.slf4j.LoggerFactory;
  * @author <a href="mailto:jason@maven.org">Jason van Zyl</a>
  * @since 1.0
  */
-@Singleton
 @Named( "xdoc" )
 public class XdocParser
     extends Xhtml5BaseParser
@@ -95,6 +93,20 @@ public class XdocParser
     {
         this.sourceContent = null;
 
+        if ( isHeadOnly() )
+        {
+            // the source content is only needed by the macros of the body
+            try
+            {
+                super.parse( source, sink, reference );
+            }
+            finally
+            {
+                IOUtil.close( source );
+            }
+            return;
+        }
+
         try
         {
             StringWriter contentWriter = new StringWriter();
@@ -376,8 +388,7 @@ public class XdocParser
     {
         if ( !isSecondParsing() && StringUtils.isNotEmpty( macroName ) )
         {
-            MacroRequest request =
-                new MacroRequest( sourceContent, new XdocParser(), macroParameters, getBasedir() );
+            MacroRequest request = createMacroRequest( sourceContent, new XdocParser(), macroParameters );
 
             try
             {
@@ -479,9 +490,14 @@ public class XdocParser
         }
 
         sink.section( level, attribs );
-        sink.sectionTitle( level, null );
-        sink.text( HtmlTools.unescapeHTML( parser.getAttributeValue( null, Attribute.NAME.toString() ) ) );
-        sink.sectionTitle_( level );
+
+        String name = parser.getAttributeValue( null, Attribute.NAME.toString() );
+        if ( name != null )
+        {
+            sink.sectionTitle( level, null );
+            sink.text( HtmlTools.unescapeHTML( name ) );
+            sink.sectionTitle_( level );
+        }
     }
 
     /**
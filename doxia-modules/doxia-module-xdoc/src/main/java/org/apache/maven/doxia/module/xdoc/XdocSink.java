@@ -52,6 +52,15 @@ public class XdocSink
     /** An indication on if we're inside a box (verbatim). */
     private boolean boxedFlag;
 
+    /** An indication on if the output has started, e.g. with a leading comment, so no XML declaration can follow. */
+    private boolean startedFlag;
+
+    /** An indication on if the start tag of a section is still open, waiting for the name given by its title. */
+    private boolean sectionStartFlag;
+
+    /** The attributes of the current author, e.g. its email. */
+    private MutableAttributeSet authorAttributes;
+
     private String encoding;
 
     private String languageId;
@@ -138,12 +147,17 @@ public class XdocSink
 
         setHeadFlag( true );
 
-        write( "<?xml version=\"1.0\"" );
-        if ( encoding != null )
+        // the XML declaration is only allowed at the very beginning of the document
+        if ( !startedFlag )
         {
-            write( " encoding=\"" + encoding + "\"" );
+            write( "<?xml version=\"1.0\"" );
+            if ( encoding != null )
+            {
+                write( " encoding=\"" + encoding + "\"" );
+            }
+            write( "?>" );
         }
-        write( "?>" );
+        startedFlag = true;
 
         MutableAttributeSet atts = new SinkEventAttributeSet();
         atts.addAttribute( "xmlns", XDOC_NAMESPACE );
@@ -186,6 +200,9 @@ public class XdocSink
      */
     public void title()
     {
+        // drop the white space between the elements of the head
+        resetTextBuffer();
+
         writeStartTag( TITLE );
     }
 
@@ -203,6 +220,18 @@ public class XdocSink
         resetTextBuffer();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see XdocMarkup#AUTHOR_TAG
+     */
+    public void author( SinkEventAttributes attributes )
+    {
+        resetTextBuffer();
+
+        authorAttributes = SinkUtils.filterAttributes( attributes, new String[] {"email"} );
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -212,7 +241,7 @@ public class XdocSink
     {
         if ( getTextBuffer().length() > 0 )
         {
-            writeStartTag( AUTHOR_TAG );
+            writeStartTag( AUTHOR_TAG, authorAttributes );
             String text = HtmlTools.escapeHTML( getTextBuffer().toString() );
             // hack: un-escape numerical entities that have been escaped above
             // note that numerical entities should really be written as one unicode character in the first place
@@ -221,6 +250,17 @@ public class XdocSink
             writeEndTag( AUTHOR_TAG );
             resetTextBuffer();
         }
+        authorAttributes = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see XdocMarkup#DATE_TAG
+     */
+    public void date( SinkEventAttributes attributes )
+    {
+        resetTextBuffer();
     }
 
     /**
@@ -288,19 +328,33 @@ public class XdocSink
      */
     protected void onSection( int depth, SinkEventAttributes attributes )
     {
+        closeSectionStart();
+
         if ( depth == SECTION_LEVEL_1 )
         {
             write( LESS_THAN + SECTION_TAG.toString()
                     + SinkUtils.getAttributeString(
-                        SinkUtils.filterAttributes( attributes, SinkUtils.SINK_BASE_ATTRIBUTES ) )
-                    + SPACE + Attribute.NAME + EQUAL + QUOTE );
+                        SinkUtils.filterAttributes( attributes, SinkUtils.SINK_BASE_ATTRIBUTES ) ) );
+            sectionStartFlag = true;
         }
         else if ( depth == SECTION_LEVEL_2 )
         {
             write( LESS_THAN + SUBSECTION_TAG.toString()
                     + SinkUtils.getAttributeString(
-                        SinkUtils.filterAttributes( attributes, SinkUtils.SINK_BASE_ATTRIBUTES  ) )
-                    + SPACE + Attribute.NAME + EQUAL + QUOTE );
+                        SinkUtils.filterAttributes( attributes, SinkUtils.SINK_BASE_ATTRIBUTES  ) ) );
+            sectionStartFlag = true;
+        }
+    }
+
+    /**
+     * Closes the start tag of a section without title, i.e. without a name attribute.
+     */
+    private void closeSectionStart()
+    {
+        if ( sectionStartFlag )
+        {
+            sectionStartFlag = false;
+            write( String.valueOf( GREATER_THAN ) );
         }
     }
 
@@ -313,6 +367,8 @@ public class XdocSink
      */
     protected void onSection_( int depth )
     {
+        closeSectionStart();
+
         if ( depth == SECTION_LEVEL_1 )
         {
             writeEndTag( SECTION_TAG );
@@ -336,7 +392,15 @@ public class XdocSink
         MutableAttributeSet atts = SinkUtils.filterAttributes(
                 attributes, SinkUtils.SINK_SECTION_ATTRIBUTES  );
 
-        if ( depth == SECTION_LEVEL_3 )
+        if ( depth == SECTION_LEVEL_1 || depth == SECTION_LEVEL_2 )
+        {
+            if ( sectionStartFlag )
+            {
+                sectionStartFlag = false;
+                write( SPACE + Attribute.NAME.toString() + EQUAL + QUOTE );
+            }
+        }
+        else if ( depth == SECTION_LEVEL_3 )
         {
             writeStartTag( H3, atts );
         }
@@ -505,6 +569,30 @@ public class XdocSink
         init();
     }
 
+    /** {@inheritDoc} */
+    public void comment( String comment )
+    {
+        startedFlag = true;
+
+        super.comment( comment );
+    }
+
+    /** {@inheritDoc} */
+    public void text( String text )
+    {
+        startedFlag = true;
+
+        super.text( text );
+    }
+
+    /** {@inheritDoc} */
+    public void text( char[] buf, int off, int len )
+    {
+        startedFlag = true;
+
+        super.text( buf, off, len );
+    }
+
     /**
      * Adds a link with an optional target.
      *
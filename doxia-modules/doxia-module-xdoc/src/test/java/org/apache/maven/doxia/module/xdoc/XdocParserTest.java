@@ -211,6 +211,20 @@ public class XdocParserTest
         assertSinkEquals( it, "title_", "head_", "body",  "body_" );
     }
 
+    @Test
+    public void testHeadOnly()
+        throws Exception
+    {
+        // the malformed body is never read
+        String text = "<document><properties><title>title</title><author>John Doe</author></properties>"
+                + "<body><section name=\"s\"><p>text</div></body></document>";
+
+        parser.setHeadOnly( true );
+        Iterator<SinkEventElement> it = parseText( text );
+
+        assertSinkEquals( it, "head", "title", "text", "title_", "author", "text", "author_", "head_" );
+    }
+
     @Test
     public void testDocumentBodyEventsList()
         throws Exception
@@ -413,6 +427,32 @@ public class XdocParserTest
 
         assertSinkStartsWith( it, "sectionTitle1_", "paragraph" );
 
+        assertSinkEquals( it.next(), "text", "&\u0159\uD835\uDFED" );
+
+        assertSinkEquals( it, "paragraph_", "section1_" );
+    }
+
+    @Test
+    public void testEntitiesWithoutCoalescing()
+        throws Exception
+    {
+        final String text = "<!DOCTYPE test [<!ENTITY foo \"&#x159;\"><!ENTITY tritPos  \"&#x1d7ed;\">]>"
+                + "<section name=\"&amp;&foo;&tritPos;\"><p>&amp;&foo;&tritPos;</p></section>";
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+
+        parser.setCoalesceText( false );
+        parser.setValidate( false );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertSinkStartsWith( it, "section1", "sectionTitle1" );
+
+        assertSinkEquals( it.next(), "text", "&\u0159\uD835\uDFED" );
+
+        assertSinkStartsWith( it, "sectionTitle1_", "paragraph" );
+
         assertSinkEquals( it.next(), "text", "&" );
 
         assertSinkEquals( it.next(), "text", "\u0159" );
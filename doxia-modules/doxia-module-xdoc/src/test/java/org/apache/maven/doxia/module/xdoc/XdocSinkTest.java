@@ -29,6 +29,7 @@ import java.io.Writer;
 
 import static org.apache.maven.doxia.util.HtmlTools.escapeHTML;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author <a href="mailto:jason@maven.org">Jason van Zyl</a>
@@ -429,6 +430,63 @@ public class XdocSinkTest
         assertEquals( "<a href=\"name\"></a><a href=\"name\" target=\"nirvana\"></a>", writer.toString() );
     }
 
+    /**
+     * Test a section without title, as emitted for the missing sections of a heading.
+     */
+    @Test
+    public void testSectionWithoutTitle()
+    {
+        Writer writer =  new StringWriter();
+        XdocSink sink = null;
+
+        try
+        {
+            sink = new XdocSink( writer );
+            sink.setInsertNewline( false );
+
+            sink.section1();
+            sink.section2();
+            sink.section3();
+            sink.sectionTitle3();
+            sink.text( "title" );
+            sink.sectionTitle3_();
+            sink.section3_();
+            sink.section2_();
+            sink.section1_();
+        }
+        finally
+        {
+            sink.close();
+        }
+
+        assertEquals( "<section><subsection><h3>title</h3></subsection></section>", writer.toString() );
+    }
+
+    /**
+     * Test that a comment preceding the head is not followed by the XML declaration.
+     */
+    @Test
+    public void testLeadingComment()
+    {
+        Writer writer =  new StringWriter();
+        XdocSink sink = null;
+
+        try
+        {
+            sink = new XdocSink( writer );
+
+            sink.comment( "license" );
+            sink.head();
+            sink.head_();
+        }
+        finally
+        {
+            sink.close();
+        }
+
+        assertTrue( writer.toString().startsWith( "<!--license--><document" ), writer.toString() );
+    }
+
     /** {@inheritDoc} */
     protected String getCommentBlock( String text )
     {
@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.inject.Named;
-import javax.inject.Singleton;
 import javax.swing.text.html.HTML.Attribute;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
@@ -50,7 +49,6 @@ import org.slf4j.LoggerFactory;
  * @author <a href="mailto:jason@maven.org">Jason van Zyl</a>
  * @since 1.0
  */
-@Singleton
 @Named( "xhtml4" )
 @Deprecated
 public class XhtmlParser
@@ -262,7 +260,7 @@ public class XhtmlParser
             parameters.put( key, value );
         }
 
-        MacroRequest request = new MacroRequest( sourceContent, new XhtmlParser(), parameters, getBasedir() );
+        MacroRequest request = createMacroRequest( sourceContent, new XhtmlParser(), parameters );
 
         try
         {
@@ -339,6 +337,20 @@ public class XhtmlParser
     {
         this.sourceContent = null;
 
+        if ( isHeadOnly() )
+        {
+            // the source content is only needed by the macros of the body
+            try
+            {
+                super.parse( source, sink, reference );
+            }
+            finally
+            {
+                IOUtil.close( source );
+            }
+            return;
+        }
+
         try
         {
             StringWriter contentWriter = new StringWriter();
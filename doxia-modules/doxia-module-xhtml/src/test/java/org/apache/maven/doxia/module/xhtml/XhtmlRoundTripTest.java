@@ -0,0 +1,64 @@
+package org.apache.maven.doxia.module.xhtml;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.maven.doxia.module.AbstractRoundTripTest;
+import org.apache.maven.doxia.parser.Parser;
+import org.apache.maven.doxia.sink.Sink;
+
+/**
+ * Check that the events of the Xhtml test documents are unchanged after being rendered
+ * by the XhtmlSink and parsed again.
+ */
+public class XhtmlRoundTripTest
+    extends AbstractRoundTripTest
+{
+    /** {@inheritDoc} */
+    protected Sink createSink( Writer writer )
+    {
+        XhtmlSink sink = new XhtmlSink( writer );
+        sink.setInsertNewline( false );
+        return sink;
+    }
+
+    /** {@inheritDoc} */
+    protected Parser createParser()
+    {
+        return new XhtmlParser();
+    }
+
+    /** {@inheritDoc} */
+    protected Set<String> getIgnoredAttributes()
+    {
+        // the sink alternates the class of table rows, and aligns the cells from the tableRows justification
+        return new HashSet<>( Arrays.asList( "class", "align" ) );
+    }
+
+    /** {@inheritDoc} */
+    protected String outputExtension()
+    {
+        return "xhtml4";
+    }
+}
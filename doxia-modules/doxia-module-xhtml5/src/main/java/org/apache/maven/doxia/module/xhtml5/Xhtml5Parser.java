@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.inject.Named;
-import javax.inject.Singleton;
 import javax.swing.text.html.HTML.Attribute;
 
 import org.apache.maven.doxia.macro.MacroExecutionException;
@@ -47,7 +46,6 @@ import org.slf4j.LoggerFactory;
 /**
  * Parse an xhtml5 model and emit events into a Doxia Sink.
  */
-@Singleton
 @Named( "xhtml" )
 public class Xhtml5Parser
     extends Xhtml5BaseParser
@@ -257,7 +255,9 @@ public class Xhtml5Parser
             parameters.put( key, value );
         }
 
-        MacroRequest request = new MacroRequest( sourceContent, new Xhtml5Parser(), parameters, getBasedir() );
+        // no source content when streaming, see parseWithoutSourceContent()
+        String content = ( sourceContent == null ) ? "" : sourceContent;
+        MacroRequest request = createMacroRequest( content, new Xhtml5Parser(), parameters );
 
         try
         {
@@ -334,6 +334,20 @@ public class Xhtml5Parser
     {
         this.sourceContent = null;
 
+        if ( isHeadOnly() )
+        {
+            // the source content is only needed by the macros of the body
+            try
+            {
+                super.parse( source, sink, reference );
+            }
+            finally
+            {
+                IOUtil.close( source );
+            }
+            return;
+        }
+
         try
         {
             StringWriter contentWriter = new StringWriter();
@@ -358,4 +372,22 @@ public class Xhtml5Parser
             this.sourceContent = null;
         }
     }
+
+    /**
+     * Parses the source as it is read, without keeping a copy of it: this allows to parse very large
+     * documents, but macros that need the document source, like <code>toc</code>, see an empty document.
+     *
+     * @param source the source to parse.
+     * @param sink the sink to receive the events.
+     * @param reference the document reference, may be null.
+     * @throws ParseException if the source cannot be parsed.
+     * @since 2.0.0
+     */
+    protected void parseWithoutSourceContent( Reader source, Sink sink, String reference )
+        throws ParseException
+    {
+        this.sourceContent = null;
+
+        super.parse( source, sink, reference );
+    }
 }
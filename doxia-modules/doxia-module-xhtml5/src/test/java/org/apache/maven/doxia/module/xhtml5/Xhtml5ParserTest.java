@@ -129,6 +129,30 @@ public class Xhtml5ParserTest
         assertFalse( it.hasNext() );
     }
 
+    /** @throws Exception  */
+    @Test
+    public void testHeadOnly()
+        throws Exception
+    {
+        // the malformed body is never read
+        String text = "<html><head><title>Title</title></head><body><p>text</div></body></html>";
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+
+        Xhtml5Parser parser = (Xhtml5Parser) createParser();
+        parser.setHeadOnly( true );
+        parser.parse( text, sink );
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+
+        assertEquals( "head", it.next().getName() );
+        assertEquals( "title", it.next().getName() );
+        assertEquals( "Title", it.next().getArgs()[0] );
+        assertEquals( "title_", it.next().getName() );
+        assertEquals( "head_", it.next().getName() );
+        assertFalse( it.hasNext() );
+    }
+
     /** @throws Exception  */
     @Test
     public void testPreEventsList()
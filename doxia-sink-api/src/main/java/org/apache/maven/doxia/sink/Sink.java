@@ -134,6 +134,43 @@ public interface Sink
      */
     int JUSTIFY_RIGHT = 2;
 
+    /**
+     * Event category for the document structure: the head and its title, author and date,
+     * the sections, their titles and the text of these titles.
+     * @see #getConsumedEvents()
+     * @since 2.0.0
+     */
+    int EVENTS_STRUCTURE = 1;
+
+    /**
+     * Event category for the content of the body besides tables, eg paragraphs, lists,
+     * verbatim blocks, links, figures and their text.
+     * @see #getConsumedEvents()
+     * @since 2.0.0
+     */
+    int EVENTS_TEXT = 2;
+
+    /**
+     * Event category for tables and their content.
+     * @see #getConsumedEvents()
+     * @since 2.0.0
+     */
+    int EVENTS_TABLES = 4;
+
+    /**
+     * Event category for the events generated by macros.
+     * @see #getConsumedEvents()
+     * @since 2.0.0
+     */
+    int EVENTS_MACROS = 8;
+
+    /**
+     * All event categories.
+     * @see #getConsumedEvents()
+     * @since 2.0.0
+     */
+    int EVENTS_ALL = EVENTS_STRUCTURE | EVENTS_TEXT | EVENTS_TABLES | EVENTS_MACROS;
+
     /**
      * Starts the head element.
      *
@@ -1633,6 +1670,27 @@ public interface Sink
      */
     void text( String text, SinkEventAttributes attributes );
 
+    /**
+     * Adds a text given as a range of characters, <i>ie</i> the same as
+     * <code>text( new String( buf, off, len ) )</code> without requiring the caller
+     * to create a String first.
+     *
+     * <p>
+     *   The characters are only valid for the duration of the call, an implementing Sink
+     *   must not keep a reference to the array.
+     * </p>
+     *
+     * @param buf The characters to write.
+     * @param off The offset of the first character in <code>buf</code>.
+     * @param len The number of characters to write.
+     * @see #text(String)
+     * @since 2.0.0
+     */
+    default void text( char[] buf, int off, int len )
+    {
+        text( new String( buf, off, len ) );
+    }
+
     /**
      * Adding a raw text, <i>ie</i> a text without any special formatting operations.
      *
@@ -1640,6 +1698,24 @@ public interface Sink
      */
     void rawText( String text );
 
+    /**
+     * Adding a raw text given as a CharSequence, <i>ie</i> the same as
+     * <code>rawText( text.toString() )</code> without requiring the caller to create a String first.
+     *
+     * <p>
+     *   The content of <code>text</code> is only valid for the duration of the call, an implementing Sink
+     *   must not keep a reference to it.
+     * </p>
+     *
+     * @param text The text to write.
+     * @see #rawText(String)
+     * @since 2.0.0
+     */
+    default void rawText( CharSequence text )
+    {
+        rawText( text == null ? null : text.toString() );
+    }
+
     /**
      * Add a comment.
      *
@@ -1673,4 +1749,22 @@ public interface Sink
      * Closing a previously-closed Sink has no effect.
      */
     void close();
+
+    /**
+     * Returns the categories of events this Sink makes use of, a combination of the <code>EVENTS_*</code>
+     * constants. A parser may skip the work producing events of the other categories,
+     * eg an indexing Sink only interested in {@link #EVENTS_STRUCTURE} spares the execution of macros.
+     *
+     * <p>
+     *   This is a hint only: a Sink must still accept any event, as parsers are free to ignore it.
+     *   The returned value must not change during the lifetime of the Sink.
+     * </p>
+     *
+     * @return the consumed event categories, {@link #EVENTS_ALL} for a Sink producing a complete output.
+     * @since 2.0.0
+     */
+    default int getConsumedEvents()
+    {
+        return EVENTS_ALL;
+    }
 }